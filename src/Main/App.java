@@ -1,48 +1,78 @@
 package Main;
 
-import Main.ExceptionHandlers.*;
-import Main.Nodes.ASTNodes.ProgramNode;
-import Main.Token.Lexer.Lexer;
-import Main.Token.Lexer.Parser.Parser;
-import Main.Token.Lexer.Parser.SemanticAnalyzer;
-import Main.Token.Token;
+import Main.Engine.CodeEngine;
+import Main.Engine.CompiledProgram;
+import Main.Engine.Diagnostic;
+import Main.Engine.ExecutionMode;
+import Main.Engine.InputSource;
+import Main.Engine.OutputSink;
+import Main.Optimizer.OptimizationLevel;
+import Main.Token.Lexer.MappedSource;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 public class App {
     public static void main(String[] args) {
-        try (BufferedReader reader = new BufferedReader(new FileReader("src/Main/main.code"))) {
-            StringBuilder fileContent = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                fileContent.append(line).append("\n");
+        // --engine=closure runs the program as compiled closures, --engine=vm as bytecode, --engine=jit as a JVM class,
+        // --engine=tiered walks the tree and compiles hot loops, --engine=tree (the default) only walks the tree.
+        // --hot-loop=N sets how many passes make a loop hot. -O0, -O1 (the default) and -O2 set how much the program is
+        // optimized first, --opt-report prints what the optimizer changed.
+        ExecutionMode mode = ExecutionMode.TREE;
+        int hotLoopThreshold = CodeEngine.DEFAULT_HOT_LOOP_THRESHOLD;
+        OptimizationLevel optimizationLevel = CodeEngine.DEFAULT_OPTIMIZATION_LEVEL;
+        boolean optimizationReport = false;
+        for (String arg : args) {
+            if (arg.startsWith("-O")) {
+                optimizationLevel = OptimizationLevel.of(arg.substring("-O".length()));
+                if (optimizationLevel == null) {
+                    System.err.println("ERROR: Unknown optimization level " + arg + ", expected -O0, -O1 or -O2.");
+                    System.exit(1);
+                }
             }
-            int errorCount = getErrorCount(fileContent);
-            if (errorCount == 0) {
+            if (arg.equals("--opt-report")) {
+                optimizationReport = true;
+            }
+            if (arg.startsWith("--hot-loop=")) {
+                try {
+                    hotLoopThreshold = Integer.parseInt(arg.substring("--hot-loop=".length()));
+                } catch (NumberFormatException e) {
+                    hotLoopThreshold = 0;
+                }
+                if (hotLoopThreshold < 1) {
+                    System.err.println("ERROR: Invalid hot loop threshold " + arg.substring("--hot-loop=".length()) + ", expected a positive number.");
+                    System.exit(1);
+                }
+            }
+            if (arg.startsWith("--engine=")) {
+                mode = ExecutionMode.of(arg.substring("--engine=".length()));
+                if (mode == null) {
+                    System.err.println("ERROR: Unknown engine " + arg.substring("--engine=".length()) + ", expected tree, closure, vm, jit or tiered.");
+                    System.exit(1);
+                }
+            }
+        }
+        try {
+            CharSequence fileContent = MappedSource.load(Path.of("src/Main/main.code"));
+            CodeEngine engine = new CodeEngine(mode, hotLoopThreshold, optimizationLevel);
+            CompiledProgram program = engine.compile(fileContent);
+            if (optimizationReport && program.getOptimizationReport() != null) {
+                System.err.println(program.getOptimizationReport());
+            }
+            if (!program.isSuccessful()) {
+                program.getDiagnostics().forEach(System.err::println);
+                System.exit(1);
+            }
+            List<Diagnostic> diagnostics = engine.run(program, InputSource.from(System.in), OutputSink.of(System.out));
+            if (diagnostics.isEmpty()) {
                 System.out.println("\nNo errors found in CODE.");
+            } else {
+                diagnostics.forEach(System.err::println);
             }
         } catch (IOException e) {
             System.err.println("Error reading file:");
             e.printStackTrace();
-        } catch (Exception e) {
-            System.err.println(e.getMessage());
-        }
-    }
-
-    private static int getErrorCount(StringBuilder fileContent) throws BeginContainerMissingException, EndContainerMissingException, VariableInitializationException, SyntaxErrorException, BreakException, VariableDeclarationException, ScannedInputException {
-        Lexer lexer = new Lexer(fileContent.toString());
-        List<Token> tokens = lexer.lex();
-        int lines = lexer.getLineCount();
-        Parser parser = new Parser(tokens);
-        ProgramNode program = (ProgramNode) parser.parse();
-        if(Parser.getStatementCount() > lines) {
-            throw new SyntaxErrorException("ERROR: Cannot have more than one statement in a single line.");
         }
-        SemanticAnalyzer analyzer = new SemanticAnalyzer(program.getSymbolTable());
-        analyzer.analyze(program);
-        return parser.getErrorCount();
     }
 }
@@ -0,0 +1,597 @@
+package Main.Bytecode;
+
+import Main.Nodes.ASTNodes.*;
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+import Main.Token.Token;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Compiles a type checked program into a Chunk for the VirtualMachine. Only programs the TypeChecker fully typed
+// compile: an expression or assignment it left unchecked makes compile return null, and such programs stay on the
+// tree walker. Blocks are compiled from an explicit stack, the way BlockExecutor runs them, with the same control
+// flow: BREAK jumps out of the innermost loop, CONTINUE to its update (for a FOR) or condition check. AND and OR jump
+// past their right operand when the left one decides the result; in an IF or loop condition they jump straight to
+// the code the condition selects.
+public class BytecodeCompiler {
+    // deepest nesting compileLoop takes; an outer loop repeats the code of the loops in it, so compiling every level
+    // of a deep nest as it gets hot would cost the square of its depth
+    private static final int MAX_LOOP_NESTING = 64;
+
+    private int[] code = new int[64];
+    private int size;
+    private final List<Object> constants = new ArrayList<>();
+    private final List<Trap> traps = new ArrayList<>();
+    private final Map<String, Integer> trapIndex = new HashMap<>();
+    private int depth;
+    private int maxStack;
+    private final int maxBlocks;
+    // loops the tier of the current run could not compile, so a loop around them cannot be compiled either
+    private final Predicate<IterativeNode> rejected;
+
+    private BytecodeCompiler(int maxBlocks, Predicate<IterativeNode> rejected) {
+        this.maxBlocks = maxBlocks;
+        this.rejected = rejected;
+    }
+
+    public static Chunk compile(ProgramNode programNode) {
+        BytecodeCompiler compiler = new BytecodeCompiler(Integer.MAX_VALUE, loop -> false);
+        try {
+            compiler.declarations((VariableDeclarationsNode) programNode.getVariableDeclarations());
+            compiler.statements(((ExecutableCodeNode) programNode.getExecutableCode()).getStatements());
+        } catch (Unsupported e) {
+            return null;
+        }
+        compiler.emit(Opcode.HALT);
+        return new Chunk(Arrays.copyOf(compiler.code, compiler.size), compiler.constants.toArray(),
+                compiler.traps.toArray(new Trap[0]), compiler.maxStack,
+                ((VariableDeclarationsNode) programNode.getVariableDeclarations()).getIndex().size(), null);
+    }
+
+    // Compiles the rest of a loop the tree walker is running: from its condition check until it exits, without a FOR
+    // initialization. The chunk works on the variables the walker left in the SymbolTable, whose slots index describes.
+    public static Chunk compileLoop(IterativeNode iterativeNode, DeclarationIndex index, Predicate<IterativeNode> rejected) {
+        BytecodeCompiler compiler = new BytecodeCompiler(MAX_LOOP_NESTING, rejected);
+        try {
+            ArrayList<Block> blocks = new ArrayList<>();
+            compiler.openLoop(iterativeNode, blocks);
+            compiler.blocks(blocks);
+        } catch (Unsupported e) {
+            return null;
+        }
+        compiler.emit(Opcode.HALT);
+        DataType[] slotTypes = new DataType[index.size()];
+        for (int slot = 0; slot < slotTypes.length; slot++) {
+            slotTypes[slot] = DataType.of(index.getDataType(index.getSymbolId(slot)));
+        }
+        return new Chunk(Arrays.copyOf(compiler.code, compiler.size), compiler.constants.toArray(),
+                compiler.traps.toArray(new Trap[0]), compiler.maxStack, slotTypes.length, slotTypes);
+    }
+
+    private void declarations(VariableDeclarationsNode declarationsNode) {
+        List<SingleVariableDeclaration> declarations = declarationsNode.getVariableDeclarations();
+        // declarations run in order, so which variables exist at each point is known here
+        boolean[] declared = new boolean[declarationsNode.getIndex().size()];
+        for (SingleVariableDeclaration declaration : declarations) {
+            // the line the SemanticAnalyzer reports declaration errors at
+            int line = declarations.indexOf(declaration) + 1;
+            for (VariableNode variableNode : declaration.getVariableNames()) {
+                resolved(variableNode);
+                switch (variableNode.getInitialValue()) {
+                    case ExpressionNode expressionNode -> {
+                        expression(expressionNode);
+                        store(variableNode, expressionNode.getType());
+                    }
+                    case VariableNode source -> {
+                        String name = source.getVariableName();
+                        resolved(source);
+                        if (!declared[source.getSlot()]) {
+                            emit(Opcode.THROW, trap(Trap.Kind.DECLARATION, "ERROR: Variable " + name + " is not declared.", line));
+                        } else {
+                            load(source, trap(Trap.Kind.INITIALIZATION, "ERROR: Variable " + name + " is not initialized.", line));
+                            store(variableNode, source.getType());
+                        }
+                    }
+                    case LiteralNode literalNode -> {
+                        constant(literalNode.getValue());
+                        store(variableNode, DataType.ofValue(literalNode.getValue()));
+                    }
+                    case null -> emit(Opcode.DECLARE, variableNode.getSlot());
+                    default -> {
+                        constant(variableNode.getInitialValue());
+                        store(variableNode, DataType.ofValue(variableNode.getInitialValue()));
+                    }
+                }
+                declared[variableNode.getSlot()] = true;
+            }
+        }
+    }
+
+    private void statements(List<ASTNode> statements) {
+        ArrayList<Block> blocks = new ArrayList<>();
+        blocks.add(new Block(statements));
+        blocks(blocks);
+    }
+
+    private void blocks(ArrayList<Block> blocks) {
+        while (!blocks.isEmpty()) {
+            if (blocks.size() > maxBlocks) {
+                throw new Unsupported();
+            }
+            Block block = blocks.getLast();
+            if (block.loop != null && block.next == block.loop.getContinueIndex()) {
+                block.continueJumps.forEach(this::patch);
+                block.continueJumps.clear();
+            }
+            if (block.next == block.statements.size()) {
+                blocks.removeLast();
+                close(block, blocks);
+                continue;
+            }
+
+            ASTNode statement = block.statements.get(block.next++);
+            switch (statement) {
+                case ConditionalNode conditionalNode -> openBranch(conditionalNode, 0, new ArrayList<>(), blocks);
+                case IterativeNode iterativeNode -> {
+                    if (rejected.test(iterativeNode)) {
+                        throw new Unsupported();
+                    }
+                    if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof EvaluableNode initialization) {
+                        evaluable(initialization);
+                    }
+                    openLoop(iterativeNode, blocks);
+                }
+                case EvaluableNode evaluableNode -> evaluable(evaluableNode);
+                case BreakNode breakNode -> {
+                    Block loopBody = innermostLoop(blocks);
+                    if (loopBody == null) {
+                        emit(Opcode.THROW, trap(Trap.Kind.BREAK, null, 0));
+                    } else {
+                        loopBody.exitJumps.add(jump(Opcode.JUMP));
+                    }
+                }
+                case ContinueNode continueNode -> {
+                    // CONTINUE outside any loop does nothing
+                    Block loopBody = innermostLoop(blocks);
+                    if (loopBody != null && loopBody.loop.getContinueIndex() == loopBody.statements.size()) {
+                        emit(Opcode.JUMP, loopBody.conditionStart);
+                    } else if (loopBody != null) {
+                        loopBody.continueJumps.add(jump(Opcode.JUMP));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static Block innermostLoop(ArrayList<Block> blocks) {
+        for (int i = blocks.size() - 1; i >= 0; i--) {
+            if (blocks.get(i).loop != null) {
+                return blocks.get(i);
+            }
+        }
+        return null;
+    }
+
+    // Emits the loop condition check and opens the body.
+    private void openLoop(IterativeNode iterativeNode, ArrayList<Block> blocks) {
+        Block body = new Block(iterativeNode.getIterativeStatements());
+        body.loop = iterativeNode;
+        body.conditionStart = size;
+        body.exitJumps.addAll(condition(iterativeNode.getCondition(), iterativeNode.getLineNumber()));
+        blocks.add(body);
+    }
+
+    // Code after a block: loop bodies go back to their condition, IF branches jump past the rest of the IF and
+    // open the next branch.
+    private void close(Block block, ArrayList<Block> blocks) {
+        if (block.loop != null) {
+            emit(Opcode.JUMP, block.conditionStart);
+            block.exitJumps.forEach(this::patch);
+        } else if (block.conditional != null) {
+            if (block.branch < block.conditional.getConditions().size()) {
+                block.endJumps.add(jump(Opcode.JUMP));
+                block.nextBranchJumps.forEach(this::patch);
+                openBranch(block.conditional, block.branch + 1, block.endJumps, blocks);
+            } else {
+                block.endJumps.forEach(this::patch);
+            }
+        }
+    }
+
+    // Branch i is the IF, the ELSE IFs after it and the ELSE last.
+    private void openBranch(ConditionalNode conditionalNode, int branch, List<Integer> endJumps, ArrayList<Block> blocks) {
+        List<ASTNode> conditions = conditionalNode.getConditions();
+        Block block;
+        if (branch < conditions.size()) {
+            List<Integer> nextBranchJumps = condition(conditions.get(branch), conditionalNode.getLineNumber());
+            block = new Block(branch == 0 ? conditionalNode.getIfStatements().getStatements()
+                    : conditionalNode.getElseIfBlocks().get(branch - 1).getStatements());
+            block.nextBranchJumps = nextBranchJumps;
+        } else {
+            block = new Block(conditionalNode.getElseStatements().getStatements());
+        }
+        block.conditional = conditionalNode;
+        block.branch = branch;
+        block.endJumps = endJumps;
+        blocks.add(block);
+    }
+
+    private void evaluable(EvaluableNode evaluableNode) {
+        switch (evaluableNode) {
+            case VariableReinitializedNode reinitializedNode -> reinitialization(reinitializedNode);
+            case DisplayNode displayNode -> display(displayNode);
+            case ScannerNode scannerNode -> emit(Opcode.SCAN, pool(scannerNode));
+            default -> throw new Unsupported();
+        }
+    }
+
+    private void reinitialization(VariableReinitializedNode reinitializedNode) {
+        // set by the TypeChecker when the value and every target have known, compatible types
+        DataType valueType = reinitializedNode.getValueType();
+        if (valueType == null) {
+            throw new Unsupported();
+        }
+        switch (reinitializedNode.getValue().getValue()) {
+            case ExpressionNode expressionNode -> expression(expressionNode);
+            case VariableNode source -> load(source, trap(Trap.Kind.DECLARATION,
+                    "ERROR: Variable '" + source.getVariableName() + "' not initialized.", reinitializedNode.getLineNumber()));
+            case null -> throw new Unsupported();
+            default -> constant(reinitializedNode.getValue().getValue());
+        }
+        List<VariableNode> targets = reinitializedNode.getVariableNames();
+        for (int i = 0; i < targets.size(); i++) {
+            if (i < targets.size() - 1) {
+                emit(Opcode.DUP);
+                push();
+            }
+            store(targets.get(i), valueType);
+        }
+    }
+
+    private void display(DisplayNode displayNode) {
+        for (ASTNode part : displayNode.getExpressions()) {
+            switch (part) {
+                case ExpressionNode expressionNode -> {
+                    expression(expressionNode);
+                    append(expressionNode.getType());
+                }
+                case VariableNode variableNode -> {
+                    load(variableNode, trap(Trap.Kind.INITIALIZATION,
+                            "ERROR: Variable " + variableNode.getVariableName() + " is not initialized.", displayNode.getLineNumber()));
+                    append(variableNode.getType());
+                }
+                case LiteralNode literalNode -> emit(Opcode.APPEND_CONST, pool(String.valueOf(literalNode.getValue())));
+                case null, default -> {
+                }
+            }
+        }
+        emit(Opcode.PRINT);
+    }
+
+    private void append(DataType type) {
+        emit(switch (type) {
+            case INT -> Opcode.APPEND_INT;
+            case FLOAT -> Opcode.APPEND_FLOAT;
+            case CHAR -> Opcode.APPEND_CHAR;
+            case BOOL -> Opcode.APPEND_BOOL;
+        });
+        pop();
+    }
+
+    // Emits an IF or loop condition check and returns the jumps taken when it does not hold.
+    private List<Integer> condition(ASTNode condition, int lineNumber) {
+        List<Integer> falseJumps = new ArrayList<>();
+        switch (condition) {
+            case ExpressionNode expressionNode -> {
+                List<Integer> trueJumps = new ArrayList<>();
+                expression(expressionNode, falseJumps, trueJumps);
+                falseJumps.add(jump(Opcode.JUMP_IF_FALSE));
+                trueJumps.forEach(this::patch);
+                return falseJumps;
+            }
+            case VariableNode variableNode -> load(variableNode, trap(Trap.Kind.INITIALIZATION,
+                    "ERROR: Variable " + variableNode.getVariableName() + " not initialized.", lineNumber));
+            case LiteralNode literalNode -> constant(Boolean.TRUE.equals(literalNode.getValue()));
+            case null, default -> {
+                falseJumps.add(jump(Opcode.JUMP));
+                return falseJumps;
+            }
+        }
+        falseJumps.add(jump(Opcode.JUMP_IF_FALSE));
+        return falseJumps;
+    }
+
+    private void expression(ExpressionNode root) {
+        expression(root, null, null);
+    }
+
+    // Expression nodes in the TypeChecker's post-order; each leaves its result on the stack, converted to FLOAT when
+    // its parent computes in FLOAT. An AND or OR checks its left operand where its right one starts, loading it first
+    // when it is a leaf, and keeps it as the result when it decides. For a condition, falseJumps and trueJumps
+    // collect the jumps of the ANDs (or ORs) the root's value is made of, which leave the condition directly.
+    private void expression(ExpressionNode root, List<Integer> falseJumps, List<Integer> trueJumps) {
+        if (!root.isTyped()) {
+            throw new Unsupported();
+        }
+        ExpressionNode[] postOrder = root.getPostOrder();
+        Set<ExpressionNode> branching = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (falseJumps != null && root instanceof LogicalExpressionNode rootNode && rootNode.isShortCircuit()) {
+            ArrayDeque<ExpressionNode> pending = new ArrayDeque<>(List.of(root));
+            while (!pending.isEmpty()) {
+                ExpressionNode node = pending.pop();
+                branching.add(node);
+                for (ASTNode operand : new ASTNode[]{node.getLeftOperand(), node.getRightOperand()}) {
+                    if (operand instanceof LogicalExpressionNode logicalNode && logicalNode.getOperator() == rootNode.getOperator()
+                            && logicalNode.getRightOperand() != null) {
+                        pending.push(logicalNode);
+                    }
+                }
+            }
+        }
+        Map<ExpressionNode, List<LogicalExpressionNode>> checks = new IdentityHashMap<>();
+        for (ExpressionNode node : postOrder) {
+            if (node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit()
+                    && node.getRightOperand() instanceof ExpressionNode right) {
+                // an outer node comes later in the post-order and is checked first
+                checks.computeIfAbsent(ExpressionNode.firstInPostOrder(right), key -> new ArrayList<>()).addFirst(logicalNode);
+            }
+        }
+        Map<ExpressionNode, Integer> skipJumps = new IdentityHashMap<>();
+        Set<ExpressionNode> widened = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ExpressionNode node : postOrder) {
+            if (node.getOperandType() == DataType.FLOAT) {
+                if (node.getLeftOperand() instanceof ExpressionNode left && left.getType() == DataType.INT) {
+                    widened.add(left);
+                }
+                if (node.getRightOperand() instanceof ExpressionNode right && right.getType() == DataType.INT) {
+                    widened.add(right);
+                }
+            }
+        }
+        for (ExpressionNode node : postOrder) {
+            ASTNode left = node.getLeftOperand();
+            ASTNode right = node.getRightOperand();
+            for (LogicalExpressionNode logicalNode : checks.getOrDefault(node, List.of())) {
+                check(logicalNode, branching, falseJumps, trueJumps, skipJumps);
+            }
+            if (node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit()) {
+                if (!(right instanceof ExpressionNode)) {
+                    check(logicalNode, branching, falseJumps, trueJumps, skipJumps);
+                    operand(right, node);
+                }
+                // a branching node's value is its right operand's; the others combine it with the left one
+                if (!branching.contains(node)) {
+                    operator(node);
+                    pop();
+                    patch(skipJumps.get(node));
+                }
+                continue;
+            }
+            if (!(left instanceof ExpressionNode)) {
+                operand(left, node);
+                if (right instanceof ExpressionNode) {
+                    emit(Opcode.SWAP);
+                }
+            }
+            if (right != null && !(right instanceof ExpressionNode)) {
+                operand(right, node);
+            }
+            operator(node);
+            if (right != null) {
+                pop();
+            }
+            if (widened.contains(node)) {
+                emit(Opcode.I2F);
+            }
+        }
+    }
+
+    // Checks the left operand of an AND or OR, which is on the stack unless it is a leaf. A branching node leaves the
+    // condition when it decides it, the others jump past their right operand keeping the left one as the result.
+    private void check(LogicalExpressionNode node, Set<ExpressionNode> branching, List<Integer> falseJumps,
+                       List<Integer> trueJumps, Map<ExpressionNode, Integer> skipJumps) {
+        if (!(node.getLeftOperand() instanceof ExpressionNode)) {
+            operand(node.getLeftOperand(), node);
+        }
+        int opcode = node.getOperator() == Token.Type.And ? Opcode.JUMP_IF_FALSE : Opcode.JUMP_IF_TRUE;
+        if (branching.contains(node)) {
+            (opcode == Opcode.JUMP_IF_FALSE ? falseJumps : trueJumps).add(jump(opcode));
+        } else {
+            emit(Opcode.DUP);
+            push();
+            skipJumps.put(node, jump(opcode));
+        }
+    }
+
+    private void operand(ASTNode operand, ExpressionNode node) {
+        boolean widen = node.getOperandType() == DataType.FLOAT;
+        switch (operand) {
+            case VariableNode variableNode -> {
+                load(variableNode, trap(Trap.Kind.ARITHMETIC, "ERROR: Expression value analyzed returned null possibly " +
+                        "because of null operands in the expression. at line " + (node.getLineNumber()+1), node.getLineNumber()));
+                if (widen && variableNode.getType() == DataType.INT) {
+                    emit(Opcode.I2F);
+                }
+            }
+            case LiteralNode literalNode -> constant(widen && literalNode.getValue() instanceof Integer i ? (Object) i.floatValue() : literalNode.getValue());
+            case null, default -> throw new Unsupported();
+        }
+    }
+
+    private void operator(ExpressionNode node) {
+        boolean floats = node.getOperandType() == DataType.FLOAT;
+        int lineNumber = node.getLineNumber();
+        switch (node) {
+            case ArithmeticExpressionNode arithmeticNode -> {
+                switch (arithmeticNode.getOperator()) {
+                    case Plus -> emit(floats ? Opcode.FADD : Opcode.IADD);
+                    case Minus -> emit(floats ? Opcode.FSUB : Opcode.ISUB);
+                    case Times -> emit(floats ? Opcode.FMUL : Opcode.IMUL);
+                    case Divide -> emit(floats ? Opcode.FDIV : Opcode.IDIV, trap(Trap.Kind.ARITHMETIC, "ERROR: Division by zero. at line " + (lineNumber+1), lineNumber));
+                    case Modulo -> emit(floats ? Opcode.FMOD : Opcode.IMOD, floats
+                            ? trap(Trap.Kind.ARITHMETIC, "ERROR: Division by zero. at line " + (lineNumber+1), lineNumber)
+                            : trap(Trap.Kind.ARITHMETIC, "ERROR: Division by zero", lineNumber));
+                    default -> throw new Unsupported();
+                }
+            }
+            case ComparisonExpressionNode comparisonNode -> {
+                switch (comparisonNode.getOperator()) {
+                    case Less -> emit(floats ? Opcode.FLT : Opcode.ILT);
+                    case LessEqual -> emit(floats ? Opcode.FLE : Opcode.ILE);
+                    case Greater -> emit(floats ? Opcode.FGT : Opcode.IGT);
+                    case GreaterEqual -> emit(floats ? Opcode.FGE : Opcode.IGE);
+                    case Equals -> emit(floats ? Opcode.FEQ : Opcode.IEQ);
+                    case NotEqual -> emit(floats ? Opcode.FNE : Opcode.INE);
+                    default -> throw new Unsupported();
+                }
+            }
+            case LogicalExpressionNode logicalNode -> {
+                switch (logicalNode.getOperator()) {
+                    case And -> emit(Opcode.AND);
+                    case Or -> emit(Opcode.OR);
+                    case Not -> emit(Opcode.NOT);
+                    default -> throw new Unsupported();
+                }
+            }
+            default -> throw new Unsupported();
+        }
+    }
+
+    // Pushes the variable's value, negated when it is written -x; trap is raised when it holds none.
+    private void load(VariableNode variableNode, int trap) {
+        DataType type = resolved(variableNode);
+        emit(switch (type) {
+            case INT -> Opcode.ILOAD;
+            case FLOAT -> Opcode.FLOAD;
+            case CHAR -> Opcode.CLOAD;
+            case BOOL -> Opcode.BLOAD;
+        }, variableNode.getSlot(), trap);
+        push();
+        if (variableNode.getInitialValue() != null) {
+            switch (type) {
+                case INT -> emit(Opcode.INEG);
+                case FLOAT -> emit(Opcode.FNEG);
+                default -> throw new Unsupported();
+            }
+        }
+    }
+
+    // Pops a value of type valueType into the variable, widening an INT stored in a FLOAT.
+    private void store(VariableNode target, DataType valueType) {
+        DataType type = resolved(target);
+        if (valueType == null || !type.accepts(valueType)) {
+            throw new Unsupported();
+        }
+        if (type == DataType.FLOAT && valueType == DataType.INT) {
+            emit(Opcode.I2F);
+        }
+        emit(switch (type) {
+            case INT -> Opcode.ISTORE;
+            case FLOAT -> Opcode.FSTORE;
+            case CHAR -> Opcode.CSTORE;
+            case BOOL -> Opcode.BSTORE;
+        }, target.getSlot());
+        pop();
+    }
+
+    private static DataType resolved(VariableNode variableNode) {
+        if (variableNode.getType() == null || variableNode.getSlot() < 0) {
+            throw new Unsupported();
+        }
+        return variableNode.getType();
+    }
+
+    // Pushes a literal value as its 32 bits.
+    private void constant(Object value) {
+        emit(Opcode.CONST, switch (value) {
+            case Integer i -> i;
+            case Float f -> Float.floatToRawIntBits(f);
+            case Character c -> c;
+            case Boolean b -> b ? 1 : 0;
+            case null, default -> throw new Unsupported();
+        });
+        push();
+    }
+
+    // Adds DISPLAY text or a SCAN statement to the constant pool.
+    private int pool(Object constant) {
+        constants.add(constant);
+        return constants.size() - 1;
+    }
+
+    private int trap(Trap.Kind kind, String message, int lineNumber) {
+        return trapIndex.computeIfAbsent(kind + ":" + lineNumber + ":" + message, key -> {
+            traps.add(new Trap(kind, message, lineNumber));
+            return traps.size() - 1;
+        });
+    }
+
+    // Emits a jump with its target left to patch, returns where the target goes.
+    private int jump(int opcode) {
+        if (opcode != Opcode.JUMP) {
+            pop();
+        }
+        emit(opcode, -1);
+        return size - 1;
+    }
+
+    private void patch(int at) {
+        code[at] = size;
+    }
+
+    private void emit(int... words) {
+        if (size + words.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+        }
+        System.arraycopy(words, 0, code, size, words.length);
+        size += words.length;
+    }
+
+    private void push() {
+        maxStack = Math.max(maxStack, ++depth);
+    }
+
+    private void pop() {
+        depth--;
+    }
+
+    private static class Block {
+        final List<ASTNode> statements;
+        int next;
+        // set for loop bodies
+        IterativeNode loop;
+        int conditionStart;
+        List<Integer> exitJumps = new ArrayList<>();
+        // CONTINUE jumps waiting for the FOR update to be emitted
+        List<Integer> continueJumps = new ArrayList<>();
+        // set for IF branches
+        ConditionalNode conditional;
+        int branch;
+        List<Integer> nextBranchJumps = List.of();
+        List<Integer> endJumps;
+
+        Block(List<ASTNode> statements) {
+            this.statements = statements;
+        }
+    }
+
+    // Thrown for a construct the compiler has no instructions for; the program then runs on the tree walker.
+    private static class Unsupported extends RuntimeException {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package Main.Bytecode;
+
+import Main.Nodes.DataType;
+
+// A compiled program: the instruction stream, its constant pool (DISPLAY text and SCAN statements), the traps its
+// instructions can raise, the deepest the operand stack gets and the number of variable slots.
+public class Chunk {
+    private final int[] code;
+    private final Object[] constants;
+    private final Trap[] traps;
+    private final int maxStack;
+    private final int slotCount;
+    // for a loop compiled mid-run, the declared type of each slot, whose values it takes over from the tree walker;
+    // null for whole programs, which start with no variables
+    private final DataType[] slotTypes;
+
+    public Chunk(int[] code, Object[] constants, Trap[] traps, int maxStack, int slotCount, DataType[] slotTypes) {
+        this.code = code;
+        this.constants = constants;
+        this.traps = traps;
+        this.maxStack = maxStack;
+        this.slotCount = slotCount;
+        this.slotTypes = slotTypes;
+    }
+
+    public int[] getCode() {
+        return code;
+    }
+
+    public Object[] getConstants() {
+        return constants;
+    }
+
+    public Trap[] getTraps() {
+        return traps;
+    }
+
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public DataType[] getSlotTypes() {
+        return slotTypes;
+    }
+}
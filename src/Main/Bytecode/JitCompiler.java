@@ -0,0 +1,411 @@
+package Main.Bytecode;
+
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.SymbolTable;
+
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Translates a Chunk into a JVM class and loads it as a hidden class, so HotSpot compiles the CODE program itself
+// rather than the VirtualMachine's dispatch loop. Every variable slot becomes two int locals, its value (FLOAT as its
+// bits, as on the VM stack) and whether it holds one, and VM jumps become JVM branches, so CODE loops are JVM loops.
+// Instructions that are not a single JVM opcode call into JitRuntime. compile returns null when the chunk does not
+// fit in one JVM method or the JVM rejects the class; the program then runs on the VirtualMachine. A loop chunk reads
+// its slots from the SymbolTable on entry and writes the ones holding a value back when it halts.
+public class JitCompiler {
+    private static final String CLASS_NAME = "Main/Bytecode/CompiledCode";
+    private static final String RUNTIME = "Main/Bytecode/JitRuntime";
+    private static final String SYMBOL_TABLE = "Main/Nodes/SymbolTable";
+    private static final String STRING_BUILDER = "java/lang/StringBuilder";
+    private static final MethodType RUN_TYPE = MethodType.methodType(void.class, SymbolTable.class, Object[].class, Trap[].class);
+
+    // locals of the generated method: its parameters, the DISPLAY buffer, then the value and flag of each slot
+    private static final int TABLE = 0;
+    private static final int CONSTANTS = 1;
+    private static final int TRAPS = 2;
+    private static final int OUTPUT = 3;
+    private static final int FIRST_SLOT = 4;
+
+    // JVM opcodes
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ALOAD = 0x19;
+    private static final int AALOAD = 0x32;
+    private static final int ISTORE = 0x36;
+    private static final int ASTORE = 0x3a;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int SWAP = 0x5f;
+    private static final int IADD = 0x60;
+    private static final int ISUB = 0x64;
+    private static final int IMUL = 0x68;
+    private static final int IDIV = 0x6c;
+    private static final int IREM = 0x70;
+    private static final int INEG = 0x74;
+    private static final int IAND = 0x7e;
+    private static final int IOR = 0x80;
+    private static final int IXOR = 0x82;
+    private static final int IFEQ = 0x99;
+    private static final int IFNE = 0x9a;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int IF_ICMPLE = 0xa4;
+    private static final int GOTO = 0xa7;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int NEW = 0xbb;
+    private static final int WIDE = 0xc4;
+
+    private final ClassFileBuilder classFile = new ClassFileBuilder();
+    private byte[] out = new byte[256];
+    private int size;
+
+    private JitCompiler() {
+    }
+
+    public static JitProgram compile(Chunk chunk) {
+        byte[] bytes;
+        try {
+            bytes = new JitCompiler().translate(chunk);
+        } catch (IllegalStateException | UncheckedIOException e) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return new JitProgram(lookup.findStatic(lookup.lookupClass(), "run", RUN_TYPE), chunk);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private byte[] translate(Chunk chunk) {
+        int[] code = chunk.getCode();
+        Object[] constants = chunk.getConstants();
+        // JVM offset of each VM instruction, and the jumps to point at them once every instruction is placed
+        int[] offsets = new int[code.length];
+        List<int[]> jumps = new ArrayList<>();
+
+        emit(NEW);
+        u2(classFile.classRef(STRING_BUILDER));
+        emit(DUP);
+        emit(INVOKESPECIAL);
+        u2(classFile.methodRef(STRING_BUILDER, "<init>", "()V"));
+        local(ASTORE, OUTPUT);
+        DataType[] slotTypes = chunk.getSlotTypes();
+        for (int slot = 0; slot < chunk.getSlotCount(); slot++) {
+            if (slotTypes == null) {
+                push(0);
+                local(ISTORE, value(slot));
+                push(0);
+                local(ISTORE, flag(slot));
+            } else {
+                read(slot, slotTypes[slot]);
+                local(ALOAD, TABLE);
+                push(slot);
+                invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "isAssigned", "(I)Z");
+                local(ISTORE, flag(slot));
+            }
+        }
+
+        int pc = 0;
+        while (pc < code.length) {
+            offsets[pc] = size;
+            int opcode = code[pc++];
+            switch (opcode) {
+                case Opcode.HALT -> {
+                    if (slotTypes != null) {
+                        writeBack(slotTypes);
+                    }
+                    emit(RETURN);
+                }
+                case Opcode.CONST -> push(code[pc++]);
+                case Opcode.ILOAD, Opcode.FLOAD, Opcode.CLOAD, Opcode.BLOAD -> {
+                    int slot = code[pc++];
+                    int trap = code[pc++];
+                    local(ILOAD, flag(slot));
+                    int assigned = branch(IFNE);
+                    raise(trap);
+                    land(assigned);
+                    local(ILOAD, value(slot));
+                }
+                case Opcode.ISTORE, Opcode.FSTORE, Opcode.CSTORE, Opcode.BSTORE -> {
+                    int slot = code[pc++];
+                    local(ISTORE, value(slot));
+                    push(1);
+                    local(ISTORE, flag(slot));
+                }
+                case Opcode.DECLARE -> {
+                    push(0);
+                    local(ISTORE, flag(code[pc++]));
+                }
+                case Opcode.DUP -> emit(DUP);
+                case Opcode.SWAP -> emit(SWAP);
+
+                case Opcode.I2F -> runtime("i2f", "(I)I");
+                case Opcode.INEG -> emit(INEG);
+                case Opcode.FNEG -> {
+                    // flips the sign bit, as float negation does
+                    push(0x80000000);
+                    emit(IXOR);
+                }
+
+                case Opcode.IADD -> emit(IADD);
+                case Opcode.ISUB -> emit(ISUB);
+                case Opcode.IMUL -> emit(IMUL);
+                case Opcode.IDIV, Opcode.IMOD -> {
+                    int trap = code[pc++];
+                    emit(DUP);
+                    int nonZero = branch(IFNE);
+                    raise(trap);
+                    land(nonZero);
+                    emit(opcode == Opcode.IDIV ? IDIV : IREM);
+                }
+                case Opcode.FADD -> runtime("fadd", "(II)I");
+                case Opcode.FSUB -> runtime("fsub", "(II)I");
+                case Opcode.FMUL -> runtime("fmul", "(II)I");
+                case Opcode.FDIV, Opcode.FMOD -> {
+                    local(ALOAD, TRAPS);
+                    push(code[pc++]);
+                    emit(AALOAD);
+                    runtime(opcode == Opcode.FDIV ? "fdiv" : "fmod", "(IILMain/Bytecode/Trap;)I");
+                }
+
+                case Opcode.ILT -> compare(IF_ICMPLT);
+                case Opcode.ILE -> compare(IF_ICMPLE);
+                case Opcode.IGT -> compare(IF_ICMPGT);
+                case Opcode.IGE -> compare(IF_ICMPGE);
+                case Opcode.IEQ -> compare(IF_ICMPEQ);
+                case Opcode.INE -> compare(IF_ICMPNE);
+                case Opcode.FLT -> runtime("flt", "(II)I");
+                case Opcode.FLE -> runtime("fle", "(II)I");
+                case Opcode.FGT -> runtime("fgt", "(II)I");
+                case Opcode.FGE -> runtime("fge", "(II)I");
+                case Opcode.FEQ -> runtime("feq", "(II)I");
+                case Opcode.FNE -> runtime("fne", "(II)I");
+
+                case Opcode.AND -> emit(IAND);
+                case Opcode.OR -> emit(IOR);
+                case Opcode.NOT -> {
+                    push(1);
+                    emit(IXOR);
+                }
+
+                case Opcode.JUMP -> jumps.add(new int[]{branch(GOTO), code[pc++]});
+                case Opcode.JUMP_IF_FALSE -> jumps.add(new int[]{branch(IFEQ), code[pc++]});
+                case Opcode.JUMP_IF_TRUE -> jumps.add(new int[]{branch(IFNE), code[pc++]});
+                case Opcode.THROW -> raise(code[pc++]);
+
+                case Opcode.APPEND_CONST -> {
+                    local(ALOAD, OUTPUT);
+                    ldc(classFile.string((String) constants[code[pc++]]));
+                    append("(Ljava/lang/String;)Ljava/lang/StringBuilder;");
+                }
+                case Opcode.APPEND_INT -> {
+                    local(ALOAD, OUTPUT);
+                    emit(SWAP);
+                    append("(I)Ljava/lang/StringBuilder;");
+                }
+                case Opcode.APPEND_CHAR -> {
+                    local(ALOAD, OUTPUT);
+                    emit(SWAP);
+                    append("(C)Ljava/lang/StringBuilder;");
+                }
+                case Opcode.APPEND_FLOAT, Opcode.APPEND_BOOL -> {
+                    local(ALOAD, OUTPUT);
+                    emit(SWAP);
+                    runtime(opcode == Opcode.APPEND_FLOAT ? "appendFloat" : "appendBool", "(Ljava/lang/StringBuilder;I)V");
+                }
+                case Opcode.PRINT -> {
+                    local(ALOAD, TABLE);
+                    local(ALOAD, OUTPUT);
+                    runtime("print", "(LMain/Nodes/SymbolTable;Ljava/lang/StringBuilder;)V");
+                }
+                case Opcode.SCAN -> {
+                    int constant = code[pc++];
+                    local(ALOAD, TABLE);
+                    local(ALOAD, CONSTANTS);
+                    push(constant);
+                    emit(AALOAD);
+                    runtime("scan", "(LMain/Nodes/SymbolTable;Ljava/lang/Object;)V");
+                    // SCAN stores into the symbol table, so the scanned variables are read back from it
+                    for (VariableNode variableNode : ((ScannerNode) constants[constant]).getVariableNames()) {
+                        int slot = variableNode.getSlot();
+                        if (slot < 0 || variableNode.getType() == null) {
+                            continue;
+                        }
+                        read(slot, variableNode.getType());
+                        push(1);
+                        local(ISTORE, flag(slot));
+                    }
+                }
+                default -> throw new IllegalStateException("ERROR: Unknown opcode " + opcode + ".");
+            }
+        }
+        for (int[] jump : jumps) {
+            patch(jump[0], offsets[jump[1]]);
+        }
+        if (size > 0xFFFF) {
+            throw new IllegalStateException("ERROR: Program too large for one JVM method.");
+        }
+        // the extra stack covers what the expansions above push on top of the VM's operands
+        classFile.addStaticMethod("run", RUN_TYPE.toMethodDescriptorString(), chunk.getMaxStack() + 4,
+                FIRST_SLOT + 2 * chunk.getSlotCount(), Arrays.copyOf(out, size));
+        return classFile.build(CLASS_NAME);
+    }
+
+    private static int value(int slot) {
+        return FIRST_SLOT + 2 * slot;
+    }
+
+    private static int flag(int slot) {
+        return FIRST_SLOT + 2 * slot + 1;
+    }
+
+    // Loads the value the SymbolTable holds in a slot into its local.
+    private void read(int slot, DataType type) {
+        local(ALOAD, TABLE);
+        push(slot);
+        switch (type) {
+            case INT -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "getInt", "(I)I");
+            case FLOAT -> runtime("floatBits", "(LMain/Nodes/SymbolTable;I)I");
+            case CHAR -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "getChar", "(I)C");
+            case BOOL -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "getBool", "(I)Z");
+        }
+        local(ISTORE, value(slot));
+    }
+
+    // Stores the locals of every slot holding a value back into the SymbolTable.
+    private void writeBack(DataType[] slotTypes) {
+        for (int slot = 0; slot < slotTypes.length; slot++) {
+            local(ILOAD, flag(slot));
+            int unassigned = branch(IFEQ);
+            local(ALOAD, TABLE);
+            push(slot);
+            local(ILOAD, value(slot));
+            switch (slotTypes[slot]) {
+                case INT -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "setInt", "(II)V");
+                case FLOAT -> runtime("storeFloat", "(LMain/Nodes/SymbolTable;II)V");
+                case CHAR -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "setChar", "(IC)V");
+                case BOOL -> invoke(INVOKEVIRTUAL, SYMBOL_TABLE, "setBool", "(IZ)V");
+            }
+            land(unassigned);
+        }
+    }
+
+    // Pushes 1 when the comparison holds, 0 otherwise.
+    private void compare(int branchOpcode) {
+        int holds = branch(branchOpcode);
+        push(0);
+        int end = branch(GOTO);
+        land(holds);
+        push(1);
+        land(end);
+    }
+
+    private void raise(int trap) {
+        local(ALOAD, TRAPS);
+        push(trap);
+        runtime("raise", "([LMain/Bytecode/Trap;I)V");
+    }
+
+    private void append(String descriptor) {
+        invoke(INVOKEVIRTUAL, STRING_BUILDER, "append", descriptor);
+        emit(POP);
+    }
+
+    private void runtime(String name, String descriptor) {
+        invoke(INVOKESTATIC, RUNTIME, name, descriptor);
+    }
+
+    private void invoke(int opcode, String owner, String name, String descriptor) {
+        emit(opcode);
+        u2(classFile.methodRef(owner, name, descriptor));
+    }
+
+    private void push(int value) {
+        if (value >= -1 && value <= 5) {
+            emit(ICONST_0 + value);
+        } else if (value == (byte) value) {
+            emit(BIPUSH);
+            emit(value);
+        } else if (value == (short) value) {
+            emit(SIPUSH);
+            u2(value);
+        } else {
+            ldc(classFile.integer(value));
+        }
+    }
+
+    private void ldc(int index) {
+        if (index <= 0xFF) {
+            emit(LDC);
+            emit(index);
+        } else {
+            emit(LDC_W);
+            u2(index);
+        }
+    }
+
+    private void local(int opcode, int index) {
+        if (index > 0xFFFF) {
+            throw new IllegalStateException("ERROR: Too many variables for one JVM method.");
+        }
+        if (index <= 0xFF) {
+            emit(opcode);
+            emit(index);
+        } else {
+            emit(WIDE);
+            emit(opcode);
+            u2(index);
+        }
+    }
+
+    // Emits a branch with its offset left to patch, returns where the branch starts.
+    private int branch(int opcode) {
+        int at = size;
+        emit(opcode);
+        u2(0);
+        return at;
+    }
+
+    // Points the branch at the code emitted next.
+    private void land(int branch) {
+        patch(branch, size);
+    }
+
+    private void patch(int branch, int target) {
+        int offset = target - branch;
+        if (offset != (short) offset) {
+            throw new IllegalStateException("ERROR: Jump too far for one JVM method.");
+        }
+        out[branch + 1] = (byte) (offset >> 8);
+        out[branch + 2] = (byte) offset;
+    }
+
+    private void u2(int value) {
+        emit(value >> 8);
+        emit(value);
+    }
+
+    private void emit(int value) {
+        if (size == out.length) {
+            out = Arrays.copyOf(out, size * 2);
+        }
+        out[size++] = (byte) value;
+    }
+}
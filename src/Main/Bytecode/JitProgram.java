@@ -0,0 +1,34 @@
+package Main.Bytecode;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.SymbolTable;
+
+import java.lang.invoke.MethodHandle;
+
+// A program JitCompiler loaded as a hidden class, with the constants and traps of the chunk it was translated from.
+public class JitProgram {
+    private final MethodHandle entry;
+    private final Chunk chunk;
+
+    JitProgram(MethodHandle entry, Chunk chunk) {
+        this.entry = entry;
+        this.chunk = chunk;
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public void run(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        try {
+            entry.invokeExact(symbolTable, chunk.getConstants(), chunk.getTraps());
+        } catch (VariableInitializationException | BreakException | VariableDeclarationException | ScannedInputException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package Main.Bytecode;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.SymbolTable;
+
+// Called from the classes JitCompiler generates, for the instructions that are not a single JVM opcode. FLOAT values
+// come and go as their int bits, like on the VM stack; the methods are small enough for HotSpot to inline.
+final class JitRuntime {
+    private JitRuntime() {
+    }
+
+    static void raise(Trap[] traps, int trap) throws VariableDeclarationException, VariableInitializationException, BreakException {
+        traps[trap].raise();
+    }
+
+    static int i2f(int value) {
+        return Float.floatToRawIntBits(value);
+    }
+
+    static int fadd(int left, int right) {
+        return Float.floatToRawIntBits(Float.intBitsToFloat(left) + Float.intBitsToFloat(right));
+    }
+
+    static int fsub(int left, int right) {
+        return Float.floatToRawIntBits(Float.intBitsToFloat(left) - Float.intBitsToFloat(right));
+    }
+
+    static int fmul(int left, int right) {
+        return Float.floatToRawIntBits(Float.intBitsToFloat(left) * Float.intBitsToFloat(right));
+    }
+
+    static int fdiv(int left, int right, Trap divisionByZero) throws VariableDeclarationException, VariableInitializationException, BreakException {
+        if (Float.intBitsToFloat(right) == 0.0f) {
+            divisionByZero.raise();
+        }
+        return Float.floatToRawIntBits(Float.intBitsToFloat(left) / Float.intBitsToFloat(right));
+    }
+
+    static int fmod(int left, int right, Trap divisionByZero) throws VariableDeclarationException, VariableInitializationException, BreakException {
+        if (Float.intBitsToFloat(right) == 0.0f) {
+            divisionByZero.raise();
+        }
+        return Float.floatToRawIntBits(Float.intBitsToFloat(left) % Float.intBitsToFloat(right));
+    }
+
+    static int flt(int left, int right) {
+        return Float.intBitsToFloat(left) < Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static int fle(int left, int right) {
+        return Float.intBitsToFloat(left) <= Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static int fgt(int left, int right) {
+        return Float.intBitsToFloat(left) > Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static int fge(int left, int right) {
+        return Float.intBitsToFloat(left) >= Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static int feq(int left, int right) {
+        return Float.intBitsToFloat(left) == Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static int fne(int left, int right) {
+        return Float.intBitsToFloat(left) != Float.intBitsToFloat(right) ? 1 : 0;
+    }
+
+    static void appendFloat(StringBuilder output, int value) {
+        output.append(Float.intBitsToFloat(value));
+    }
+
+    static void appendBool(StringBuilder output, int value) {
+        output.append(value != 0 ? "TRUE" : "FALSE");
+    }
+
+    static void print(SymbolTable symbolTable, StringBuilder output) {
+        symbolTable.getOutput().print(output.toString());
+        output.setLength(0);
+    }
+
+    static void scan(SymbolTable symbolTable, Object scannerNode) throws ScannedInputException, VariableInitializationException, VariableDeclarationException {
+        ((ScannerNode) scannerNode).evaluate(symbolTable);
+    }
+
+    // The value SCAN or the tree walker left in a slot, as bits.
+    static int floatBits(SymbolTable symbolTable, int slot) {
+        return Float.floatToRawIntBits(symbolTable.getFloat(slot));
+    }
+
+    static void storeFloat(SymbolTable symbolTable, int slot, int value) {
+        symbolTable.setFloat(slot, Float.intBitsToFloat(value));
+    }
+}
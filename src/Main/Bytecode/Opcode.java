@@ -0,0 +1,70 @@
+package Main.Bytecode;
+
+// Instruction set of the VirtualMachine. An instruction is its opcode followed by its operands in the code array.
+// Values on the operand stack are 32 bits: INT and CHAR as themselves, FLOAT as its float bits, BOOL as 0 or 1.
+// "slot" operands are frame slots, "trap" operands index the Trap raised when the instruction fails, "target"
+// operands are code offsets.
+public final class Opcode {
+    public static final int HALT = 0;
+
+    public static final int CONST = 1;           // value
+    public static final int ILOAD = 2;           // slot, trap
+    public static final int FLOAD = 3;           // slot, trap
+    public static final int CLOAD = 4;           // slot, trap
+    public static final int BLOAD = 5;           // slot, trap
+    public static final int ISTORE = 6;          // slot
+    public static final int FSTORE = 7;          // slot
+    public static final int CSTORE = 8;          // slot
+    public static final int BSTORE = 9;          // slot
+    public static final int DECLARE = 10;        // slot
+    public static final int DUP = 11;
+    public static final int SWAP = 12;
+
+    public static final int I2F = 13;
+    public static final int INEG = 14;
+    public static final int FNEG = 15;
+
+    public static final int IADD = 16;
+    public static final int ISUB = 17;
+    public static final int IMUL = 18;
+    public static final int IDIV = 19;           // trap
+    public static final int IMOD = 20;           // trap
+    public static final int FADD = 21;
+    public static final int FSUB = 22;
+    public static final int FMUL = 23;
+    public static final int FDIV = 24;           // trap
+    public static final int FMOD = 25;           // trap
+
+    public static final int ILT = 26;
+    public static final int ILE = 27;
+    public static final int IGT = 28;
+    public static final int IGE = 29;
+    public static final int IEQ = 30;
+    public static final int INE = 31;
+    public static final int FLT = 32;
+    public static final int FLE = 33;
+    public static final int FGT = 34;
+    public static final int FGE = 35;
+    public static final int FEQ = 36;
+    public static final int FNE = 37;
+
+    public static final int AND = 38;
+    public static final int OR = 39;
+    public static final int NOT = 40;
+
+    public static final int JUMP = 41;           // target
+    public static final int JUMP_IF_FALSE = 42;  // target
+    public static final int JUMP_IF_TRUE = 43;   // target
+    public static final int THROW = 44;          // trap
+
+    public static final int APPEND_CONST = 45;   // constant
+    public static final int APPEND_INT = 46;
+    public static final int APPEND_FLOAT = 47;
+    public static final int APPEND_CHAR = 48;
+    public static final int APPEND_BOOL = 49;
+    public static final int PRINT = 50;
+    public static final int SCAN = 51;           // constant
+
+    private Opcode() {
+    }
+}
@@ -0,0 +1,45 @@
+package Main.Bytecode;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.RuntimeErrorException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+
+// A runtime error an instruction can raise. The compiler builds it with the exception, message and line the tree
+// walker reports for the same failure, so both engines produce the same diagnostics.
+public class Trap {
+    public enum Kind {
+        ARITHMETIC, DECLARATION, INITIALIZATION, BREAK
+    }
+
+    private final Kind kind;
+    private final String message;
+    private final int lineNumber;
+
+    public Trap(Kind kind, String message, int lineNumber) {
+        this.kind = kind;
+        this.message = message;
+        this.lineNumber = lineNumber;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void raise() throws VariableDeclarationException, VariableInitializationException, BreakException {
+        switch (kind) {
+            case ARITHMETIC -> throw new RuntimeErrorException(message, lineNumber);
+            case DECLARATION -> throw new VariableDeclarationException(message, lineNumber);
+            case INITIALIZATION -> throw new VariableInitializationException(message, lineNumber);
+            case BREAK -> throw new BreakException();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package Main.Bytecode;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.SymbolTable;
+
+// Runs a Chunk against the slots of a SymbolTable. Values stay unboxed on an int operand stack, and variables are
+// read and written through the table's typed accessors, so a run allocates nothing but DISPLAY output.
+public class VirtualMachine {
+    // what a declaration without a value stores, as the SemanticAnalyzer does
+    private static final LiteralNode UNSET = new LiteralNode(null);
+
+    private final SymbolTable symbolTable;
+
+    public VirtualMachine(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    public void run(Chunk chunk) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        int[] code = chunk.getCode();
+        Object[] constants = chunk.getConstants();
+        Trap[] traps = chunk.getTraps();
+        int[] stack = new int[chunk.getMaxStack() + 1];
+        StringBuilder output = new StringBuilder();
+        SymbolTable frame = symbolTable;
+        int sp = 0;
+        int pc = 0;
+        while (true) {
+            switch (code[pc++]) {
+                case Opcode.HALT -> {
+                    return;
+                }
+                case Opcode.CONST -> stack[sp++] = code[pc++];
+                case Opcode.ILOAD -> {
+                    int slot = code[pc++];
+                    int trap = code[pc++];
+                    if (!frame.isAssigned(slot)) {
+                        traps[trap].raise();
+                    }
+                    stack[sp++] = frame.getInt(slot);
+                }
+                case Opcode.FLOAD -> {
+                    int slot = code[pc++];
+                    int trap = code[pc++];
+                    if (!frame.isAssigned(slot)) {
+                        traps[trap].raise();
+                    }
+                    stack[sp++] = Float.floatToRawIntBits(frame.getFloat(slot));
+                }
+                case Opcode.CLOAD -> {
+                    int slot = code[pc++];
+                    int trap = code[pc++];
+                    if (!frame.isAssigned(slot)) {
+                        traps[trap].raise();
+                    }
+                    stack[sp++] = frame.getChar(slot);
+                }
+                case Opcode.BLOAD -> {
+                    int slot = code[pc++];
+                    int trap = code[pc++];
+                    if (!frame.isAssigned(slot)) {
+                        traps[trap].raise();
+                    }
+                    stack[sp++] = frame.getBool(slot) ? 1 : 0;
+                }
+                case Opcode.ISTORE -> frame.setInt(code[pc++], stack[--sp]);
+                case Opcode.FSTORE -> frame.setFloat(code[pc++], Float.intBitsToFloat(stack[--sp]));
+                case Opcode.CSTORE -> frame.setChar(code[pc++], (char) stack[--sp]);
+                case Opcode.BSTORE -> frame.setBool(code[pc++], stack[--sp] != 0);
+                case Opcode.DECLARE -> frame.setValueAt(code[pc++], UNSET);
+                case Opcode.DUP -> {
+                    stack[sp] = stack[sp - 1];
+                    sp++;
+                }
+                case Opcode.SWAP -> {
+                    int top = stack[sp - 1];
+                    stack[sp - 1] = stack[sp - 2];
+                    stack[sp - 2] = top;
+                }
+
+                case Opcode.I2F -> stack[sp - 1] = Float.floatToRawIntBits(stack[sp - 1]);
+                case Opcode.INEG -> stack[sp - 1] = -stack[sp - 1];
+                case Opcode.FNEG -> stack[sp - 1] = Float.floatToRawIntBits(-Float.intBitsToFloat(stack[sp - 1]));
+
+                case Opcode.IADD -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] + stack[sp];
+                }
+                case Opcode.ISUB -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] - stack[sp];
+                }
+                case Opcode.IMUL -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] * stack[sp];
+                }
+                case Opcode.IDIV -> {
+                    int trap = code[pc++];
+                    sp--;
+                    if (stack[sp] == 0) {
+                        traps[trap].raise();
+                    }
+                    stack[sp - 1] = stack[sp - 1] / stack[sp];
+                }
+                case Opcode.IMOD -> {
+                    int trap = code[pc++];
+                    sp--;
+                    if (stack[sp] == 0) {
+                        traps[trap].raise();
+                    }
+                    stack[sp - 1] = stack[sp - 1] % stack[sp];
+                }
+                case Opcode.FADD -> {
+                    sp--;
+                    stack[sp - 1] = Float.floatToRawIntBits(Float.intBitsToFloat(stack[sp - 1]) + Float.intBitsToFloat(stack[sp]));
+                }
+                case Opcode.FSUB -> {
+                    sp--;
+                    stack[sp - 1] = Float.floatToRawIntBits(Float.intBitsToFloat(stack[sp - 1]) - Float.intBitsToFloat(stack[sp]));
+                }
+                case Opcode.FMUL -> {
+                    sp--;
+                    stack[sp - 1] = Float.floatToRawIntBits(Float.intBitsToFloat(stack[sp - 1]) * Float.intBitsToFloat(stack[sp]));
+                }
+                case Opcode.FDIV -> {
+                    int trap = code[pc++];
+                    sp--;
+                    float right = Float.intBitsToFloat(stack[sp]);
+                    if (right == 0.0f) {
+                        traps[trap].raise();
+                    }
+                    stack[sp - 1] = Float.floatToRawIntBits(Float.intBitsToFloat(stack[sp - 1]) / right);
+                }
+                case Opcode.FMOD -> {
+                    int trap = code[pc++];
+                    sp--;
+                    float right = Float.intBitsToFloat(stack[sp]);
+                    if (right == 0.0f) {
+                        traps[trap].raise();
+                    }
+                    stack[sp - 1] = Float.floatToRawIntBits(Float.intBitsToFloat(stack[sp - 1]) % right);
+                }
+
+                case Opcode.ILT -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] < stack[sp] ? 1 : 0;
+                }
+                case Opcode.ILE -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] <= stack[sp] ? 1 : 0;
+                }
+                case Opcode.IGT -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] > stack[sp] ? 1 : 0;
+                }
+                case Opcode.IGE -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] >= stack[sp] ? 1 : 0;
+                }
+                case Opcode.IEQ -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] == stack[sp] ? 1 : 0;
+                }
+                case Opcode.INE -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] != stack[sp] ? 1 : 0;
+                }
+                case Opcode.FLT -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) < Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+                case Opcode.FLE -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) <= Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+                case Opcode.FGT -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) > Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+                case Opcode.FGE -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) >= Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+                case Opcode.FEQ -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) == Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+                case Opcode.FNE -> {
+                    sp--;
+                    stack[sp - 1] = Float.intBitsToFloat(stack[sp - 1]) != Float.intBitsToFloat(stack[sp]) ? 1 : 0;
+                }
+
+                case Opcode.AND -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] & stack[sp];
+                }
+                case Opcode.OR -> {
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] | stack[sp];
+                }
+                case Opcode.NOT -> stack[sp - 1] ^= 1;
+
+                case Opcode.JUMP -> pc = code[pc];
+                case Opcode.JUMP_IF_FALSE -> pc = stack[--sp] == 0 ? code[pc] : pc + 1;
+                case Opcode.JUMP_IF_TRUE -> pc = stack[--sp] != 0 ? code[pc] : pc + 1;
+                case Opcode.THROW -> traps[code[pc++]].raise();
+
+                case Opcode.APPEND_CONST -> output.append((String) constants[code[pc++]]);
+                case Opcode.APPEND_INT -> output.append(stack[--sp]);
+                case Opcode.APPEND_FLOAT -> output.append(Float.intBitsToFloat(stack[--sp]));
+                case Opcode.APPEND_CHAR -> output.append((char) stack[--sp]);
+                case Opcode.APPEND_BOOL -> output.append(stack[--sp] != 0 ? "TRUE" : "FALSE");
+                case Opcode.PRINT -> {
+                    frame.getOutput().print(output.toString());
+                    output.setLength(0);
+                }
+                case Opcode.SCAN -> ((ScannerNode) constants[code[pc++]]).evaluate(frame);
+                default -> throw new IllegalStateException("ERROR: Unknown opcode " + code[pc - 1] + " at " + (pc - 1) + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,659 @@
+package Main.Closure;
+
+import Main.Bytecode.Trap;
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.RuntimeErrorException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.ASTNodes.*;
+import Main.Nodes.Completion;
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+import Main.Nodes.SymbolTable;
+import Main.Token.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Compiles a type checked program into closures, once: every statement and expression becomes a lambda with its
+// slots, constants, operator and error already bound, so running it does no node dispatch. It covers what the
+// BytecodeCompiler covers, with the same control flow and diagnostics, and returns null for anything else. Closures
+// call each other recursively, so programs nested deeper than MAX_DEPTH are left to the tree walker as well.
+// INT, CHAR and BOOL values are carried as ints (BOOL as 0 or 1), FLOAT values as floats.
+public class ClosureCompiler {
+    private static final int MAX_DEPTH = 64;
+    // what a declaration without a value stores, as the SemanticAnalyzer does
+    private static final LiteralNode UNSET = new LiteralNode(null);
+
+    // loops the tier of the current run could not compile, so a loop around them cannot be compiled either
+    private final Predicate<IterativeNode> rejected;
+
+    private ClosureCompiler(Predicate<IterativeNode> rejected) {
+        this.rejected = rejected;
+    }
+
+    public static ClosureProgram compile(ProgramNode programNode) {
+        ClosureCompiler compiler = new ClosureCompiler(loop -> false);
+        try {
+            Statement declarations = compiler.declarations((VariableDeclarationsNode) programNode.getVariableDeclarations());
+            Statement statements = compiler.block(((ExecutableCodeNode) programNode.getExecutableCode()).getStatements(), false, 0);
+            return new ClosureProgram(symbolTable -> {
+                declarations.execute(symbolTable);
+                return statements.execute(symbolTable);
+            });
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    // Compiles the rest of a loop the tree walker is running: from its condition check until it exits, without a FOR
+    // initialization, on the variables the walker left in the SymbolTable.
+    public static ClosureProgram compileLoop(IterativeNode iterativeNode, Predicate<IterativeNode> rejected) {
+        try {
+            return new ClosureProgram(new ClosureCompiler(rejected).resumeLoop(iterativeNode, 0));
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    private Statement declarations(VariableDeclarationsNode declarationsNode) {
+        List<SingleVariableDeclaration> declarations = declarationsNode.getVariableDeclarations();
+        // declarations run in order, so which variables exist at each point is known here
+        boolean[] declared = new boolean[declarationsNode.getIndex().size()];
+        List<Statement> statements = new ArrayList<>();
+        for (SingleVariableDeclaration declaration : declarations) {
+            for (VariableNode variableNode : declaration.getVariableNames()) {
+                statements.add(declaration(variableNode, declarations.indexOf(declaration) + 1, declared));
+            }
+        }
+        return sequence(statements.toArray(new Statement[0]));
+    }
+
+    // line is the one the SemanticAnalyzer reports declaration errors at
+    private Statement declaration(VariableNode variableNode, int line, boolean[] declared) {
+        int slot = variableNode.getSlot();
+        resolved(variableNode);
+        Statement statement = switch (variableNode.getInitialValue()) {
+            case ExpressionNode expressionNode -> assignment(expressionNode, expressionNode.getType(), List.of(variableNode));
+            case VariableNode source -> {
+                String name = source.getVariableName();
+                resolved(source);
+                if (!declared[source.getSlot()]) {
+                    Trap notDeclared = new Trap(Trap.Kind.DECLARATION, "ERROR: Variable " + name + " is not declared.", line);
+                    yield symbolTable -> {
+                        notDeclared.raise();
+                        return Completion.NORMAL;
+                    };
+                }
+                yield assignment(source, new Trap(Trap.Kind.INITIALIZATION, "ERROR: Variable " + name + " is not initialized.", line),
+                        source.getType(), List.of(variableNode));
+            }
+            case LiteralNode literalNode -> assignment(literalNode.getValue(), DataType.ofValue(literalNode.getValue()), List.of(variableNode));
+            case null -> symbolTable -> {
+                symbolTable.setValueAt(slot, UNSET);
+                return Completion.NORMAL;
+            };
+            default -> assignment(variableNode.getInitialValue(), DataType.ofValue(variableNode.getInitialValue()), List.of(variableNode));
+        };
+        declared[slot] = true;
+        return statement;
+    }
+
+    // inLoop: the block is inside a loop, where BREAK and CONTINUE return to it
+    private Statement block(List<ASTNode> statements, boolean inLoop, int depth) {
+        if (depth == MAX_DEPTH) {
+            throw new Unsupported();
+        }
+        List<Statement> compiled = new ArrayList<>();
+        for (ASTNode statement : statements) {
+            Statement next = switch (statement) {
+                case ConditionalNode conditionalNode -> conditional(conditionalNode, inLoop, depth);
+                case IterativeNode iterativeNode -> loop(iterativeNode, depth);
+                case EvaluableNode evaluableNode -> evaluable(evaluableNode);
+                case BreakNode breakNode -> {
+                    if (inLoop) {
+                        yield symbolTable -> Completion.BREAK;
+                    }
+                    Trap outsideLoop = new Trap(Trap.Kind.BREAK, null, 0);
+                    yield symbolTable -> {
+                        outsideLoop.raise();
+                        return Completion.NORMAL;
+                    };
+                }
+                // CONTINUE outside any loop does nothing
+                case ContinueNode continueNode -> inLoop ? symbolTable -> Completion.CONTINUE : null;
+                default -> null;
+            };
+            if (next != null) {
+                compiled.add(next);
+            }
+        }
+        return sequence(compiled.toArray(new Statement[0]));
+    }
+
+    private static Statement sequence(Statement[] statements) {
+        if (statements.length == 1) {
+            return statements[0];
+        }
+        return symbolTable -> {
+            for (Statement statement : statements) {
+                Completion completion = statement.execute(symbolTable);
+                if (completion != Completion.NORMAL) {
+                    return completion;
+                }
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    // Branch i is the IF, the ELSE IFs after it and the ELSE last.
+    private Statement conditional(ConditionalNode conditionalNode, boolean inLoop, int depth) {
+        List<ASTNode> conditions = conditionalNode.getConditions();
+        IntCode[] checks = new IntCode[conditions.size()];
+        Statement[] branches = new Statement[conditions.size() + 1];
+        for (int branch = 0; branch < conditions.size(); branch++) {
+            checks[branch] = condition(conditions.get(branch), conditionalNode.getLineNumber());
+            branches[branch] = block(branch == 0 ? conditionalNode.getIfStatements().getStatements()
+                    : conditionalNode.getElseIfBlocks().get(branch - 1).getStatements(), inLoop, depth + 1);
+        }
+        branches[conditions.size()] = block(conditionalNode.getElseStatements().getStatements(), inLoop, depth + 1);
+        return symbolTable -> {
+            for (int branch = 0; branch < checks.length; branch++) {
+                if (checks[branch].eval(symbolTable) != 0) {
+                    return branches[branch].execute(symbolTable);
+                }
+            }
+            return branches[checks.length].execute(symbolTable);
+        };
+    }
+
+    private Statement loop(IterativeNode iterativeNode, int depth) {
+        if (rejected.test(iterativeNode)) {
+            throw new Unsupported();
+        }
+        Statement resume = resumeLoop(iterativeNode, depth);
+        if (!(iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof EvaluableNode evaluableNode)) {
+            return resume;
+        }
+        Statement initialization = evaluable(evaluableNode);
+        return symbolTable -> {
+            initialization.execute(symbolTable);
+            return resume.execute(symbolTable);
+        };
+    }
+
+    // The loop from its condition check on. CONTINUE ends a pass of body, the statements before the loop's continue
+    // index; the rest of the body, a FOR update, still runs.
+    private Statement resumeLoop(IterativeNode iterativeNode, int depth) {
+        IntCode condition = condition(iterativeNode.getCondition(), iterativeNode.getLineNumber());
+        List<ASTNode> statements = iterativeNode.getIterativeStatements();
+        int continueIndex = iterativeNode.getContinueIndex();
+        Statement body = block(statements.subList(0, continueIndex), true, depth + 1);
+        if (continueIndex == statements.size()) {
+            return symbolTable -> {
+                while (condition.eval(symbolTable) != 0) {
+                    if (body.execute(symbolTable) == Completion.BREAK) {
+                        break;
+                    }
+                }
+                return Completion.NORMAL;
+            };
+        }
+        Statement update = block(statements.subList(continueIndex, statements.size()), true, depth + 1);
+        return symbolTable -> {
+            while (condition.eval(symbolTable) != 0) {
+                if (body.execute(symbolTable) == Completion.BREAK || update.execute(symbolTable) == Completion.BREAK) {
+                    break;
+                }
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement evaluable(EvaluableNode evaluableNode) {
+        return switch (evaluableNode) {
+            case VariableReinitializedNode reinitializedNode -> reinitialization(reinitializedNode);
+            case DisplayNode displayNode -> display(displayNode);
+            case ScannerNode scannerNode -> symbolTable -> {
+                scannerNode.evaluate(symbolTable);
+                return Completion.NORMAL;
+            };
+            default -> throw new Unsupported();
+        };
+    }
+
+    private Statement reinitialization(VariableReinitializedNode reinitializedNode) {
+        // set by the TypeChecker when the value and every target have known, compatible types
+        DataType valueType = reinitializedNode.getValueType();
+        if (valueType == null) {
+            throw new Unsupported();
+        }
+        List<VariableNode> targets = reinitializedNode.getVariableNames();
+        return switch (reinitializedNode.getValue().getValue()) {
+            case VariableNode source -> assignment(source, new Trap(Trap.Kind.DECLARATION,
+                    "ERROR: Variable '" + source.getVariableName() + "' not initialized.", reinitializedNode.getLineNumber()), valueType, targets);
+            case null -> throw new Unsupported();
+            case Object value -> assignment(value, valueType, targets);
+        };
+    }
+
+    // Stores an expression or literal of type valueType into every target.
+    private Statement assignment(Object value, DataType valueType, List<VariableNode> targets) {
+        if (valueType == DataType.FLOAT) {
+            return floatAssignment(value instanceof ExpressionNode expressionNode ? floatExpression(expressionNode, 0) : floatConstant(value), targets);
+        }
+        return intAssignment(value instanceof ExpressionNode expressionNode ? intExpression(expressionNode, 0) : intConstant(value), valueType, targets);
+    }
+
+    // Stores the source variable into every target; trap is raised when it holds none.
+    private Statement assignment(VariableNode source, Trap trap, DataType valueType, List<VariableNode> targets) {
+        if (valueType == DataType.FLOAT) {
+            return floatAssignment(floatLoad(source, trap, true), targets);
+        }
+        return intAssignment(intLoad(source, trap, true), valueType, targets);
+    }
+
+    private Statement intAssignment(IntCode value, DataType valueType, List<VariableNode> targets) {
+        IntStore[] stores = new IntStore[targets.size()];
+        for (int i = 0; i < stores.length; i++) {
+            int slot = targets.get(i).getSlot();
+            DataType type = resolved(targets.get(i));
+            if (valueType == null || !type.accepts(valueType)) {
+                throw new Unsupported();
+            }
+            stores[i] = switch (type) {
+                case INT -> (symbolTable, v) -> symbolTable.setInt(slot, v);
+                case FLOAT -> (symbolTable, v) -> symbolTable.setFloat(slot, v);
+                case CHAR -> (symbolTable, v) -> symbolTable.setChar(slot, (char) v);
+                case BOOL -> (symbolTable, v) -> symbolTable.setBool(slot, v != 0);
+            };
+        }
+        if (stores.length == 1) {
+            IntStore store = stores[0];
+            return symbolTable -> {
+                store.store(symbolTable, value.eval(symbolTable));
+                return Completion.NORMAL;
+            };
+        }
+        return symbolTable -> {
+            int v = value.eval(symbolTable);
+            for (IntStore store : stores) {
+                store.store(symbolTable, v);
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement floatAssignment(FloatCode value, List<VariableNode> targets) {
+        int[] slots = new int[targets.size()];
+        for (int i = 0; i < slots.length; i++) {
+            if (resolved(targets.get(i)) != DataType.FLOAT) {
+                throw new Unsupported();
+            }
+            slots[i] = targets.get(i).getSlot();
+        }
+        if (slots.length == 1) {
+            int slot = slots[0];
+            return symbolTable -> {
+                symbolTable.setFloat(slot, value.eval(symbolTable));
+                return Completion.NORMAL;
+            };
+        }
+        return symbolTable -> {
+            float v = value.eval(symbolTable);
+            for (int slot : slots) {
+                symbolTable.setFloat(slot, v);
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement display(DisplayNode displayNode) {
+        List<Append> parts = new ArrayList<>();
+        for (ASTNode part : displayNode.getExpressions()) {
+            switch (part) {
+                case ExpressionNode expressionNode -> parts.add(expressionNode.getType() == DataType.FLOAT
+                        ? append(floatExpression(expressionNode, 0)) : append(intExpression(expressionNode, 0), expressionNode.getType()));
+                case VariableNode variableNode -> {
+                    Trap notInitialized = new Trap(Trap.Kind.INITIALIZATION,
+                            "ERROR: Variable " + variableNode.getVariableName() + " is not initialized.", displayNode.getLineNumber());
+                    parts.add(resolved(variableNode) == DataType.FLOAT ? append(floatLoad(variableNode, notInitialized, true))
+                            : append(intLoad(variableNode, notInitialized, true), variableNode.getType()));
+                }
+                case LiteralNode literalNode -> {
+                    String text = String.valueOf(literalNode.getValue());
+                    parts.add((symbolTable, output) -> output.append(text));
+                }
+                case null, default -> {
+                }
+            }
+        }
+        Append[] appends = parts.toArray(new Append[0]);
+        return symbolTable -> {
+            StringBuilder output = new StringBuilder();
+            for (Append part : appends) {
+                part.append(symbolTable, output);
+            }
+            symbolTable.getOutput().print(output.toString());
+            return Completion.NORMAL;
+        };
+    }
+
+    private static Append append(IntCode value, DataType type) {
+        return switch (type) {
+            case INT -> (symbolTable, output) -> output.append(value.eval(symbolTable));
+            case CHAR -> (symbolTable, output) -> output.append((char) value.eval(symbolTable));
+            case BOOL -> (symbolTable, output) -> output.append(value.eval(symbolTable) != 0 ? "TRUE" : "FALSE");
+            case FLOAT -> throw new Unsupported();
+        };
+    }
+
+    private static Append append(FloatCode value) {
+        return (symbolTable, output) -> output.append(value.eval(symbolTable));
+    }
+
+    // An IF or loop condition, 1 when it holds. A variable condition raises only when the variable holds no value.
+    private IntCode condition(ASTNode condition, int lineNumber) {
+        return switch (condition) {
+            case ExpressionNode expressionNode -> intExpression(expressionNode, 0);
+            case VariableNode variableNode -> intLoad(variableNode, new Trap(Trap.Kind.INITIALIZATION,
+                    "ERROR: Variable " + variableNode.getVariableName() + " not initialized.", lineNumber), true);
+            case LiteralNode literalNode -> {
+                int holds = Boolean.TRUE.equals(literalNode.getValue()) ? 1 : 0;
+                yield symbolTable -> holds;
+            }
+            case null, default -> symbolTable -> 0;
+        };
+    }
+
+    // An expression of type INT, CHAR or BOOL.
+    private IntCode intExpression(ExpressionNode node, int depth) {
+        if (depth == 0 && !node.isTyped()) {
+            throw new Unsupported();
+        }
+        if (depth == MAX_DEPTH || node.getType() == null || node.getType() == DataType.FLOAT) {
+            throw new Unsupported();
+        }
+        int lineNumber = node.getLineNumber();
+        if (node.getOperandType() == DataType.FLOAT) {
+            FloatCode[] operands = floatOperands(node, depth);
+            FloatCode left = operands[0];
+            FloatCode right = operands[1];
+            if (!(node instanceof ComparisonExpressionNode comparisonNode)) {
+                throw new Unsupported();
+            }
+            return switch (comparisonNode.getOperator()) {
+                case Less -> symbolTable -> left.eval(symbolTable) < right.eval(symbolTable) ? 1 : 0;
+                case LessEqual -> symbolTable -> left.eval(symbolTable) <= right.eval(symbolTable) ? 1 : 0;
+                case Greater -> symbolTable -> left.eval(symbolTable) > right.eval(symbolTable) ? 1 : 0;
+                case GreaterEqual -> symbolTable -> left.eval(symbolTable) >= right.eval(symbolTable) ? 1 : 0;
+                case Equals -> symbolTable -> left.eval(symbolTable) == right.eval(symbolTable) ? 1 : 0;
+                case NotEqual -> symbolTable -> left.eval(symbolTable) != right.eval(symbolTable) ? 1 : 0;
+                default -> throw new Unsupported();
+            };
+        }
+        if (node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit()) {
+            // the left operand is read first, and the right one only when the left does not decide the result
+            IntCode left = intOperand(node.getLeftOperand(), node, depth);
+            IntCode right = intOperand(node.getRightOperand(), node, depth);
+            return logicalNode.getOperator() == Token.Type.And
+                    ? symbolTable -> left.eval(symbolTable) == 0 ? 0 : right.eval(symbolTable)
+                    : symbolTable -> left.eval(symbolTable) != 0 ? 1 : right.eval(symbolTable);
+        }
+        IntCode[] operands = intOperands(node, depth);
+        IntCode left = operands[0];
+        IntCode right = operands[1];
+        return switch (node) {
+            case ArithmeticExpressionNode arithmeticNode -> switch (arithmeticNode.getOperator()) {
+                case Plus -> symbolTable -> left.eval(symbolTable) + right.eval(symbolTable);
+                case Minus -> symbolTable -> left.eval(symbolTable) - right.eval(symbolTable);
+                case Times -> symbolTable -> left.eval(symbolTable) * right.eval(symbolTable);
+                case Divide -> {
+                    String message = "ERROR: Division by zero. at line " + (lineNumber+1);
+                    yield symbolTable -> {
+                        int dividend = left.eval(symbolTable);
+                        int divisor = right.eval(symbolTable);
+                        if (divisor == 0) {
+                            throw new RuntimeErrorException(message, lineNumber);
+                        }
+                        return dividend / divisor;
+                    };
+                }
+                case Modulo -> symbolTable -> {
+                    int dividend = left.eval(symbolTable);
+                    int divisor = right.eval(symbolTable);
+                    if (divisor == 0) {
+                        throw new RuntimeErrorException("ERROR: Division by zero", lineNumber);
+                    }
+                    return dividend % divisor;
+                };
+                default -> throw new Unsupported();
+            };
+            case ComparisonExpressionNode comparisonNode -> switch (comparisonNode.getOperator()) {
+                case Less -> symbolTable -> left.eval(symbolTable) < right.eval(symbolTable) ? 1 : 0;
+                case LessEqual -> symbolTable -> left.eval(symbolTable) <= right.eval(symbolTable) ? 1 : 0;
+                case Greater -> symbolTable -> left.eval(symbolTable) > right.eval(symbolTable) ? 1 : 0;
+                case GreaterEqual -> symbolTable -> left.eval(symbolTable) >= right.eval(symbolTable) ? 1 : 0;
+                case Equals -> symbolTable -> left.eval(symbolTable) == right.eval(symbolTable) ? 1 : 0;
+                case NotEqual -> symbolTable -> left.eval(symbolTable) != right.eval(symbolTable) ? 1 : 0;
+                default -> throw new Unsupported();
+            };
+            case LogicalExpressionNode logicalNode -> switch (logicalNode.getOperator()) {
+                case Not -> symbolTable -> left.eval(symbolTable) ^ 1;
+                default -> throw new Unsupported();
+            };
+            default -> throw new Unsupported();
+        };
+    }
+
+    // An expression of any numeric type, as a float.
+    private FloatCode floatExpression(ExpressionNode node, int depth) {
+        if (depth == 0 && !node.isTyped()) {
+            throw new Unsupported();
+        }
+        if (node.getType() != DataType.FLOAT) {
+            return widen(intExpression(node, depth));
+        }
+        if (depth == MAX_DEPTH || !(node instanceof ArithmeticExpressionNode arithmeticNode)) {
+            throw new Unsupported();
+        }
+        int lineNumber = node.getLineNumber();
+        String message = "ERROR: Division by zero. at line " + (lineNumber+1);
+        FloatCode[] operands = floatOperands(node, depth);
+        FloatCode left = operands[0];
+        FloatCode right = operands[1];
+        return switch (arithmeticNode.getOperator()) {
+            case Plus -> symbolTable -> left.eval(symbolTable) + right.eval(symbolTable);
+            case Minus -> symbolTable -> left.eval(symbolTable) - right.eval(symbolTable);
+            case Times -> symbolTable -> left.eval(symbolTable) * right.eval(symbolTable);
+            case Divide -> symbolTable -> {
+                float dividend = left.eval(symbolTable);
+                float divisor = right.eval(symbolTable);
+                if (divisor == 0.0f) {
+                    throw new RuntimeErrorException(message, lineNumber);
+                }
+                return dividend / divisor;
+            };
+            case Modulo -> symbolTable -> {
+                float dividend = left.eval(symbolTable);
+                float divisor = right.eval(symbolTable);
+                if (divisor == 0.0f) {
+                    throw new RuntimeErrorException(message, lineNumber);
+                }
+                return dividend % divisor;
+            };
+            default -> throw new Unsupported();
+        };
+    }
+
+    // The operands of node as ints; the right one is null for NOT. The tree walker evaluates subexpressions before
+    // it reads the variables of a node, so with a variable on the left and a subexpression on the right, the
+    // variable's check moves after the subexpression and its errors come first.
+    private IntCode[] intOperands(ExpressionNode node, int depth) {
+        ASTNode left = node.getLeftOperand();
+        ASTNode right = node.getRightOperand();
+        if (left instanceof VariableNode variableNode && right instanceof ExpressionNode expressionNode) {
+            Trap nullOperand = nullOperand(node);
+            int slot = variableNode.getSlot();
+            IntCode rightCode = intExpression(expressionNode, depth + 1);
+            return new IntCode[]{intLoad(variableNode, nullOperand, false), symbolTable -> {
+                int value = rightCode.eval(symbolTable);
+                if (!symbolTable.isAssigned(slot)) {
+                    nullOperand.raise();
+                }
+                return value;
+            }};
+        }
+        return new IntCode[]{intOperand(left, node, depth), right == null ? null : intOperand(right, node, depth)};
+    }
+
+    private FloatCode[] floatOperands(ExpressionNode node, int depth) {
+        ASTNode left = node.getLeftOperand();
+        ASTNode right = node.getRightOperand();
+        if (right == null) {
+            throw new Unsupported();
+        }
+        if (left instanceof VariableNode variableNode && right instanceof ExpressionNode expressionNode) {
+            Trap nullOperand = nullOperand(node);
+            int slot = variableNode.getSlot();
+            FloatCode rightCode = floatExpression(expressionNode, depth + 1);
+            return new FloatCode[]{floatLoad(variableNode, nullOperand, false), symbolTable -> {
+                float value = rightCode.eval(symbolTable);
+                if (!symbolTable.isAssigned(slot)) {
+                    nullOperand.raise();
+                }
+                return value;
+            }};
+        }
+        return new FloatCode[]{floatOperand(left, node, depth), floatOperand(right, node, depth)};
+    }
+
+    private IntCode intOperand(ASTNode operand, ExpressionNode node, int depth) {
+        return switch (operand) {
+            case ExpressionNode expressionNode -> intExpression(expressionNode, depth + 1);
+            case VariableNode variableNode -> intLoad(variableNode, nullOperand(node), true);
+            case LiteralNode literalNode -> intConstant(literalNode.getValue());
+            case null, default -> throw new Unsupported();
+        };
+    }
+
+    private FloatCode floatOperand(ASTNode operand, ExpressionNode node, int depth) {
+        return switch (operand) {
+            case ExpressionNode expressionNode -> floatExpression(expressionNode, depth + 1);
+            case VariableNode variableNode -> floatLoad(variableNode, nullOperand(node), true);
+            case LiteralNode literalNode -> floatConstant(literalNode.getValue());
+            case null, default -> throw new Unsupported();
+        };
+    }
+
+    private static Trap nullOperand(ExpressionNode node) {
+        return new Trap(Trap.Kind.ARITHMETIC, "ERROR: Expression value analyzed returned null possibly " +
+                "because of null operands in the expression. at line " + (node.getLineNumber()+1), node.getLineNumber());
+    }
+
+    // Reads an INT, CHAR or BOOL variable, negated when it is written -x. When checked, trap is raised if it holds none.
+    private static IntCode intLoad(VariableNode variableNode, Trap trap, boolean checked) {
+        int slot = variableNode.getSlot();
+        boolean negated = variableNode.getInitialValue() != null;
+        IntCode read = switch (resolved(variableNode)) {
+            case INT -> negated ? symbolTable -> -symbolTable.getInt(slot) : symbolTable -> symbolTable.getInt(slot);
+            case CHAR -> negated ? null : symbolTable -> symbolTable.getChar(slot);
+            case BOOL -> negated ? null : symbolTable -> symbolTable.getBool(slot) ? 1 : 0;
+            case FLOAT -> null;
+        };
+        if (read == null) {
+            throw new Unsupported();
+        }
+        if (!checked) {
+            return read;
+        }
+        return symbolTable -> {
+            if (!symbolTable.isAssigned(slot)) {
+                trap.raise();
+            }
+            return read.eval(symbolTable);
+        };
+    }
+
+    // Reads a numeric variable as a float, like intLoad.
+    private static FloatCode floatLoad(VariableNode variableNode, Trap trap, boolean checked) {
+        if (resolved(variableNode) != DataType.FLOAT) {
+            return widen(intLoad(variableNode, trap, checked));
+        }
+        int slot = variableNode.getSlot();
+        FloatCode read = variableNode.getInitialValue() != null ? symbolTable -> -symbolTable.getFloat(slot) : symbolTable -> symbolTable.getFloat(slot);
+        if (!checked) {
+            return read;
+        }
+        return symbolTable -> {
+            if (!symbolTable.isAssigned(slot)) {
+                trap.raise();
+            }
+            return read.eval(symbolTable);
+        };
+    }
+
+    private static IntCode intConstant(Object value) {
+        int bits = switch (value) {
+            case Integer i -> i;
+            case Character c -> c;
+            case Boolean b -> b ? 1 : 0;
+            case null, default -> throw new Unsupported();
+        };
+        return symbolTable -> bits;
+    }
+
+    private static FloatCode floatConstant(Object value) {
+        float constant = switch (value) {
+            case Integer i -> i;
+            case Float f -> f;
+            case null, default -> throw new Unsupported();
+        };
+        return symbolTable -> constant;
+    }
+
+    private static FloatCode widen(IntCode value) {
+        return value::eval;
+    }
+
+    private static DataType resolved(VariableNode variableNode) {
+        if (variableNode.getType() == null || variableNode.getSlot() < 0) {
+            throw new Unsupported();
+        }
+        return variableNode.getType();
+    }
+
+    private interface IntCode {
+        int eval(SymbolTable symbolTable) throws VariableDeclarationException, VariableInitializationException, BreakException;
+    }
+
+    private interface FloatCode {
+        float eval(SymbolTable symbolTable) throws VariableDeclarationException, VariableInitializationException, BreakException;
+    }
+
+    private interface IntStore {
+        void store(SymbolTable symbolTable, int value);
+    }
+
+    private interface Append {
+        void append(SymbolTable symbolTable, StringBuilder output) throws VariableDeclarationException, VariableInitializationException, BreakException;
+    }
+
+    // Thrown for a construct there are no closures for; the program then runs on the tree walker.
+    private static class Unsupported extends RuntimeException {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package Main.Closure;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.SymbolTable;
+
+// A program ClosureCompiler turned into closures: its declarations and statements as one block.
+public class ClosureProgram {
+    private final Statement body;
+
+    ClosureProgram(Statement body) {
+        this.body = body;
+    }
+
+    public void run(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        body.execute(symbolTable);
+    }
+}
@@ -0,0 +1,15 @@
+package Main.Closure;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.Completion;
+import Main.Nodes.SymbolTable;
+
+// A compiled statement or block. Returns how control leaves it, BREAK and CONTINUE on their way to the loop they
+// belong to.
+@FunctionalInterface
+interface Statement {
+    Completion execute(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException;
+}
@@ -0,0 +1,130 @@
+package Main.Engine;
+
+import Main.Bytecode.BytecodeCompiler;
+import Main.Bytecode.Chunk;
+import Main.Bytecode.JitCompiler;
+import Main.Bytecode.JitProgram;
+import Main.Bytecode.VirtualMachine;
+import Main.Closure.ClosureCompiler;
+import Main.Closure.ClosureProgram;
+import Main.ExceptionHandlers.TypeMismatchException;
+import Main.Nodes.ASTNodes.DeclarationIndex;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.ASTNodes.VariableDeclarationsNode;
+import Main.Nodes.SymbolTable;
+import Main.Optimizer.OptimizationLevel;
+import Main.Optimizer.OptimizationReport;
+import Main.Optimizer.Optimizer;
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.Parser.Parser;
+import Main.Token.Lexer.Parser.SemanticAnalyzer;
+import Main.Token.Lexer.Parser.TypeChecker;
+import Main.Token.TokenBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Embedding entry point: compile a source once, then run it against any input and output. Errors come back
+// as diagnostics instead of being printed or ending the process.
+public class CodeEngine {
+    // loop passes the tree walker runs in TIERED mode before it compiles the loop
+    public static final int DEFAULT_HOT_LOOP_THRESHOLD = 1000;
+    // what the optimizer does when no level is given: work whose result is known before the program runs
+    public static final OptimizationLevel DEFAULT_OPTIMIZATION_LEVEL = OptimizationLevel.O1;
+
+    private final ExecutionMode mode;
+    private final int hotLoopThreshold;
+    private final OptimizationLevel optimizationLevel;
+
+    public CodeEngine() {
+        this(ExecutionMode.TREE);
+    }
+
+    public CodeEngine(ExecutionMode mode) {
+        this(mode, DEFAULT_HOT_LOOP_THRESHOLD);
+    }
+
+    public CodeEngine(ExecutionMode mode, int hotLoopThreshold) {
+        this(mode, hotLoopThreshold, DEFAULT_OPTIMIZATION_LEVEL);
+    }
+
+    public CodeEngine(ExecutionMode mode, int hotLoopThreshold, OptimizationLevel optimizationLevel) {
+        if (hotLoopThreshold < 1) {
+            throw new IllegalArgumentException("ERROR: Hot loop threshold must be at least 1.");
+        }
+        this.mode = mode;
+        this.hotLoopThreshold = hotLoopThreshold;
+        this.optimizationLevel = optimizationLevel;
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public int getHotLoopThreshold() {
+        return hotLoopThreshold;
+    }
+
+    public OptimizationLevel getOptimizationLevel() {
+        return optimizationLevel;
+    }
+
+    public CompiledProgram compile(CharSequence source) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        TokenBuffer tokens;
+        try {
+            tokens = new Lexer(source).lexParallel();
+        } catch (RuntimeException e) {
+            diagnostics.add(Diagnostic.of(Diagnostic.Phase.LEXICAL, e));
+            return new CompiledProgram(null, null, null, null, null, null, diagnostics);
+        }
+        ProgramNode program;
+        try {
+            program = (ProgramNode) new Parser(tokens).parse();
+        } catch (Exception e) {
+            diagnostics.add(Diagnostic.of(Diagnostic.Phase.SYNTAX, e));
+            return new CompiledProgram(null, null, null, null, tokens.getSymbols(), null, diagnostics);
+        }
+        OptimizationReport report;
+        try {
+            new TypeChecker().check(program);
+            report = Optimizer.optimize(program, tokens.getSymbols(), optimizationLevel);
+        } catch (TypeMismatchException e) {
+            diagnostics.add(Diagnostic.of(Diagnostic.Phase.TYPE, e));
+            return new CompiledProgram(null, null, null, null, tokens.getSymbols(), null, diagnostics);
+        }
+        // null when the program uses something the compilers do not cover
+        ClosureProgram closureProgram = mode == ExecutionMode.CLOSURE ? ClosureCompiler.compile(program) : null;
+        Chunk chunk = mode == ExecutionMode.BYTECODE || mode == ExecutionMode.JIT ? BytecodeCompiler.compile(program) : null;
+        JitProgram jitProgram = mode == ExecutionMode.JIT && chunk != null ? JitCompiler.compile(chunk) : null;
+        return new CompiledProgram(program, chunk, jitProgram, closureProgram, tokens.getSymbols(), report, diagnostics);
+    }
+
+    // Runs the program with fresh variables. Returns the runtime error, if any; output written before it stays written.
+    public List<Diagnostic> run(CompiledProgram program, InputSource input, OutputSink output) {
+        if (!program.isSuccessful()) {
+            throw new IllegalStateException("ERROR: Cannot run a program that did not compile.");
+        }
+        DeclarationIndex index = ((VariableDeclarationsNode) program.getProgram().getVariableDeclarations()).getIndex();
+        SymbolTable symbolTable = new SymbolTable(program.getSymbols(), index);
+        symbolTable.setInput(input);
+        symbolTable.setOutput(output);
+        if (mode == ExecutionMode.TIERED) {
+            symbolTable.setLoopTier(new HotLoopCompiler(hotLoopThreshold, index, program.getCompiledLoops()));
+        }
+        try {
+            if (program.getClosureProgram() != null) {
+                program.getClosureProgram().run(symbolTable);
+            } else if (program.getJitProgram() != null) {
+                program.getJitProgram().run(symbolTable);
+            } else if (program.getChunk() != null) {
+                new VirtualMachine(symbolTable).run(program.getChunk());
+            } else {
+                new SemanticAnalyzer(symbolTable).analyze(program.getProgram());
+            }
+            return List.of();
+        } catch (Exception e) {
+            return List.of(Diagnostic.of(Diagnostic.Phase.RUNTIME, e));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package Main.Engine;
+
+import Main.Bytecode.Chunk;
+import Main.Bytecode.JitProgram;
+import Main.Closure.ClosureProgram;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.CompiledLoop;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Optimizer.OptimizationReport;
+import Main.Token.Symbols;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Result of CodeEngine.compile: the tree and interned names of a program, or the diagnostics that stopped it.
+// The tree holds no run state, only the specialized expressions and compiled loops runs leave behind, which any run
+// can use. One compiled program can be run any number of times, also from several threads at once.
+public class CompiledProgram {
+    private final ProgramNode program;
+    // the program as bytecode, when the engine runs in BYTECODE or JIT mode and the compiler covers it
+    private final Chunk chunk;
+    // the chunk loaded as a JVM class, in JIT mode
+    private final JitProgram jitProgram;
+    // the program as closures, in CLOSURE mode when the compiler covers it
+    private final ClosureProgram closureProgram;
+    private final Symbols symbols;
+    // what the optimizer changed, null when the program did not get that far
+    private final OptimizationReport optimizationReport;
+    private final List<Diagnostic> diagnostics;
+    // the loops runs in TIERED mode have compiled, so a later run that finds a loop hot does not compile it again
+    private final Map<IterativeNode, CompiledLoop> compiledLoops = new ConcurrentHashMap<>();
+
+    CompiledProgram(ProgramNode program, Chunk chunk, JitProgram jitProgram, ClosureProgram closureProgram, Symbols symbols,
+                    OptimizationReport optimizationReport, List<Diagnostic> diagnostics) {
+        this.program = program;
+        this.chunk = chunk;
+        this.jitProgram = jitProgram;
+        this.closureProgram = closureProgram;
+        this.symbols = symbols;
+        this.optimizationReport = optimizationReport;
+        this.diagnostics = List.copyOf(diagnostics);
+    }
+
+    public ProgramNode getProgram() {
+        return program;
+    }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public JitProgram getJitProgram() {
+        return jitProgram;
+    }
+
+    public ClosureProgram getClosureProgram() {
+        return closureProgram;
+    }
+
+    public Symbols getSymbols() {
+        return symbols;
+    }
+
+    public OptimizationReport getOptimizationReport() {
+        return optimizationReport;
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    Map<IterativeNode, CompiledLoop> getCompiledLoops() {
+        return compiledLoops;
+    }
+
+    public boolean isSuccessful() {
+        return program != null && diagnostics.isEmpty();
+    }
+}
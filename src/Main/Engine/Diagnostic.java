@@ -0,0 +1,55 @@
+package Main.Engine;
+
+import Main.ExceptionHandlers.*;
+
+// An error reported while compiling or running a program. The line is one-based, 0 when it is not known.
+public class Diagnostic {
+    public enum Phase {
+        LEXICAL, SYNTAX, TYPE, RUNTIME
+    }
+
+    private final Phase phase;
+    private final String message;
+    private final int lineNumber;
+
+    public Diagnostic(Phase phase, String message, int lineNumber) {
+        this.phase = phase;
+        this.message = message;
+        this.lineNumber = lineNumber;
+    }
+
+    static Diagnostic of(Phase phase, Exception e) {
+        int line = switch (e) {
+            case SyntaxErrorException s -> s.getLineNumber() + 1;
+            case BeginContainerMissingException b -> b.getLineNumber() + 1;
+            case EndContainerMissingException m -> m.getLineNumber() + 1;
+            case VariableDeclarationException v -> v.getLineNumber() + 1;
+            case VariableInitializationException v -> v.getLineNumber() + 1;
+            case DisplayException d -> d.getLineNumber() + 1;
+            case ScannedInputException s -> s.getLineNumber() + 1;
+            case TypeMismatchException t -> t.getLineNumber() + 1;
+            case LexicalErrorException l -> l.getLineNumber() + 1;
+            case RuntimeErrorException r -> r.getLineNumber() + 1;
+            default -> 0;
+        };
+        String message = e.getMessage() != null ? e.getMessage() : "ERROR: " + e.getClass().getSimpleName();
+        return new Diagnostic(phase, message, line);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
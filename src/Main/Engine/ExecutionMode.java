@@ -0,0 +1,29 @@
+package Main.Engine;
+
+// How CodeEngine runs programs: by walking the tree, compiled to closures, compiled to bytecode for the VirtualMachine,
+// or further to a JVM class. Programs the closure or bytecode compiler does not cover still run on the tree walker, and
+// chunks JitCompiler cannot translate on the VirtualMachine. TIERED walks the tree and compiles only the loops that
+// get hot.
+public enum ExecutionMode {
+    TREE("tree"), CLOSURE("closure"), BYTECODE("vm"), JIT("jit"), TIERED("tiered");
+
+    private final String name;
+
+    ExecutionMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Mode named by an --engine value, null for anything else.
+    public static ExecutionMode of(String name) {
+        for (ExecutionMode mode : values()) {
+            if (mode.name.equals(name)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package Main.Engine;
+
+import Main.Bytecode.BytecodeCompiler;
+import Main.Bytecode.Chunk;
+import Main.Bytecode.JitCompiler;
+import Main.Bytecode.JitProgram;
+import Main.Closure.ClosureCompiler;
+import Main.Closure.ClosureProgram;
+import Main.Nodes.ASTNodes.DeclarationIndex;
+import Main.Nodes.CompiledLoop;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.LoopTier;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// The LoopTier of TIERED mode: compiles a hot loop to bytecode and on to a JVM class, or to closures when the JIT
+// cannot take it. CodeEngine makes one per run: which loops are hot is up to each run, the compiled loops, which hold
+// no run state, are kept for the runs of the same program.
+class HotLoopCompiler implements LoopTier {
+    private final int threshold;
+    private final DeclarationIndex index;
+    private final Map<IterativeNode, CompiledLoop> compiledLoops;
+    private final Map<IterativeNode, HotLoop> loops = new IdentityHashMap<>();
+
+    // passes the tree walker has run of a loop, until it is offered to the compilers, and what they made of it
+    private static class HotLoop {
+        private int passes;
+        private boolean offered;
+        private CompiledLoop compiledLoop;
+    }
+
+    HotLoopCompiler(int threshold, DeclarationIndex index, Map<IterativeNode, CompiledLoop> compiledLoops) {
+        this.threshold = threshold;
+        this.index = index;
+        this.compiledLoops = compiledLoops;
+    }
+
+    @Override
+    public CompiledLoop countPass(IterativeNode iterativeNode) {
+        HotLoop loop = loops.computeIfAbsent(iterativeNode, node -> new HotLoop());
+        if (!loop.offered && ++loop.passes >= threshold) {
+            loop.offered = true;
+            loop.compiledLoop = compiledLoops.get(iterativeNode);
+            if (loop.compiledLoop == null) {
+                loop.compiledLoop = compile(iterativeNode);
+                if (loop.compiledLoop != null) {
+                    compiledLoops.putIfAbsent(iterativeNode, loop.compiledLoop);
+                }
+            }
+        }
+        return loop.compiledLoop;
+    }
+
+    @Override
+    public CompiledLoop getCompiledLoop(IterativeNode iterativeNode) {
+        HotLoop loop = loops.get(iterativeNode);
+        return loop != null ? loop.compiledLoop : null;
+    }
+
+    private CompiledLoop compile(IterativeNode iterativeNode) {
+        Chunk chunk = BytecodeCompiler.compileLoop(iterativeNode, index, this::isRejected);
+        JitProgram jitProgram = chunk != null ? JitCompiler.compile(chunk) : null;
+        if (jitProgram != null) {
+            return jitProgram::run;
+        }
+        ClosureProgram closureProgram = ClosureCompiler.compileLoop(iterativeNode, this::isRejected);
+        return closureProgram != null ? closureProgram::run : null;
+    }
+
+    // The loop was offered to the compilers and neither could compile it, so a loop around it cannot be compiled
+    // either.
+    private boolean isRejected(IterativeNode iterativeNode) {
+        HotLoop loop = loops.get(iterativeNode);
+        return loop != null && loop.offered && loop.compiledLoop == null;
+    }
+}
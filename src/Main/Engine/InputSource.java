@@ -0,0 +1,31 @@
+package Main.Engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Where SCAN reads its lines from. readLine returns null once the input is exhausted.
+@FunctionalInterface
+public interface InputSource {
+    String readLine();
+
+    static InputSource of(String... lines) {
+        List<String> remaining = List.of(lines);
+        int[] next = {0};
+        return () -> next[0] < remaining.size() ? remaining.get(next[0]++) : null;
+    }
+
+    static InputSource from(InputStream stream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+        return () -> {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
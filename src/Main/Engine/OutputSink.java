@@ -0,0 +1,13 @@
+package Main.Engine;
+
+import java.io.PrintStream;
+
+// Where DISPLAY writes its output.
+@FunctionalInterface
+public interface OutputSink {
+    void print(String text);
+
+    static OutputSink of(PrintStream stream) {
+        return stream::print;
+    }
+}
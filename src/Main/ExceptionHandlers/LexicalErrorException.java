@@ -0,0 +1,15 @@
+package Main.ExceptionHandlers;
+
+// A character sequence the Lexer cannot turn into a token. The message gives the position, the line is kept apart
+// for diagnostics.
+public class LexicalErrorException extends RuntimeException {
+    private final int lineNumber;
+    public LexicalErrorException(String message, int lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,15 @@
+package Main.ExceptionHandlers;
+
+// An error a running program hits in an operation, such as a division by zero. The message is the one the engines
+// have always reported, most of them already ending in the line; the line is kept apart for diagnostics.
+public class RuntimeErrorException extends RuntimeException {
+    private final int lineNumber;
+    public RuntimeErrorException(String message, int lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
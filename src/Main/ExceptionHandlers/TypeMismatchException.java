@@ -0,0 +1,18 @@
+package Main.ExceptionHandlers;
+
+public class TypeMismatchException extends Exception {
+    private final int lineNumber;
+    public TypeMismatchException(String message, int lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + " at line " + (getLineNumber() + 1);
+    }
+}
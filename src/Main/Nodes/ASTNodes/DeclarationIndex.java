@@ -0,0 +1,64 @@
+package Main.Nodes.ASTNodes;
+
+import Main.Nodes.EvaluableNodes.VariableNode;
+
+import java.util.Arrays;
+
+// Declared variables by interned symbol id: data type, slot (declaration order) and zero-based line of the declaration.
+// Built once while the declarations are parsed so later lookups do not walk the declaration list.
+public class DeclarationIndex {
+    private String[] dataTypes = new String[16];
+    private int[] slots = new int[16];
+    private int[] lines = new int[16];
+    // by slot
+    private int[] symbolIds = new int[16];
+    private int size;
+
+    // Records the variable unless its symbol is already declared. Returns whether it was added.
+    public boolean declare(VariableNode variable, String dataType, int line) {
+        int symbolId = variable.getSymbolId();
+        if (contains(symbolId)) {
+            return false;
+        }
+        if (symbolId >= dataTypes.length) {
+            int capacity = Math.max(symbolId + 1, dataTypes.length * 2);
+            dataTypes = Arrays.copyOf(dataTypes, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+        }
+        if (size == symbolIds.length) {
+            symbolIds = Arrays.copyOf(symbolIds, size * 2);
+        }
+        dataTypes[symbolId] = dataType;
+        symbolIds[size] = symbolId;
+        slots[symbolId] = size++;
+        lines[symbolId] = line;
+        return true;
+    }
+
+    public boolean contains(int symbolId) {
+        return symbolId >= 0 && symbolId < dataTypes.length && dataTypes[symbolId] != null;
+    }
+
+    // Declared data type, null when the symbol is not declared.
+    public String getDataType(int symbolId) {
+        return contains(symbolId) ? dataTypes[symbolId] : null;
+    }
+
+    public int getSlot(int symbolId) {
+        return contains(symbolId) ? slots[symbolId] : -1;
+    }
+
+    public int getLine(int symbolId) {
+        return contains(symbolId) ? lines[symbolId] : -1;
+    }
+
+    // Symbol declared in the given slot.
+    public int getSymbolId(int slot) {
+        return symbolIds[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -1,12 +1,31 @@
 package Main.Nodes.ASTNodes;
 
 public class LiteralNode extends ASTNode {
+    // canonical results, shared since a LiteralNode never changes
+    public static final LiteralNode TRUE = new LiteralNode(Boolean.TRUE);
+    public static final LiteralNode FALSE = new LiteralNode(Boolean.FALSE);
+    private static final LiteralNode[] SMALL_INTS = new LiteralNode[256];
+
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = new LiteralNode(i - 128);
+        }
+    }
+
     private final Object value;
 
     public LiteralNode(Object value) {
         this.value = value;
     }
 
+    public static LiteralNode of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static LiteralNode of(int value) {
+        return value >= -128 && value < 128 ? SMALL_INTS[value + 128] : new LiteralNode(value);
+    }
+
     public Object getValue() {
         return value;
     }
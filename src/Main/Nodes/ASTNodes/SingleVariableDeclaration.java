@@ -6,10 +6,12 @@ import java.util.*;
 public class SingleVariableDeclaration extends ASTNode {
     private final String dataType;
     private final List<VariableNode> variableNames;
+    private final int lineNumber;
 
-    public SingleVariableDeclaration(String dataType, List<VariableNode> variableNames) {
+    public SingleVariableDeclaration(String dataType, List<VariableNode> variableNames, int lineNumber) {
         this.dataType = dataType;
         this.variableNames = variableNames;
+        this.lineNumber = lineNumber;
     }
 
     public String getDataType() {
@@ -19,4 +21,8 @@ public class SingleVariableDeclaration extends ASTNode {
     public List<VariableNode> getVariableNames() {
         return variableNames;
     }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
 }
@@ -2,21 +2,37 @@ package Main.Nodes.ASTNodes;
 import Main.Nodes.ASTNodes.ASTNode;
 import Main.Nodes.ASTNodes.EvaluableNode;
 import Main.Nodes.ASTNodes.SingleVariableDeclaration;
+import Main.Nodes.EvaluableNodes.VariableNode;
 import Main.Nodes.SymbolTable;
 
 import java.util.*;
 
 public class VariableDeclarationsNode extends ASTNode {
     private final List<SingleVariableDeclaration> variableDeclarations;
+    private final DeclarationIndex index;
 
-    public VariableDeclarationsNode(List<SingleVariableDeclaration> variableDeclarations) {
+    public VariableDeclarationsNode(List<SingleVariableDeclaration> variableDeclarations, DeclarationIndex index) {
         this.variableDeclarations = variableDeclarations;
+        this.index = index;
+    }
+
+    public VariableDeclarationsNode(List<SingleVariableDeclaration> variableDeclarations) {
+        this(variableDeclarations, new DeclarationIndex());
+        for (SingleVariableDeclaration declaration : variableDeclarations) {
+            for (VariableNode variable : declaration.getVariableNames()) {
+                index.declare(variable, declaration.getDataType(), declaration.getLineNumber());
+            }
+        }
     }
 
     public List<SingleVariableDeclaration> getVariableDeclarations() {
         return variableDeclarations;
     }
 
+    public DeclarationIndex getIndex() {
+        return index;
+    }
+
 }
 
 
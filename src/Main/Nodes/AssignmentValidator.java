@@ -4,40 +4,24 @@ import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.LiteralNode;
 
 public class AssignmentValidator {
+    // Checks the type of the value itself against the declared type; an INT value is a valid FLOAT too. Only values
+    // whose type is not known before the program runs get here, the TypeChecker has checked the rest.
     public static void validateAssignmentType(String dataType, String variable, LiteralNode valueNode, int lineNumber) throws VariableInitializationException {
         if (valueNode != null) {
             Object assignedValue = valueNode.getValue();
             if (assignedValue != null) {
-                // Check if the assigned value matches the data type
-                switch (dataType) {
-                    case "INT" -> {
-                        try {
-                            int intValue = Integer.parseInt(String.valueOf(assignedValue));
-                            // The assigned value can be parsed as an int, so it matches the data type INT
-                        } catch (NumberFormatException e) {
-                            throw new VariableInitializationException("ERROR: Assigned value for variable '" + variable + "' is not a valid INT.", lineNumber);
-                        }
-                    }
-                    case "CHAR" -> {
-                        if (!(assignedValue instanceof Character)) {
-                            throw new VariableInitializationException("ERROR: Assigned value for variable '" + variable + "' does not match data type CHAR.", lineNumber);
-                        }
-                    }
-                    case "BOOL" -> {
-                        if (!(assignedValue.equals("FALSE") || assignedValue.equals("TRUE"))) {
-                            throw new VariableInitializationException("ERROR: Assigned value for variable '" + variable + "' does not match data type BOOL.", lineNumber);
-                        }
-                    }
-                    case "FLOAT" -> {
-                        try {
-                            double floatValue = Double.parseDouble(String.valueOf(assignedValue));
-                            // The assigned value can be parsed as a double, so it matches the data type FLOAT
-                        } catch (NumberFormatException e) {
-                            throw new VariableInitializationException("ERROR: Assigned value for variable '" + variable + "' is not a valid FLOAT.", lineNumber);
-                        }
-                    }
-                    case null, default ->
-                            throw new VariableInitializationException("ERROR: Unsupported data type '" + dataType + "'.", lineNumber);
+                DataType type = DataType.of(dataType);
+                if (type == null) {
+                    throw new VariableInitializationException("ERROR: Unsupported data type '" + dataType + "'.", lineNumber);
+                }
+                if (!type.accepts(DataType.ofValue(assignedValue))) {
+                    String message = switch (type) {
+                        case INT -> "ERROR: Assigned value for variable '" + variable + "' is not a valid INT.";
+                        case FLOAT -> "ERROR: Assigned value for variable '" + variable + "' is not a valid FLOAT.";
+                        case CHAR -> "ERROR: Assigned value for variable '" + variable + "' does not match data type CHAR.";
+                        case BOOL -> "ERROR: Assigned value for variable '" + variable + "' does not match data type BOOL.";
+                    };
+                    throw new VariableInitializationException(message, lineNumber);
                 }
             }
         }
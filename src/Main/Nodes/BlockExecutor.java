@@ -0,0 +1,97 @@
+package Main.Nodes;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.BreakNode;
+import Main.Nodes.ASTNodes.ContinueNode;
+import Main.Nodes.ASTNodes.EvaluableNode;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs statements with the open IF and loop bodies kept on an explicit stack, so nesting depth does not grow the
+// Java stack. BREAK and CONTINUE complete the frames above the innermost loop without throwing: BREAK leaves the loop,
+// CONTINUE goes on with the next pass, through the update of a FOR. With a LoopTier in the SymbolTable, a loop that gets hot is handed to the tier between two passes and
+// runs compiled from then on.
+public class BlockExecutor {
+
+    public static void execute(List<ASTNode> statements, SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        LoopTier loopTier = symbolTable.getLoopTier();
+        ArrayList<Frame> frames = new ArrayList<>();
+        frames.add(new Frame(statements, null));
+        while (!frames.isEmpty()) {
+            Frame frame = frames.getLast();
+            if (frame.next == frame.statements.size()) {
+                CompiledLoop compiledLoop = frame.loop != null && loopTier != null ? loopTier.countPass(frame.loop) : null;
+                if (compiledLoop != null) {
+                    // the variables are all in the SymbolTable, so the compiled loop picks up at the next condition check
+                    frames.removeLast();
+                    compiledLoop.resume(symbolTable);
+                } else if (frame.loop != null && frame.loop.updateCondition(frame.loop.getCondition(), symbolTable)) {
+                    frame.next = 0;
+                } else {
+                    frames.removeLast();
+                }
+                continue;
+            }
+
+            ASTNode statement = frame.statements.get(frame.next++);
+            switch (statement) {
+                case ConditionalNode conditionalNode -> frames.add(new Frame(conditionalNode.selectBranch(symbolTable), null));
+                case IterativeNode iterativeNode -> {
+                    if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof EvaluableNode initialization) {
+                        initialization.evaluate(symbolTable);
+                    }
+                    CompiledLoop compiledLoop = loopTier != null ? loopTier.getCompiledLoop(iterativeNode) : null;
+                    if (compiledLoop != null) {
+                        compiledLoop.resume(symbolTable);
+                    } else if (iterativeNode.updateCondition(iterativeNode.getCondition(), symbolTable)) {
+                        frames.add(new Frame(iterativeNode.getIterativeStatements(), iterativeNode));
+                    }
+                }
+                case EvaluableNode evaluableNode -> evaluableNode.evaluate(symbolTable);
+                case BreakNode breakNode -> complete(frames, Completion.BREAK);
+                case ContinueNode continueNode -> complete(frames, Completion.CONTINUE);
+                default -> {
+                }
+            }
+        }
+    }
+
+    // Carries BREAK or CONTINUE out to the innermost loop. BREAK outside any loop is an error, CONTINUE there does nothing.
+    private static void complete(ArrayList<Frame> frames, Completion completion) throws BreakException {
+        int loopFrame = frames.size() - 1;
+        while (loopFrame >= 0 && frames.get(loopFrame).loop == null) {
+            loopFrame--;
+        }
+        if (loopFrame < 0) {
+            if (completion == Completion.BREAK) {
+                throw new BreakException();
+            }
+            return;
+        }
+        Frame frame = frames.get(loopFrame);
+        frames.subList(completion == Completion.BREAK ? loopFrame : loopFrame + 1, frames.size()).clear();
+        if (completion == Completion.CONTINUE) {
+            frame.next = frame.loop.getContinueIndex();
+        }
+    }
+
+    private static class Frame {
+        final List<ASTNode> statements;
+        // the loop this frame is the body of, null for IF bodies and the outermost statements
+        final IterativeNode loop;
+        int next;
+
+        Frame(List<ASTNode> statements, IterativeNode loop) {
+            this.statements = statements;
+            this.loop = loop;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package Main.Nodes;
+
+import Main.ExceptionHandlers.BreakException;
+import Main.ExceptionHandlers.ScannedInputException;
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
+
+// A loop compiled by a LoopTier. resume runs it from its condition check until it exits, on the variables in the
+// SymbolTable, and leaves them there for the tree walker to carry on with.
+@FunctionalInterface
+public interface CompiledLoop {
+    void resume(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException;
+}
@@ -0,0 +1,7 @@
+package Main.Nodes;
+
+// How control leaves a statement: normally, or by BREAK or CONTINUE, which carry on out through the IF bodies around
+// them to the innermost loop.
+public enum Completion {
+    NORMAL, BREAK, CONTINUE
+}
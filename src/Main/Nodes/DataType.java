@@ -0,0 +1,45 @@
+package Main.Nodes;
+
+// Static type of a variable or expression, taken from the INT, FLOAT, CHAR and BOOL declarations.
+public enum DataType {
+    INT, FLOAT, CHAR, BOOL;
+
+    // Type named by a declaration keyword, null for anything else.
+    public static DataType of(String dataType) {
+        return switch (dataType) {
+            case "INT" -> INT;
+            case "FLOAT" -> FLOAT;
+            case "CHAR" -> CHAR;
+            case "BOOL" -> BOOL;
+            case null, default -> null;
+        };
+    }
+
+    // Type of a value as the parser and the evaluator produce it, null for anything else.
+    public static DataType ofValue(Object value) {
+        return switch (value) {
+            case Integer i -> INT;
+            case Float f -> FLOAT;
+            case Character c -> CHAR;
+            case Boolean b -> BOOL;
+            case null, default -> null;
+        };
+    }
+
+    public boolean isNumeric() {
+        return this == INT || this == FLOAT;
+    }
+
+    // Whether a value of type source may be stored in a variable of this type.
+    public boolean accepts(DataType source) {
+        return source == this || (this == FLOAT && source == INT);
+    }
+
+    // The value as variables of this type hold it at run time; only FLOAT widens, an INT stored in a FLOAT becomes a Float.
+    public Object coerce(Object value) {
+        if (this == FLOAT && value instanceof Integer integer) {
+            return integer.floatValue();
+        }
+        return value;
+    }
+}
@@ -6,6 +6,7 @@ import Main.ExceptionHandlers.VariableDeclarationException;
 import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.*;
 import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.BlockExecutor;
 import Main.Nodes.SymbolTable;
 
 import java.util.List;
@@ -47,27 +48,26 @@ public class ConditionalNode extends EvaluableNode {
 
     @Override
     public void evaluate(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        BlockExecutor.execute(List.of(this), symbolTable);
+    }
+
+    // Statements of the first branch whose condition holds, the ELSE statements when none does.
+    public List<ASTNode> selectBranch(SymbolTable symbolTable) throws VariableInitializationException, VariableDeclarationException {
         List<ASTNode> executables = null;
         for(int i=0; i<getConditions().size(); i++) {
             ASTNode condition = getConditions().get(i);
             if(condition instanceof ExpressionNode expressionNode) {
-                LiteralNode result = expressionNode.evaluateExpression(symbolTable);
-                if (result.getValue().equals("TRUE")) {
+                if (expressionNode.evaluateCondition(symbolTable)) {
                     executables = (i == 0) ? getIfStatements().getStatements() : getElseIfBlocks().get(i - 1).getStatements();
                     break;
                 }
             } else if(condition instanceof VariableNode variableNode) {
-                if(!symbolTable.getInitializedVariables().containsKey(variableNode.getVariableName())) {
-                    throw new VariableDeclarationException("ERROR: Variable " + variableNode.getVariableName() + " is not declared.", getLineNumber());
-                }
-                LiteralNode result = symbolTable.getValue(variableNode.getVariableName());
-                if(result.getValue() != null && result.getValue().equals("TRUE")) {
+                if (variableNode.evaluateCondition(symbolTable, getLineNumber())) {
                     executables = (i == 0) ? getIfStatements().getStatements() : getElseIfBlocks().get(i-1).getStatements();
                     break;
                 }
-                throw new VariableInitializationException("ERROR: Variable " + variableNode.getVariableName() + " not initialized.", getLineNumber());
             } else if(condition instanceof LiteralNode literalNode) {
-                if(literalNode.getValue().equals("TRUE")) {
+                if(Boolean.TRUE.equals(literalNode.getValue())) {
                     executables = (i == 0) ? getIfStatements().getStatements() : getElseIfBlocks().get(i-1).getStatements();
                     break;
                 }
@@ -76,14 +76,6 @@ public class ConditionalNode extends EvaluableNode {
         if(executables == null) {
             executables = getElseStatements().getStatements();
         }
-
-        for(ASTNode executable : executables) {
-            if(executable instanceof EvaluableNode evaluableNode) {
-                evaluableNode.evaluate(symbolTable);
-            } else if(executable instanceof BreakNode) {
-                throw new BreakException();
-            }
-        }
-
+        return executables;
     }
 }
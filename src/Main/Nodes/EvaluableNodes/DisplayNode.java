@@ -33,21 +33,21 @@ public class DisplayNode extends EvaluableNode {
         LiteralNode value;
         for (ASTNode expression : getExpressions()) {
             if(expression instanceof ExpressionNode expressionNode) {
-                output.append(expressionNode.evaluateExpression(symbolTable).getValue());
+                output.append(printable(expressionNode.evaluateExpression(symbolTable).getValue()));
             } else if(expression instanceof VariableNode variableNode) {
-                if(!symbolTable.getInitializedVariables().containsKey(variableNode.getVariableName())) {
+                if(!symbolTable.contains(variableNode)) {
                     throw new VariableDeclarationException("ERROR: Variable " + variableNode.getVariableName() + " is not declared.", getLineNumber());
                 }
-                value = symbolTable.getValue(((VariableNode) expression).getVariableName());
+                value = symbolTable.getValue(variableNode);
                 if(value == null || value.getValue() == null) {
                     throw new VariableInitializationException("ERROR: Variable " + ((VariableNode) expression).getVariableName() + " is not initialized.",getLineNumber());
                 } else if(variableNode.getInitialValue() == null) {
-                    output.append(value.getValue());
+                    output.append(printable(value.getValue()));
                 } else if((int)variableNode.getInitialValue() == -1) {
-                    if(variableNode.getInitialValue() instanceof Integer) {
+                    if(value.getValue() instanceof Float floatValue) {
+                        output.append(floatValue*-1.0f);
+                    } else if(variableNode.getInitialValue() instanceof Integer) {
                         output.append((int) value.getValue()*-1);
-                    } else if(variableNode.getInitialValue() instanceof Double) {
-                        output.append((double) value.getValue()*-1.0);
                     } else {
                         throw new VariableInitializationException("ERROR: Value of type " + value.getValue() + " cannot be negated.", getLineNumber());
                     }
@@ -56,6 +56,14 @@ public class DisplayNode extends EvaluableNode {
                 output.append(literalNode.getValue());
             }
         }
-        System.out.print(output);
+        symbolTable.getOutput().print(output.toString());
+    }
+
+    // BOOL values print as their literals
+    private static Object printable(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool ? "TRUE" : "FALSE";
+        }
+        return value;
     }
 }
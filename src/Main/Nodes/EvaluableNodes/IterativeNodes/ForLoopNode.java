@@ -1,12 +1,6 @@
 package Main.Nodes.EvaluableNodes.IterativeNodes;
 
-import Main.ExceptionHandlers.BreakException;
-import Main.ExceptionHandlers.ScannedInputException;
-import Main.ExceptionHandlers.VariableDeclarationException;
-import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.ASTNode;
-import Main.Nodes.ASTNodes.EvaluableNode;
-import Main.Nodes.SymbolTable;
 
 import java.util.List;
 
@@ -21,12 +15,9 @@ public class ForLoopNode extends IterativeNode {
         return initialization;
     }
 
+    // The parser puts the update last in the body, and CONTINUE still runs it.
     @Override
-    public void evaluate(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
-        ASTNode condition = getCondition();
-        if(getInitialization() instanceof EvaluableNode evaluableNode) {
-            evaluableNode.evaluate(symbolTable);
-        }
-        evaluateLoop(symbolTable, condition);
+    public int getContinueIndex() {
+        return getIterativeStatements().size() - 1;
     }
 }
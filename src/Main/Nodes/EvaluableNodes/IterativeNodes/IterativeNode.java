@@ -7,12 +7,13 @@ import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.*;
 import Main.Nodes.EvaluableNodes.VariableNode;
 import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.BlockExecutor;
 import Main.Nodes.SymbolTable;
 
 import java.util.List;
 
 public abstract class IterativeNode extends EvaluableNode {
-    private final ASTNode condition;
+    private ASTNode condition;
     private final List<ASTNode> iterativeStatements;
     private final int lineNumber;
 
@@ -26,6 +27,10 @@ public abstract class IterativeNode extends EvaluableNode {
         return condition;
     }
 
+    public void setCondition(ASTNode condition) {
+        this.condition = condition;
+    }
+
     public List<ASTNode> getIterativeStatements() {
         return iterativeStatements;
     }
@@ -34,42 +39,23 @@ public abstract class IterativeNode extends EvaluableNode {
         return lineNumber;
     }
 
-    protected void evaluateLoop(SymbolTable symbolTable, ASTNode condition) throws VariableInitializationException, VariableDeclarationException, ScannedInputException {
-        boolean conditionResult = updateCondition(condition, symbolTable);
+    // Index in the body where CONTINUE goes on: its end, so the condition is checked next.
+    public int getContinueIndex() {
+        return iterativeStatements.size();
+    }
 
-        while (conditionResult) {
-            try {
-                for (ASTNode statement : getIterativeStatements()) {
-                    if(statement instanceof EvaluableNode evaluableNode) {
-                        evaluableNode.evaluate(symbolTable);
-                    } else if(statement instanceof BreakNode) {
-                        throw new BreakException();
-                    } else if(statement instanceof ContinueNode) {
-                        break;
-                    }
-                }
-                conditionResult = updateCondition(condition, symbolTable);
-            } catch (BreakException e) {
-                break;
-            }
-        }
+    @Override
+    public void evaluate(SymbolTable symbolTable) throws VariableInitializationException, BreakException, VariableDeclarationException, ScannedInputException {
+        BlockExecutor.execute(List.of(this), symbolTable);
     }
 
-    protected boolean updateCondition(ASTNode condition, SymbolTable symbolTable) throws VariableInitializationException, VariableDeclarationException {
+    public boolean updateCondition(ASTNode condition, SymbolTable symbolTable) throws VariableInitializationException, VariableDeclarationException {
         if(condition instanceof ExpressionNode expressionNode) {
-            LiteralNode result = expressionNode.evaluateExpression(symbolTable);
-            return result.getValue().equals("TRUE");
+            return expressionNode.evaluateCondition(symbolTable);
         } else if(condition instanceof VariableNode variableNode) {
-            if(!symbolTable.getInitializedVariables().containsKey(variableNode.getVariableName())) {
-                throw new VariableDeclarationException("ERROR: Variable " + variableNode.getVariableName() + " is not declared.", getLineNumber());
-            }
-            LiteralNode result = symbolTable.getValue(variableNode.getVariableName());
-            if(result.getValue() != null) {
-                return result.getValue().equals("TRUE");
-            }
-            throw new VariableInitializationException("ERROR: Variable " + variableNode.getVariableName() + " not initialized.", getLineNumber());
+            return variableNode.evaluateCondition(symbolTable, getLineNumber());
         } else if(condition instanceof LiteralNode literalNode) {
-            return literalNode.getValue().equals("TRUE");
+            return Boolean.TRUE.equals(literalNode.getValue());
         }
         return false;
     }
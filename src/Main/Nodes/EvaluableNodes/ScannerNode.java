@@ -5,26 +5,25 @@ import Main.ExceptionHandlers.VariableDeclarationException;
 import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.EvaluableNode;
 import Main.Nodes.ASTNodes.LiteralNode;
-import Main.Nodes.ASTNodes.SingleVariableDeclaration;
 import Main.Nodes.ASTNodes.VariableDeclarationsNode;
 import Main.Nodes.AssignmentValidator;
+import Main.Nodes.DataType;
 import Main.Nodes.SymbolTable;
 
 import java.util.List;
-import java.util.Scanner;
 
 public class ScannerNode extends EvaluableNode {
-    private final List<String> variableNames;
+    private final List<VariableNode> variableNames;
     private final VariableDeclarationsNode declarations;
     private final int lineNumber;
 
-    public ScannerNode(List<String> variableNames, VariableDeclarationsNode declarations, int lineNumber) {
+    public ScannerNode(List<VariableNode> variableNames, VariableDeclarationsNode declarations, int lineNumber) {
         this.variableNames = variableNames;
         this.declarations = declarations;
         this.lineNumber = lineNumber;
     }
 
-    public List<String> getVariableNames() {
+    public List<VariableNode> getVariableNames() {
         return variableNames;
     }
 
@@ -38,17 +37,18 @@ public class ScannerNode extends EvaluableNode {
 
     @Override
     public void evaluate(SymbolTable symbolTable) throws ScannedInputException, VariableInitializationException, VariableDeclarationException {
-        String[] userInputValues = getStrings(getVariableNames());
+        String[] userInputValues = getStrings(symbolTable, getVariableNames());
 
         for (int i = 0; i < getVariableNames().size(); i++) {
-            String variableName = getVariableNames().get(i);
+            VariableNode variable = getVariableNames().get(i);
+            String variableName = variable.getVariableName();
             String userInput = userInputValues[i].trim(); // Remove any leading/trailing whitespace
             Object parsedValue = parseInput(userInput);
             if (parsedValue != null) {
-                LiteralNode valueNode = new LiteralNode(parsedValue);
-                symbolTable.setValue(variableName, valueNode);
-                String dataType = getDataType(variableName, getDeclarations().getVariableDeclarations());
+                String dataType = getDataType(variable);
+                LiteralNode valueNode = new LiteralNode(DataType.of(dataType).coerce(parsedValue));
                 AssignmentValidator.validateAssignmentType(dataType, variableName, valueNode, getLineNumber());
+                symbolTable.setValue(variable, valueNode);
             } else {
                 throw new ScannedInputException("ERROR: Invalid input provided for variable '" + variableName + "'.", getLineNumber());
             }
@@ -57,11 +57,12 @@ public class ScannerNode extends EvaluableNode {
 
     }
 
-    private String[] getStrings(List<String> variableNames) throws ScannedInputException {
-        Scanner scanner = new Scanner(System.in);
-
+    private String[] getStrings(SymbolTable symbolTable, List<VariableNode> variableNames) throws ScannedInputException {
         // Prompt for input once, for all variables
-        String inputLine = scanner.nextLine();
+        String inputLine = symbolTable.getInput().readLine();
+        if (inputLine == null) {
+            throw new ScannedInputException("ERROR: No input left to scan.", getLineNumber());
+        }
         String[] userInputValues = inputLine.split(",");
 
         if (userInputValues.length != variableNames.size()) {
@@ -73,26 +74,38 @@ public class ScannerNode extends EvaluableNode {
 
     private Object parseInput(String userInput) {
         // Try to parse user input to various data types
-        if (userInput.matches("^-?\\d+$")) {
+        int start = userInput.startsWith("-") ? 1 : 0;
+        int digits = digitsFrom(userInput, start);
+        if (digits > start && digits == userInput.length()) {
             return Integer.parseInt(userInput); // Integer
-        } else if (userInput.matches("^-?\\d*\\.\\d+$")) {
+        } else if (digits < userInput.length() - 1 && userInput.charAt(digits) == '.' && digitsFrom(userInput, digits + 1) == userInput.length()) {
             return Float.parseFloat(userInput); // Float
+        } else if (userInput.equals("TRUE") || userInput.equals("FALSE")) {
+            return userInput.equals("TRUE"); // Boolean
         } else if (userInput.equalsIgnoreCase("true") || userInput.equalsIgnoreCase("false")) {
-            return userInput; // Boolean
+            return userInput; // rejected by the BOOL check, only upper case is a boolean
         } else if (userInput.length() == 1) {
             return userInput.charAt(0); // Character
         }
         return null; // Invalid input
     }
 
+    // End of the run of ASCII digits starting at start.
+    private static int digitsFrom(String input, int start) {
+        int end = start;
+        while (end < input.length() && input.charAt(end) >= '0' && input.charAt(end) <= '9') {
+            end++;
+        }
+        return end;
+    }
+
 
-    private String getDataType(String variableName, List<SingleVariableDeclaration> declarations) throws VariableDeclarationException {
-        for (SingleVariableDeclaration declaration : declarations) {
-            if (declaration.getVariableNames().stream().anyMatch(variableNode -> variableNode.getVariableName().equals(variableName))) {
-                return declaration.getDataType();
-            }
+    private String getDataType(VariableNode variable) throws VariableDeclarationException {
+        String dataType = getDeclarations().getIndex().getDataType(variable.getSymbolId());
+        if (dataType != null) {
+            return dataType;
         }
-        throw new VariableDeclarationException("ERROR: Variable '" + variableName + "' not declared.", getLineNumber());
+        throw new VariableDeclarationException("ERROR: Variable '" + variable.getVariableName() + "' not declared.", getLineNumber());
     }
 
 
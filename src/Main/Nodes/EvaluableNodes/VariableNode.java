@@ -1,29 +1,76 @@
 package Main.Nodes.EvaluableNodes;
 
+import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.EvaluableNode;
 import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.DataType;
 import Main.Nodes.SymbolTable;
 
 public class VariableNode extends EvaluableNode  {
 
     private final String variableName;
+    private final int symbolId;
     private final Object initialValue;
+    // declared type and frame slot, set by the TypeChecker; the slot is -1 until then
+    private DataType type;
+    private int slot = -1;
 
-    public VariableNode(String variableName, Object initialValue) {
+    public VariableNode(String variableName, int symbolId, Object initialValue) {
         this.variableName = variableName;
+        this.symbolId = symbolId;
         this.initialValue = initialValue;
     }
     @Override
     public void evaluate(SymbolTable symbolTable) {
         LiteralNode initialValueNode = new LiteralNode(initialValue);
-        symbolTable.setValue(variableName, initialValueNode);
+        symbolTable.setValue(this, initialValueNode);
     }
 
     public String getVariableName() {
         return variableName;
     }
 
+    public int getSymbolId() {
+        return symbolId;
+    }
+
     public Object getInitialValue() {
         return initialValue;
     }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public void setType(DataType type) {
+        this.type = type;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    // The variable as an IF or loop condition. A typed BOOL slot is read without boxing; only a variable that is not
+    // declared or holds no value raises.
+    public boolean evaluateCondition(SymbolTable symbolTable, int lineNumber) throws VariableDeclarationException, VariableInitializationException {
+        if (!symbolTable.contains(this)) {
+            throw new VariableDeclarationException("ERROR: Variable " + variableName + " is not declared.", lineNumber);
+        }
+        if (slot >= 0 && type == DataType.BOOL) {
+            if (symbolTable.isAssigned(slot)) {
+                return symbolTable.getBool(slot);
+            }
+        } else {
+            LiteralNode value = symbolTable.getValue(this);
+            if (value != null && value.getValue() != null) {
+                return Boolean.TRUE.equals(value.getValue());
+            }
+        }
+        throw new VariableInitializationException("ERROR: Variable " + variableName + " not initialized.", lineNumber);
+    }
 }
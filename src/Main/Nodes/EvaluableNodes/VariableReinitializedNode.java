@@ -6,6 +6,7 @@ import Main.Nodes.ASTNodes.EvaluableNode;
 import Main.Nodes.ASTNodes.LiteralNode;
 import Main.Nodes.ASTNodes.VariableDeclarationsNode;
 import Main.Nodes.AssignmentValidator;
+import Main.Nodes.DataType;
 import Main.Nodes.ExpressionNodes.ExpressionNode;
 import Main.Nodes.SymbolTable;
 
@@ -13,19 +14,21 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 public class VariableReinitializedNode extends EvaluableNode {
-    private final List<String> variableNames;
+    private final List<VariableNode> variableNames;
     private LiteralNode value;
     private final VariableDeclarationsNode declaredVariables;
     private final int lineNumber;
+    // static type of the assigned value, set by the TypeChecker once it checked the assignment for every target
+    private DataType valueType;
 
-    public VariableReinitializedNode(List<String> variableNames, LiteralNode value, VariableDeclarationsNode declaredVariables, int lineNumber) {
+    public VariableReinitializedNode(List<VariableNode> variableNames, LiteralNode value, VariableDeclarationsNode declaredVariables, int lineNumber) {
         this.variableNames = variableNames;
         this.value = value;
         this.declaredVariables = declaredVariables;
         this.lineNumber = lineNumber;
     }
 
-    public List<String> getVariableNames() {
+    public List<VariableNode> getVariableNames() {
         return variableNames;
     }
 
@@ -45,25 +48,38 @@ public class VariableReinitializedNode extends EvaluableNode {
         return lineNumber;
     }
 
+    public DataType getValueType() {
+        return valueType;
+    }
+
+    public void setValueType(DataType valueType) {
+        this.valueType = valueType;
+    }
+
     @Override
     public void evaluate(SymbolTable symbolTable) throws VariableDeclarationException, VariableInitializationException {
+        if (getValue().getValue() instanceof ExpressionNode expressionNode && expressionNode.isTyped() && isResolved()) {
+            storeTyped(expressionNode, symbolTable);
+            return;
+        }
         LiteralNode currValue = getValue();
-        for(String varName : getVariableNames()) {
+        for(VariableNode target : getVariableNames()) {
+            String varName = target.getVariableName();
             LiteralNode value = getValue();
             if(value.getValue() instanceof ExpressionNode expressionNode) {
                 value = expressionNode.evaluateExpression(symbolTable);
             } else if(value.getValue() instanceof VariableNode variableNode) {
                 String variableNodeName = variableNode.getVariableName();
-                if (!symbolTable.getInitializedVariables().containsKey(variableNodeName)) {
+                if (!symbolTable.contains(variableNode)) {
                     throw new VariableDeclarationException("ERROR: Variable '" + variableNodeName + "' not declared.", getLineNumber());
-                } else if(symbolTable.getValue(variableNodeName) != null && symbolTable.getValue(variableNodeName).getValue() != null) {
+                } else if(symbolTable.getValue(variableNode) != null && symbolTable.getValue(variableNode).getValue() != null) {
                      if(variableNode.getInitialValue() == null) {
-                        value = symbolTable.getValue(variableNodeName);
+                        value = symbolTable.getValue(variableNode);
                     } else if((int)variableNode.getInitialValue() == -1) {
-                        if(variableNode.getInitialValue() instanceof Integer) {
-                            value = new LiteralNode((int) symbolTable.getValue(variableNodeName).getValue()*-1);
-                        } else if(variableNode.getInitialValue() instanceof Double) {
-                            value = new LiteralNode((double) symbolTable.getValue(variableNodeName).getValue()*-1.0);
+                        if(symbolTable.getValue(variableNode).getValue() instanceof Float floatValue) {
+                            value = new LiteralNode(floatValue*-1.0f);
+                        } else if(variableNode.getInitialValue() instanceof Integer) {
+                            value = new LiteralNode((int) symbolTable.getValue(variableNode).getValue()*-1);
                         }
                     }
                 } else {
@@ -73,16 +89,59 @@ public class VariableReinitializedNode extends EvaluableNode {
             }
 
             setValue(value);
-            String dataType = getDeclaredVariables().getVariableDeclarations().stream()
-                    .filter(declaration -> declaration.getVariableNames().stream().anyMatch(variable -> variable.getVariableName().equals(varName)))
-                    .findFirst()
-                    .orElseThrow(() -> new NoSuchElementException("No value present"))
-                    .getDataType();
-
-            AssignmentValidator.validateAssignmentType(dataType, varName, new LiteralNode(value.getValue()), getLineNumber());
-            symbolTable.setValue(varName, value);
+            String dataType = getDeclaredVariables().getIndex().getDataType(target.getSymbolId());
+            if(dataType == null) {
+                throw new NoSuchElementException("No value present");
+            }
+
+            if(getValueType() == null) {
+                AssignmentValidator.validateAssignmentType(dataType, varName, value, getLineNumber());
+            }
+            Object stored = DataType.of(dataType).coerce(value.getValue());
+            symbolTable.setValue(target, stored == value.getValue() ? value : new LiteralNode(stored));
         }
         setValue(currValue);
     }
 
+    private boolean isResolved() {
+        for (int i = 0; i < variableNames.size(); i++) {
+            if (variableNames.get(i).getSlot() < 0 || variableNames.get(i).getType() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The value of a typed expression goes straight into the targets' slots. The TypeChecker has already checked
+    // that every target accepts it, so there is nothing to validate.
+    private void storeTyped(ExpressionNode expressionNode, SymbolTable symbolTable) {
+        switch (expressionNode.getType()) {
+            case INT -> {
+                int intValue = expressionNode.evalInt(symbolTable);
+                for (int i = 0; i < variableNames.size(); i++) {
+                    VariableNode target = variableNames.get(i);
+                    if (target.getType() == DataType.FLOAT) {
+                        symbolTable.setFloat(target.getSlot(), intValue);
+                    } else {
+                        symbolTable.setInt(target.getSlot(), intValue);
+                    }
+                }
+            }
+            case FLOAT -> {
+                float floatValue = expressionNode.evalFloat(symbolTable);
+                for (int i = 0; i < variableNames.size(); i++) {
+                    symbolTable.setFloat(variableNames.get(i).getSlot(), floatValue);
+                }
+            }
+            case BOOL -> {
+                boolean boolValue = expressionNode.evalBool(symbolTable);
+                for (int i = 0; i < variableNames.size(); i++) {
+                    symbolTable.setBool(variableNames.get(i).getSlot(), boolValue);
+                }
+            }
+            case CHAR -> {
+            }
+        }
+    }
+
 }
@@ -1,9 +1,9 @@
 package Main.Nodes.ExpressionNodes;
 
-import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.RuntimeErrorException;
 import Main.Nodes.ASTNodes.ASTNode;
 import Main.Nodes.ASTNodes.LiteralNode;
-import Main.Nodes.SymbolTable;
+import Main.Nodes.DataType;
 import Main.Token.Token;
 
 public class ArithmeticExpressionNode extends ExpressionNode {
@@ -31,27 +31,46 @@ public class ArithmeticExpressionNode extends ExpressionNode {
         return operator;
     }
 
-    public LiteralNode evaluateExpression(SymbolTable symbolTable) throws VariableDeclarationException {
-        LiteralNode leftValueNode = evaluate(getLeftOperand(), symbolTable);
-        LiteralNode rightValueNode = evaluate(getRightOperand(), symbolTable);
+    @Override
+    public ArithmeticExpressionNode withOperands(ASTNode leftOperand, ASTNode rightOperand) {
+        ArithmeticExpressionNode node = new ArithmeticExpressionNode(leftOperand, operator, rightOperand, getLineNumber());
+        node.setTypes(getType(), getOperandType());
+        return node;
+    }
 
+    @Override
+    protected LiteralNode apply(LiteralNode leftValueNode, LiteralNode rightValueNode) {
         Object leftValue = leftValueNode.getValue();
         Object rightValue = rightValueNode.getValue();
 
+        if (getOperandType() == DataType.INT) {
+            return LiteralNode.of(evaluateIntExpression((Integer) leftValue, (Integer) rightValue));
+        } else if (getOperandType() == DataType.FLOAT) {
+            return new LiteralNode(evaluateFloatExpression(((Number) leftValue).floatValue(), ((Number) rightValue).floatValue()));
+        }
+
         if (leftValue instanceof Integer && rightValue instanceof Integer) {
             int intResult = evaluateIntExpression((int) leftValue, (int) rightValue);
-            return new LiteralNode(intResult);
+            return LiteralNode.of(intResult);
         } else if (leftValue instanceof Float || rightValue instanceof Float) {
             float doubleResult = evaluateDoubleExpression(leftValue, rightValue);
             return new LiteralNode(doubleResult);
         } else {
-            String leftSimpleName = leftValue.getClass().getSimpleName().equals("String") ? "BOOL" : leftValue.getClass().getSimpleName();
-            String rightSimpleName = rightValue.getClass().getSimpleName().equals("String") ? "BOOL" : rightValue.getClass().getSimpleName();
-            throw new IllegalArgumentException("ERROR: Unsupported operand types: " + leftSimpleName + " and " + rightSimpleName + ". at line " + (getLineNumber()+1));
+            String leftSimpleName = leftValue.getClass().getSimpleName().equals("Boolean") ? "BOOL" : leftValue.getClass().getSimpleName();
+            String rightSimpleName = rightValue.getClass().getSimpleName().equals("Boolean") ? "BOOL" : rightValue.getClass().getSimpleName();
+            throw new RuntimeErrorException("ERROR: Unsupported operand types: " + leftSimpleName + " and " + rightSimpleName + ". at line " + (getLineNumber()+1), getLineNumber());
         }
 
     }
 
+    @Override
+    protected int applyBits(int left, int right) {
+        if (getOperandType() == DataType.INT) {
+            return evaluateIntExpression(left, right);
+        }
+        return Float.floatToRawIntBits(evaluateFloatExpression(Float.intBitsToFloat(left), Float.intBitsToFloat(right)));
+    }
+
     private int evaluateIntExpression(int leftValue, int rightValue) {
         switch (getOperator()) {
             case Plus -> {
@@ -65,25 +84,28 @@ public class ArithmeticExpressionNode extends ExpressionNode {
             }
             case Divide -> {
                 if (rightValue == 0) {
-                    throw new ArithmeticException("ERROR: Division by zero. at line " + (getLineNumber()+1));
+                    throw new RuntimeErrorException("ERROR: Division by zero. at line " + (getLineNumber()+1), getLineNumber());
                 }
                 return leftValue / rightValue;
             }
             case Modulo -> {
                 if (rightValue == 0) {
-                    throw new ArithmeticException("ERROR: Division by zero");
+                    throw new RuntimeErrorException("ERROR: Division by zero", getLineNumber());
                 }
                 return leftValue % rightValue;
             }
             // Handle other operators if needed
-            default -> throw new IllegalArgumentException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1));
+            default -> throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
         }
     }
 
     private float evaluateDoubleExpression(Object leftValue, Object rightValue) {
         float leftDouble = leftValue instanceof Float ? (float) leftValue : (int) leftValue;
         float rightDouble = rightValue instanceof Float ? (float) rightValue : (int) rightValue;
+        return evaluateFloatExpression(leftDouble, rightDouble);
+    }
 
+    private float evaluateFloatExpression(float leftDouble, float rightDouble) {
         switch (getOperator()) {
             case Plus -> {
                 return leftDouble + rightDouble;
@@ -96,18 +118,18 @@ public class ArithmeticExpressionNode extends ExpressionNode {
             }
             case Divide -> {
                 if (rightDouble == 0.0) {
-                    throw new ArithmeticException("ERROR: Division by zero. at line " + (getLineNumber()+1) );
+                    throw new RuntimeErrorException("ERROR: Division by zero. at line " + (getLineNumber()+1), getLineNumber());
                 }
                 return leftDouble / rightDouble;
             }
             case Modulo -> {
                 if (rightDouble == 0.0) {
-                    throw new ArithmeticException("ERROR: Division by zero. at line " + (getLineNumber()+1) );
+                    throw new RuntimeErrorException("ERROR: Division by zero. at line " + (getLineNumber()+1), getLineNumber());
                 }
                 return leftDouble % rightDouble;
             }
             // Handle other operators if needed
-            default -> throw new IllegalArgumentException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1));
+            default -> throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
         }
     }
 
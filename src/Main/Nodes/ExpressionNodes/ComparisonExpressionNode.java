@@ -1,9 +1,9 @@
 package Main.Nodes.ExpressionNodes;
 
-import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.RuntimeErrorException;
 import Main.Nodes.ASTNodes.ASTNode;
 import Main.Nodes.ASTNodes.LiteralNode;
-import Main.Nodes.SymbolTable;
+import Main.Nodes.DataType;
 import Main.Token.Token;
 
 public class ComparisonExpressionNode extends ExpressionNode {
@@ -32,56 +32,89 @@ public class ComparisonExpressionNode extends ExpressionNode {
     }
 
     @Override
-    public LiteralNode evaluateExpression(SymbolTable symbolTable) throws VariableDeclarationException {
-        LiteralNode leftValueNode = evaluate(getLeftOperand(), symbolTable);
-        LiteralNode rightValueNode = evaluate(getRightOperand(), symbolTable);
+    public ComparisonExpressionNode withOperands(ASTNode leftOperand, ASTNode rightOperand) {
+        ComparisonExpressionNode node = new ComparisonExpressionNode(leftOperand, operator, rightOperand, getLineNumber());
+        node.setTypes(getType(), getOperandType());
+        return node;
+    }
 
+    @Override
+    protected LiteralNode apply(LiteralNode leftValueNode, LiteralNode rightValueNode) {
         Object leftValue = leftValueNode.getValue();
         Object rightValue = rightValueNode.getValue();
 
+        if (getOperandType() != null) {
+            return switch (getOperandType()) {
+                case INT -> LiteralNode.of(compareInts((Integer) leftValue, (Integer) rightValue));
+                case FLOAT -> compareNumbers((Number) leftValue, (Number) rightValue);
+                case CHAR -> compareCharacters((Character) leftValue, (Character) rightValue);
+                case BOOL -> compareBooleans((Boolean) leftValue, (Boolean) rightValue);
+            };
+        }
+
         if (leftValue instanceof Number && rightValue instanceof Number) {
             return compareNumbers((Number) leftValue, (Number) rightValue);
         } else if(leftValue instanceof Character && rightValue instanceof Character) {
             return compareCharacters((Character) leftValue, (Character) rightValue);
-        } else if(isBooleanString(leftValue) && isBooleanString(rightValue)) {
-            return compareBooleans(Boolean.parseBoolean(leftValue.toString()), Boolean.parseBoolean(rightValue.toString()));
+        } else if(leftValue instanceof Boolean && rightValue instanceof Boolean) {
+            return compareBooleans((Boolean) leftValue, (Boolean) rightValue);
         } else {
-            throw new IllegalArgumentException("ERROR: Comparison operation can only be applied to same data types. at line " + (getLineNumber()+1));
+            throw new RuntimeErrorException("ERROR: Comparison operation can only be applied to same data types. at line " + (getLineNumber()+1), getLineNumber());
         }
     }
 
     private LiteralNode compareNumbers(Number leftNum, Number rightNum) {
+        return LiteralNode.of(compareNumbers(leftNum.doubleValue(), rightNum.doubleValue()));
+    }
+
+    private boolean compareNumbers(double leftNum, double rightNum) {
+        return switch (getOperator()) {
+            case Less -> leftNum < rightNum;
+            case LessEqual -> leftNum <= rightNum;
+            case Greater -> leftNum > rightNum;
+            case GreaterEqual -> leftNum >= rightNum;
+            case Equals -> leftNum == rightNum;
+            case NotEqual -> leftNum != rightNum;
+            default -> throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
+        };
+    }
+
+    @Override
+    protected int applyBits(int left, int right) {
+        boolean comparisonResult = getOperandType() == DataType.FLOAT ?
+                compareNumbers(Float.intBitsToFloat(left), Float.intBitsToFloat(right)) : compareInts(left, right);
+        return comparisonResult ? 1 : 0;
+    }
+
+    // CHAR and BOOL operands compare as ints too, the TypeChecker only lets Equals and NotEqual through for them
+    private boolean compareInts(int leftInt, int rightInt) {
         boolean comparisonResult = switch (getOperator()) {
-            case Less -> leftNum.doubleValue() < rightNum.doubleValue();
-            case LessEqual -> leftNum.doubleValue() <= rightNum.doubleValue();
-            case Greater -> leftNum.doubleValue() > rightNum.doubleValue();
-            case GreaterEqual -> leftNum.doubleValue() >= rightNum.doubleValue();
-            case Equals -> leftNum.doubleValue() == rightNum.doubleValue();
-            case NotEqual -> leftNum.doubleValue() != rightNum.doubleValue();
-            default -> throw new IllegalArgumentException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1));
+            case Less -> leftInt < rightInt;
+            case LessEqual -> leftInt <= rightInt;
+            case Greater -> leftInt > rightInt;
+            case GreaterEqual -> leftInt >= rightInt;
+            case Equals -> leftInt == rightInt;
+            case NotEqual -> leftInt != rightInt;
+            default -> throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
         };
-        return new LiteralNode(comparisonResult ? "TRUE" : "FALSE");
+        return comparisonResult;
     }
 
     private LiteralNode compareCharacters(Character leftChar, Character rightChar) {
         boolean comparisonResult = switch (getOperator()) {
             case Equals -> leftChar == rightChar;
             case NotEqual -> leftChar != rightChar;
-            default -> throw new IllegalArgumentException("ERROR: Cannot apply operation type to value of type Character. at line " + (getLineNumber()+1));
+            default -> throw new RuntimeErrorException("ERROR: Cannot apply operation type to value of type Character. at line " + (getLineNumber()+1), getLineNumber());
         };
-        return new LiteralNode(comparisonResult ? "TRUE" : "FALSE");
+        return LiteralNode.of(comparisonResult);
     }
 
     private LiteralNode compareBooleans(boolean leftBool, boolean rightBool) {
         boolean comparisonResult = switch (getOperator()) {
             case Equals -> leftBool == rightBool;
             case NotEqual -> leftBool != rightBool;
-            default -> throw new IllegalArgumentException("ERROR: Cannot apply operation type to value of type BOOL. at line " + (getLineNumber()+1));
+            default -> throw new RuntimeErrorException("ERROR: Cannot apply operation type to value of type BOOL. at line " + (getLineNumber()+1), getLineNumber());
         };
-        return new LiteralNode(comparisonResult ? "TRUE" : "FALSE");
-    }
-
-    private boolean isBooleanString(Object value) {
-        return value instanceof String && (value.equals("TRUE") || value.equals("FALSE"));
+        return LiteralNode.of(comparisonResult);
     }
 }
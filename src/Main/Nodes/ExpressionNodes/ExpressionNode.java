@@ -1,49 +1,332 @@
 package Main.Nodes.ExpressionNodes;
 
+import Main.ExceptionHandlers.RuntimeErrorException;
 import Main.ExceptionHandlers.VariableDeclarationException;
 import Main.Nodes.ASTNodes.ASTNode;
 import Main.Nodes.ASTNodes.LiteralNode;
 import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.DataType;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.SpecializedNode;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.Specializer;
 import Main.Nodes.SymbolTable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 public abstract class ExpressionNode extends ASTNode {
+    // generic evaluations before an expression is specialized, so code that runs once is not rewritten
+    private static final int SPECIALIZE_AFTER = 8;
+    private static final AtomicIntegerFieldUpdater<ExpressionNode> WALKS = AtomicIntegerFieldUpdater.newUpdater(ExpressionNode.class, "walks");
+
     private final int lineNumber;
+    // set by the TypeChecker, null when it has not run or an operand's type is unknown: the type of the result and
+    // the type the operation is carried out in
+    private DataType type;
+    private DataType operandType;
+    // set on the root of a fully typed expression: its expression nodes in post-order, evaluated unboxed
+    private ExpressionNode[] postOrder;
+    // INT operands of a FLOAT operation, converted when read
+    private boolean widenLeft;
+    private boolean widenRight;
+    // AND and OR nodes of a typed expression, their index in the post-order, and on the node their right operand
+    // starts with, the AND and OR nodes whose left operand is checked before it, outermost first
+    private boolean shortCircuit;
+    private int index;
+    private ExpressionNode[] checks;
+    // on the root of a typed expression once it has run: the expression rewritten for the operand types it saw, and
+    // the generic walks before it, counted up to SPECIALIZE_AFTER. Runs of a compiled program share the tree and may
+    // run at the same time, so the counter is atomic, only the walk that reaches SPECIALIZE_AFTER specializes, and
+    // the specialized nodes, which hold no run state, are published through a volatile field.
+    private volatile SpecializedNode specialized;
+    private volatile int walks;
 
     public ExpressionNode(int lineNumber) {
         this.lineNumber = lineNumber;
     }
-    abstract public LiteralNode evaluateExpression(SymbolTable symbolTable) throws VariableDeclarationException;
+    public abstract ASTNode getLeftOperand();
+
+    // null for unary operators
+    public abstract ASTNode getRightOperand();
+
+    // Combines the already evaluated operands; rightValueNode is null for unary operators.
+    protected abstract LiteralNode apply(LiteralNode leftValueNode, LiteralNode rightValueNode);
+
+    // A copy with other operands and the same operator, line and types, for passes that rewrite the tree.
+    public abstract ExpressionNode withOperands(ASTNode leftOperand, ASTNode rightOperand);
+
+    // apply for typed operands held as 32 bits: INT and CHAR as themselves, FLOAT as its float bits, BOOL as 0 or 1.
+    protected abstract int applyBits(int left, int right);
+
+    // Post-order walk over the expression tree with explicit stacks, so a long left-deep chain or deeply nested
+    // parentheses do not grow the Java stack. Operands are evaluated left to right, as before, except that AND and
+    // OR skip their right operand when the left one decides the result.
+    public LiteralNode evaluateExpression(SymbolTable symbolTable) throws VariableDeclarationException {
+        if (postOrder != null) {
+            int bits = evalBits(symbolTable);
+            return switch (type) {
+                case INT -> LiteralNode.of(bits);
+                case FLOAT -> new LiteralNode(Float.intBitsToFloat(bits));
+                case CHAR -> new LiteralNode((char) bits);
+                case BOOL -> LiteralNode.of(bits != 0);
+            };
+        }
+        ArrayList<ExpressionNode> nodes = new ArrayList<>();
+        ArrayList<LiteralNode> values = new ArrayList<>();
+        // per node on the stack: 0 = left operand not evaluated yet, 1 = right operand not evaluated yet, 2 = both done
+        int[] stages = new int[16];
+        nodes.add(this);
+        while (!nodes.isEmpty()) {
+            int top = nodes.size() - 1;
+            ExpressionNode node = nodes.get(top);
+            int stage = stages[top]++;
+            ASTNode operand = stage == 0 ? node.getLeftOperand() : stage == 1 ? node.getRightOperand() : null;
+            if (stage == 1 && node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit()
+                    && values.getLast().getValue() instanceof Boolean left && logicalNode.decides(left)) {
+                // the left operand is the result
+                nodes.removeLast();
+            } else if (stage == 2) {
+                LiteralNode right = values.removeLast();
+                LiteralNode left = values.removeLast();
+                nodes.removeLast();
+                values.add(node.apply(left, right));
+            } else if (operand instanceof ExpressionNode expressionNode) {
+                if (nodes.size() == stages.length) {
+                    stages = Arrays.copyOf(stages, stages.length * 2);
+                }
+                stages[nodes.size()] = 0;
+                nodes.add(expressionNode);
+            } else {
+                values.add(operand == null ? null : node.evaluate(operand, symbolTable));
+            }
+        }
+        return values.getLast();
+    }
+
+
+    // The value of an operation on literals, null when an operand is not a literal or the operation fails, as a
+    // division by zero does, so that it still fails when the program runs.
+    public LiteralNode fold() {
+        if (!(getLeftOperand() instanceof LiteralNode left)
+                || getRightOperand() != null && !(getRightOperand() instanceof LiteralNode)) {
+            return null;
+        }
+        try {
+            return apply(left, (LiteralNode) getRightOperand());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Typed evaluation without boxing, for expressions where isTyped holds. evalFloat also takes INT expressions.
+    public int evalInt(SymbolTable symbolTable) {
+        return evalBits(symbolTable);
+    }
+
+    public float evalFloat(SymbolTable symbolTable) {
+        int bits = evalBits(symbolTable);
+        return type == DataType.INT ? bits : Float.intBitsToFloat(bits);
+    }
+
+    public boolean evalBool(SymbolTable symbolTable) {
+        return evalBits(symbolTable) != 0;
+    }
+
+    // Whether an IF or loop condition holds. A typed BOOL condition is evaluated unboxed.
+    public boolean evaluateCondition(SymbolTable symbolTable) throws VariableDeclarationException {
+        if (postOrder != null && type == DataType.BOOL) {
+            return evalBits(symbolTable) != 0;
+        }
+        return Boolean.TRUE.equals(evaluateExpression(symbolTable).getValue());
+    }
+
+    // Runs the specialized nodes when the expression has them. Otherwise, or when one of their assumptions fails, runs
+    // the generic post-order walk, which reports any error. The walk that reaches SPECIALIZE_AFTER specializes for the
+    // operand types it saw; an expression that could not be specialized or has deoptimized stays generic.
+    private int evalBits(SymbolTable symbolTable) {
+        SpecializedNode node = specialized;
+        if (node != null) {
+            try {
+                return node.execute(symbolTable);
+            } catch (SpecializedNode.Deoptimize e) {
+                specialized = null;
+            }
+        }
+        int bits = walk(symbolTable);
+        if (walks < SPECIALIZE_AFTER && WALKS.incrementAndGet(this) == SPECIALIZE_AFTER) {
+            specialized = Specializer.specialize(this, symbolTable);
+        }
+        return bits;
+    }
+
+    // Runs the post-order nodes on the frame's operand stack. Allocates nothing. Where the right operand of an AND or
+    // OR starts, its left operand is checked, read first when it is a leaf, and the walk goes on past the AND or OR
+    // when it decides the result.
+    private int walk(SymbolTable symbolTable) {
+        int[] stack = symbolTable.getOperandStack(postOrder.length);
+        int top = 0;
+        nodes:
+        for (int i = 0; i < postOrder.length; i++) {
+            ExpressionNode node = postOrder[i];
+            if (node.checks != null) {
+                for (ExpressionNode check : node.checks) {
+                    if (!(check.getLeftOperand() instanceof ExpressionNode)) {
+                        stack[top++] = check.leafBits(check.getLeftOperand(), symbolTable);
+                    }
+                    if (((LogicalExpressionNode) check).decides(stack[top - 1] != 0)) {
+                        i = check.index;
+                        continue nodes;
+                    }
+                }
+            }
+            ASTNode leftOperand = node.getLeftOperand();
+            ASTNode rightOperand = node.getRightOperand();
+            if (node.shortCircuit) {
+                if (rightOperand instanceof ExpressionNode) {
+                    // the left operand did not decide, so the right one is the result
+                    top--;
+                    stack[top - 1] = stack[top];
+                } else {
+                    int left = leftOperand instanceof ExpressionNode ? stack[--top] : node.leafBits(leftOperand, symbolTable);
+                    stack[top++] = ((LogicalExpressionNode) node).decides(left != 0) ? left : node.leafBits(rightOperand, symbolTable);
+                }
+                continue;
+            }
+            int right = rightOperand instanceof ExpressionNode ? stack[--top] : node.leafBits(rightOperand, symbolTable);
+            int left = leftOperand instanceof ExpressionNode ? stack[--top] : node.leafBits(leftOperand, symbolTable);
+            if (node.widenLeft) {
+                left = Float.floatToRawIntBits(left);
+            }
+            if (node.widenRight) {
+                right = Float.floatToRawIntBits(right);
+            }
+            stack[top++] = node.applyBits(left, right);
+        }
+        return stack[0];
+    }
 
+    private int leafBits(ASTNode operand, SymbolTable symbolTable) {
+        if (operand instanceof VariableNode variableNode) {
+            int slot = variableNode.getSlot();
+            if (!symbolTable.isAssigned(slot)) {
+                throw new RuntimeErrorException("ERROR: Expression value analyzed returned null possibly because of null operands in the expression. at line " + (getLineNumber()+1), getLineNumber());
+            }
+            boolean negated = variableNode.getInitialValue() != null;
+            return switch (variableNode.getType()) {
+                case INT -> negated ? -symbolTable.getInt(slot) : symbolTable.getInt(slot);
+                case FLOAT -> Float.floatToRawIntBits(negated ? -symbolTable.getFloat(slot) : symbolTable.getFloat(slot));
+                case CHAR -> symbolTable.getChar(slot);
+                case BOOL -> symbolTable.getBool(slot) ? 1 : 0;
+            };
+        }
+        return operand instanceof LiteralNode literalNode ? bits(literalNode.getValue()) : 0;
+    }
+
+    private static int bits(Object value) {
+        return switch (value) {
+            case Integer i -> i;
+            case Float f -> Float.floatToRawIntBits(f);
+            case Character c -> c;
+            case Boolean b -> b ? 1 : 0;
+            case null, default -> 0;
+        };
+    }
+
+    private static DataType typeOf(ASTNode operand) {
+        return switch (operand) {
+            case ExpressionNode expressionNode -> expressionNode.getType();
+            case VariableNode variableNode -> variableNode.getType();
+            case LiteralNode literalNode -> DataType.ofValue(literalNode.getValue());
+            case null, default -> null;
+        };
+    }
 
     public int getLineNumber() {
         return lineNumber;
     }
 
+    public DataType getType() {
+        return type;
+    }
+
+    public DataType getOperandType() {
+        return operandType;
+    }
+
+    public void setTypes(DataType type, DataType operandType) {
+        this.type = type;
+        this.operandType = operandType;
+    }
+
+    public boolean isTyped() {
+        return postOrder != null;
+    }
+
+    public ExpressionNode[] getPostOrder() {
+        return postOrder;
+    }
+
+    // Called by the TypeChecker on the root of an expression whose nodes all have types.
+    public void setPostOrder(ExpressionNode[] postOrder) {
+        for (int i = 0; i < postOrder.length; i++) {
+            ExpressionNode node = postOrder[i];
+            node.widenLeft = node.operandType == DataType.FLOAT && typeOf(node.getLeftOperand()) == DataType.INT;
+            node.widenRight = node.operandType == DataType.FLOAT && typeOf(node.getRightOperand()) == DataType.INT;
+            node.shortCircuit = node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit();
+            node.index = i;
+            node.checks = null;
+        }
+        // an outer node comes later in the post-order, so going backwards adds it first
+        for (int i = postOrder.length - 1; i >= 0; i--) {
+            ExpressionNode node = postOrder[i];
+            if (node.shortCircuit && node.getRightOperand() instanceof ExpressionNode right) {
+                ExpressionNode first = firstInPostOrder(right);
+                ExpressionNode[] checks = first.checks == null ? new ExpressionNode[1]
+                        : Arrays.copyOf(first.checks, first.checks.length + 1);
+                checks[checks.length - 1] = node;
+                first.checks = checks;
+            }
+        }
+        this.postOrder = postOrder;
+    }
+
+    // The node of an expression the post-order starts with.
+    public static ExpressionNode firstInPostOrder(ExpressionNode node) {
+        while (true) {
+            if (node.getLeftOperand() instanceof ExpressionNode left) {
+                node = left;
+            } else if (node.getRightOperand() instanceof ExpressionNode right) {
+                node = right;
+            } else {
+                return node;
+            }
+        }
+    }
+
     protected LiteralNode evaluate(ASTNode node, SymbolTable symbolTable) throws VariableDeclarationException {
         return switch (node) {
             case LiteralNode literalNode -> literalNode;
             case VariableNode variableNode -> {
-                String variableName = variableNode.getVariableName();
-                if (!symbolTable.getInitializedVariables().containsKey(variableName)) {
-                    throw new VariableDeclarationException("ERROR: Variable '" + variableName + "' not declared.", getLineNumber());
-                } else if(symbolTable.getValue(variableName) != null && symbolTable.getValue(variableName).getValue() != null) {
+                LiteralNode value = symbolTable.getValue(variableNode);
+                if (value == null && !symbolTable.contains(variableNode)) {
+                    throw new VariableDeclarationException("ERROR: Variable '" + variableNode.getVariableName() + "' not declared.", getLineNumber());
+                } else if(value != null && value.getValue() != null) {
                      if (variableNode.getInitialValue() == null) {
-                        yield symbolTable.getValue(variableName);
+                        yield value;
                     } else if ((int) variableNode.getInitialValue() == -1) {
-                        LiteralNode value = symbolTable.getValue(variableName);
-                        if (variableNode.getInitialValue() instanceof Integer) {
+                        if (value.getValue() instanceof Float floatValue) {
+                            yield new LiteralNode(floatValue * -1.0f);
+                        } else if (variableNode.getInitialValue() instanceof Integer) {
                             yield new LiteralNode((int) value.getValue() * -1);
-                        } else if (variableNode.getInitialValue() instanceof Double) {
-                            yield new LiteralNode((double) value.getValue() * -1.0);
                         }
                     }
                 }
-                throw new ArithmeticException("ERROR: Expression value analyzed returned null possibly because of null operands in the expression. at line " + (getLineNumber()+1));
+                throw new RuntimeErrorException("ERROR: Expression value analyzed returned null possibly because of null operands in the expression. at line " + (getLineNumber()+1), getLineNumber());
             }
             case ExpressionNode expressionNode -> expressionNode.evaluateExpression(symbolTable);
             case null, default -> {
                 assert node != null;
-                throw new IllegalArgumentException("Unsupported node type: " + node.getClass().getSimpleName() + ". at line " + (getLineNumber()+1));
+                throw new RuntimeErrorException("Unsupported node type: " + node.getClass().getSimpleName() + ". at line " + (getLineNumber()+1), getLineNumber());
             }
         };
     }
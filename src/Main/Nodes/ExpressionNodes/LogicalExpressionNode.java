@@ -1,9 +1,9 @@
 package Main.Nodes.ExpressionNodes;
 
-import Main.ExceptionHandlers.VariableDeclarationException;
+import Main.ExceptionHandlers.RuntimeErrorException;
 import Main.Nodes.ASTNodes.ASTNode;
 import Main.Nodes.ASTNodes.LiteralNode;
-import Main.Nodes.SymbolTable;
+import Main.Nodes.DataType;
 import Main.Token.Token;
 
 import java.util.Objects;
@@ -33,11 +33,27 @@ public class LogicalExpressionNode extends ExpressionNode {
         return operator;
     }
 
+    @Override
+    public LogicalExpressionNode withOperands(ASTNode leftOperand, ASTNode rightOperand) {
+        LogicalExpressionNode node = new LogicalExpressionNode(leftOperand, operator, rightOperand, getLineNumber());
+        node.setTypes(getType(), getOperandType());
+        return node;
+    }
+
+    // AND and OR, whose right operand is not evaluated when the left one decides the result.
+    public boolean isShortCircuit() {
+        return rightOperand != null && (operator == Token.Type.And || operator == Token.Type.Or);
+    }
+
+    public boolean decides(boolean leftValue) {
+        return operator == Token.Type.And ? !leftValue : leftValue;
+    }
+
     private boolean evaluateBooleanExpression(boolean leftValue, boolean rightValue) {
         return switch (getOperator()) {
             case And -> leftValue && rightValue;
             case Or -> leftValue || rightValue;
-            default -> throw new IllegalArgumentException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1));
+            default -> throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
         };
     }
 
@@ -45,41 +61,45 @@ public class LogicalExpressionNode extends ExpressionNode {
         if (Objects.requireNonNull(getOperator()) == Token.Type.Not) {
             return !operand;
         }
-        throw new IllegalArgumentException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1));
+        throw new RuntimeErrorException("ERROR: Unsupported operator: " + getOperator() + ". at line " + (getLineNumber()+1), getLineNumber());
     }
 
     @Override
-    public LiteralNode evaluateExpression(SymbolTable symbolTable) throws VariableDeclarationException {
-        LiteralNode leftValueNode = evaluate(getLeftOperand(), symbolTable);
-        Object leftValue = leftValueNode.getValue();
-
-        if(leftValue instanceof String) {
-            leftValue = leftValue.equals("TRUE");
+    protected LiteralNode apply(LiteralNode leftValueNode, LiteralNode rightValueNode) {
+        if (getOperandType() == DataType.BOOL) {
+            boolean leftBool = (Boolean) leftValueNode.getValue();
+            boolean boolResult = rightValueNode == null ? evaluateBooleanExpression(leftBool)
+                    : evaluateBooleanExpression(leftBool, (Boolean) rightValueNode.getValue());
+            return LiteralNode.of(boolResult);
         }
 
-        if (getRightOperand() != null) {
-            LiteralNode rightValueNode = evaluate(getRightOperand(), symbolTable);
-            Object rightValue = rightValueNode.getValue();
+        Object leftValue = leftValueNode.getValue();
 
-            if(rightValue instanceof String) {
-                rightValue = rightValue.equals("TRUE");
-            }
+        if (rightValueNode != null) {
+            Object rightValue = rightValueNode.getValue();
 
             if (leftValue instanceof Boolean && rightValue instanceof Boolean) {
                 boolean boolResult = evaluateBooleanExpression((boolean) leftValue, (boolean) rightValue);
-                return boolResult ? new LiteralNode("TRUE") : new LiteralNode("FALSE");
+                return LiteralNode.of(boolResult);
             } else {
-                String leftSimpleName = leftValue.getClass().getSimpleName().equals("String") ? "BOOL" : leftValue.getClass().getSimpleName();
-                String rightSimpleName = rightValue.getClass().getSimpleName().equals("String") ? "BOOL" : rightValue.getClass().getSimpleName();
-                throw new IllegalArgumentException("ERROR: Unsupported operand types: " + leftSimpleName + " and " + rightSimpleName + ". at line " + (getLineNumber()+1));
+                String leftSimpleName = leftValue.getClass().getSimpleName().equals("Boolean") ? "BOOL" : leftValue.getClass().getSimpleName();
+                String rightSimpleName = rightValue.getClass().getSimpleName().equals("Boolean") ? "BOOL" : rightValue.getClass().getSimpleName();
+                throw new RuntimeErrorException("ERROR: Unsupported operand types: " + leftSimpleName + " and " + rightSimpleName + ". at line " + (getLineNumber()+1), getLineNumber());
             }
         } else {
             if (leftValue instanceof Boolean) {
                 boolean boolResult = evaluateBooleanExpression((Boolean) leftValue);
-                return boolResult ? new LiteralNode("TRUE") : new LiteralNode("FALSE");
+                return LiteralNode.of(boolResult);
             } else {
-                throw new IllegalArgumentException("ERROR: Unary operation can only be applied to boolean types. at line " + (getLineNumber()+1));
+                throw new RuntimeErrorException("ERROR: Unary operation can only be applied to boolean types. at line " + (getLineNumber()+1), getLineNumber());
             }
         }
     }
+
+    @Override
+    protected int applyBits(int left, int right) {
+        boolean boolResult = getRightOperand() == null ? evaluateBooleanExpression(left != 0)
+                : evaluateBooleanExpression(left != 0, right != 0);
+        return boolResult ? 1 : 0;
+    }
 }
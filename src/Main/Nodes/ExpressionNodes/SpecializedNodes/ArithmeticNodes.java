@@ -0,0 +1,153 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.ExceptionHandlers.RuntimeErrorException;
+import Main.Nodes.DataType;
+import Main.Nodes.SymbolTable;
+
+// ArithmeticExpressionNode specialized for INT or FLOAT operands. Division by zero fails as in the generic node.
+final class ArithmeticNodes {
+    private ArithmeticNodes() {
+    }
+
+    static final class IntAddNode extends BinaryNode {
+        IntAddNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.INT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) + right.execute(symbolTable);
+        }
+    }
+
+    static final class IntSubNode extends BinaryNode {
+        IntSubNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.INT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) - right.execute(symbolTable);
+        }
+    }
+
+    static final class IntMulNode extends BinaryNode {
+        IntMulNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.INT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) * right.execute(symbolTable);
+        }
+    }
+
+    static final class IntDivNode extends BinaryNode {
+        private final int lineNumber;
+
+        IntDivNode(SpecializedNode left, SpecializedNode right, int lineNumber) {
+            super(DataType.INT, left, right);
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            int leftValue = left.execute(symbolTable);
+            int rightValue = right.execute(symbolTable);
+            if (rightValue == 0) {
+                throw new RuntimeErrorException("ERROR: Division by zero. at line " + (lineNumber+1), lineNumber);
+            }
+            return leftValue / rightValue;
+        }
+    }
+
+    static final class IntModNode extends BinaryNode {
+        private final int lineNumber;
+
+        IntModNode(SpecializedNode left, SpecializedNode right, int lineNumber) {
+            super(DataType.INT, left, right);
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            int leftValue = left.execute(symbolTable);
+            int rightValue = right.execute(symbolTable);
+            if (rightValue == 0) {
+                throw new RuntimeErrorException("ERROR: Division by zero", lineNumber);
+            }
+            return leftValue % rightValue;
+        }
+    }
+
+    static final class FloatAddNode extends BinaryNode {
+        FloatAddNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.FLOAT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.floatToRawIntBits(Float.intBitsToFloat(left.execute(symbolTable)) + Float.intBitsToFloat(right.execute(symbolTable)));
+        }
+    }
+
+    static final class FloatSubNode extends BinaryNode {
+        FloatSubNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.FLOAT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.floatToRawIntBits(Float.intBitsToFloat(left.execute(symbolTable)) - Float.intBitsToFloat(right.execute(symbolTable)));
+        }
+    }
+
+    static final class FloatMulNode extends BinaryNode {
+        FloatMulNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.FLOAT, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.floatToRawIntBits(Float.intBitsToFloat(left.execute(symbolTable)) * Float.intBitsToFloat(right.execute(symbolTable)));
+        }
+    }
+
+    static final class FloatDivNode extends BinaryNode {
+        private final int lineNumber;
+
+        FloatDivNode(SpecializedNode left, SpecializedNode right, int lineNumber) {
+            super(DataType.FLOAT, left, right);
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            float leftValue = Float.intBitsToFloat(left.execute(symbolTable));
+            float rightValue = Float.intBitsToFloat(right.execute(symbolTable));
+            if (rightValue == 0.0f) {
+                throw new RuntimeErrorException("ERROR: Division by zero. at line " + (lineNumber+1), lineNumber);
+            }
+            return Float.floatToRawIntBits(leftValue / rightValue);
+        }
+    }
+
+    static final class FloatModNode extends BinaryNode {
+        private final int lineNumber;
+
+        FloatModNode(SpecializedNode left, SpecializedNode right, int lineNumber) {
+            super(DataType.FLOAT, left, right);
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            float leftValue = Float.intBitsToFloat(left.execute(symbolTable));
+            float rightValue = Float.intBitsToFloat(right.execute(symbolTable));
+            if (rightValue == 0.0f) {
+                throw new RuntimeErrorException("ERROR: Division by zero. at line " + (lineNumber+1), lineNumber);
+            }
+            return Float.floatToRawIntBits(leftValue % rightValue);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.DataType;
+
+abstract class BinaryNode extends SpecializedNode {
+    protected final SpecializedNode left;
+    protected final SpecializedNode right;
+
+    BinaryNode(DataType type, SpecializedNode left, SpecializedNode right) {
+        super(type);
+        this.left = left;
+        this.right = right;
+    }
+}
@@ -0,0 +1,142 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.DataType;
+import Main.Nodes.SymbolTable;
+
+// ComparisonExpressionNode specialized for INT or FLOAT operands. CHAR and BOOL operands use the INT equality nodes.
+final class ComparisonNodes {
+    private ComparisonNodes() {
+    }
+
+    static final class IntLessNode extends BinaryNode {
+        IntLessNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) < right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class IntLessEqualNode extends BinaryNode {
+        IntLessEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) <= right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class IntGreaterNode extends BinaryNode {
+        IntGreaterNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) > right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class IntGreaterEqualNode extends BinaryNode {
+        IntGreaterEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) >= right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class IntEqualNode extends BinaryNode {
+        IntEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) == right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class IntNotEqualNode extends BinaryNode {
+        IntNotEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) != right.execute(symbolTable) ? 1 : 0;
+        }
+    }
+
+    static final class FloatLessNode extends BinaryNode {
+        FloatLessNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) < Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+
+    static final class FloatLessEqualNode extends BinaryNode {
+        FloatLessEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) <= Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+
+    static final class FloatGreaterNode extends BinaryNode {
+        FloatGreaterNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) > Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+
+    static final class FloatGreaterEqualNode extends BinaryNode {
+        FloatGreaterEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) >= Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+
+    static final class FloatEqualNode extends BinaryNode {
+        FloatEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) == Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+
+    static final class FloatNotEqualNode extends BinaryNode {
+        FloatNotEqualNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.intBitsToFloat(left.execute(symbolTable)) != Float.intBitsToFloat(right.execute(symbolTable)) ? 1 : 0;
+        }
+    }
+}
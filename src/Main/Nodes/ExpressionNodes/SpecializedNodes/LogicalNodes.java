@@ -0,0 +1,47 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.DataType;
+import Main.Nodes.SymbolTable;
+
+// LogicalExpressionNode specialized for BOOL operands. AND and OR skip their right operand when the left one decides
+// the result, as in the generic node.
+final class LogicalNodes {
+    private LogicalNodes() {
+    }
+
+    static final class AndNode extends BinaryNode {
+        AndNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) == 0 ? 0 : right.execute(symbolTable);
+        }
+    }
+
+    static final class OrNode extends BinaryNode {
+        OrNode(SpecializedNode left, SpecializedNode right) {
+            super(DataType.BOOL, left, right);
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return left.execute(symbolTable) != 0 ? 1 : right.execute(symbolTable);
+        }
+    }
+
+    static final class NotNode extends SpecializedNode {
+        private final SpecializedNode operand;
+
+        NotNode(SpecializedNode operand) {
+            super(DataType.BOOL);
+            this.operand = operand;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return operand.execute(symbolTable) ^ 1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.DataType;
+import Main.Nodes.SymbolTable;
+
+// Leaves: variable reads straight from the slot arrays, constants, and the INT to FLOAT conversion. A read assumes
+// the slot holds a value, as it did when the node was built.
+final class OperandNodes {
+    private OperandNodes() {
+    }
+
+    static final class IntReadNode extends SpecializedNode {
+        private final int slot;
+
+        IntReadNode(int slot) {
+            super(DataType.INT);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return symbolTable.getInt(slot);
+        }
+    }
+
+    static final class NegatedIntReadNode extends SpecializedNode {
+        private final int slot;
+
+        NegatedIntReadNode(int slot) {
+            super(DataType.INT);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return -symbolTable.getInt(slot);
+        }
+    }
+
+    static final class FloatReadNode extends SpecializedNode {
+        private final int slot;
+
+        FloatReadNode(int slot) {
+            super(DataType.FLOAT);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return Float.floatToRawIntBits(symbolTable.getFloat(slot));
+        }
+    }
+
+    static final class NegatedFloatReadNode extends SpecializedNode {
+        private final int slot;
+
+        NegatedFloatReadNode(int slot) {
+            super(DataType.FLOAT);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return Float.floatToRawIntBits(-symbolTable.getFloat(slot));
+        }
+    }
+
+    static final class CharReadNode extends SpecializedNode {
+        private final int slot;
+
+        CharReadNode(int slot) {
+            super(DataType.CHAR);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return symbolTable.getChar(slot);
+        }
+    }
+
+    static final class BoolReadNode extends SpecializedNode {
+        private final int slot;
+
+        BoolReadNode(int slot) {
+            super(DataType.BOOL);
+            this.slot = slot;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            if (!symbolTable.isAssigned(slot)) {
+                throw DEOPTIMIZE;
+            }
+            return symbolTable.getBool(slot) ? 1 : 0;
+        }
+    }
+
+    static final class ConstantNode extends SpecializedNode {
+        private final int bits;
+
+        ConstantNode(DataType type, int bits) {
+            super(type);
+            this.bits = bits;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return bits;
+        }
+    }
+
+    static final class WidenNode extends SpecializedNode {
+        private final SpecializedNode operand;
+
+        WidenNode(SpecializedNode operand) {
+            super(DataType.FLOAT);
+            this.operand = operand;
+        }
+
+        @Override
+        public int execute(SymbolTable symbolTable) {
+            return Float.floatToRawIntBits(operand.execute(symbolTable));
+        }
+    }
+}
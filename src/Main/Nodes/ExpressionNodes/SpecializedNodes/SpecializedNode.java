@@ -0,0 +1,30 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.DataType;
+import Main.Nodes.SymbolTable;
+
+// An expression node rewritten for the operand types it has seen. It works on 32-bit values, INT and CHAR as
+// themselves, FLOAT as its float bits and BOOL as 0 or 1, and reads slots directly, without the checks and dispatch
+// of the generic node. When an assumption it was built on fails it throws DEOPTIMIZE, and the ExpressionNode goes
+// back to the generic evaluation, which reports the error.
+public abstract class SpecializedNode {
+    public static final Deoptimize DEOPTIMIZE = new Deoptimize();
+
+    private final DataType type;
+
+    protected SpecializedNode(DataType type) {
+        this.type = type;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public abstract int execute(SymbolTable symbolTable);
+
+    public static final class Deoptimize extends RuntimeException {
+        private Deoptimize() {
+            super(null, null, false, false);
+        }
+    }
+}
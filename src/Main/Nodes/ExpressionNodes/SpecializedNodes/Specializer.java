@@ -0,0 +1,152 @@
+package Main.Nodes.ExpressionNodes.SpecializedNodes;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+import Main.Nodes.SymbolTable;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.ArithmeticNodes.*;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.ComparisonNodes.*;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.LogicalNodes.*;
+import Main.Nodes.ExpressionNodes.SpecializedNodes.OperandNodes.*;
+
+// Rewrites an expression into SpecializedNodes for the operand types it was just evaluated with: the types of the
+// values in the slots it read and of its literals. Returns null when there is no specialization for what it saw,
+// when that disagrees with the TypeChecker's types, or when the expression is deeper than MAX_DEPTH: specialized
+// nodes evaluate recursively, so deep expressions keep the generic walk.
+public final class Specializer {
+    private static final int MAX_DEPTH = 64;
+
+    private Specializer() {
+    }
+
+    public static SpecializedNode specialize(ExpressionNode expressionNode, SymbolTable symbolTable) {
+        return expression(expressionNode, symbolTable, 0);
+    }
+
+    private static SpecializedNode expression(ExpressionNode node, SymbolTable symbolTable, int depth) {
+        if (depth == MAX_DEPTH) {
+            return null;
+        }
+        SpecializedNode left = operand(node.getLeftOperand(), symbolTable, depth);
+        SpecializedNode right = node.getRightOperand() == null ? null : operand(node.getRightOperand(), symbolTable, depth);
+        if (left == null || (right == null && node.getRightOperand() != null)) {
+            return null;
+        }
+        SpecializedNode specialized = switch (node) {
+            case ArithmeticExpressionNode arithmeticNode -> arithmetic(arithmeticNode, left, right);
+            case ComparisonExpressionNode comparisonNode -> comparison(comparisonNode, left, right);
+            case LogicalExpressionNode logicalNode -> logical(logicalNode, left, right);
+            default -> null;
+        };
+        return specialized != null && specialized.getType() == node.getType() ? specialized : null;
+    }
+
+    private static SpecializedNode operand(ASTNode operand, SymbolTable symbolTable, int depth) {
+        return switch (operand) {
+            case ExpressionNode expressionNode -> expression(expressionNode, symbolTable, depth + 1);
+            case VariableNode variableNode -> read(variableNode, symbolTable);
+            case LiteralNode literalNode -> switch (literalNode.getValue()) {
+                case Integer i -> new ConstantNode(DataType.INT, i);
+                case Float f -> new ConstantNode(DataType.FLOAT, Float.floatToRawIntBits(f));
+                case Character c -> new ConstantNode(DataType.CHAR, c);
+                case Boolean b -> new ConstantNode(DataType.BOOL, b ? 1 : 0);
+                case null, default -> null;
+            };
+            case null, default -> null;
+        };
+    }
+
+    private static SpecializedNode read(VariableNode variableNode, SymbolTable symbolTable) {
+        int slot = variableNode.getSlot();
+        if (slot < 0 || !symbolTable.isAssigned(slot)) {
+            return null;
+        }
+        // -x is only written for numbers; the generic node ignores it on other types
+        boolean negated = variableNode.getInitialValue() != null;
+        return switch (symbolTable.getType(slot)) {
+            case INT -> negated ? new NegatedIntReadNode(slot) : new IntReadNode(slot);
+            case FLOAT -> negated ? new NegatedFloatReadNode(slot) : new FloatReadNode(slot);
+            case CHAR -> new CharReadNode(slot);
+            case BOOL -> new BoolReadNode(slot);
+            case null -> null;
+        };
+    }
+
+    private static SpecializedNode arithmetic(ArithmeticExpressionNode node, SpecializedNode left, SpecializedNode right) {
+        if (!left.getType().isNumeric() || !right.getType().isNumeric()) {
+            return null;
+        }
+        int lineNumber = node.getLineNumber();
+        if (left.getType() == DataType.INT && right.getType() == DataType.INT) {
+            return switch (node.getOperator()) {
+                case Plus -> new IntAddNode(left, right);
+                case Minus -> new IntSubNode(left, right);
+                case Times -> new IntMulNode(left, right);
+                case Divide -> new IntDivNode(left, right, lineNumber);
+                case Modulo -> new IntModNode(left, right, lineNumber);
+                default -> null;
+            };
+        }
+        left = widen(left);
+        right = widen(right);
+        return switch (node.getOperator()) {
+            case Plus -> new FloatAddNode(left, right);
+            case Minus -> new FloatSubNode(left, right);
+            case Times -> new FloatMulNode(left, right);
+            case Divide -> new FloatDivNode(left, right, lineNumber);
+            case Modulo -> new FloatModNode(left, right, lineNumber);
+            default -> null;
+        };
+    }
+
+    private static SpecializedNode comparison(ComparisonExpressionNode node, SpecializedNode left, SpecializedNode right) {
+        DataType leftType = left.getType();
+        DataType rightType = right.getType();
+        if (leftType.isNumeric() && rightType.isNumeric() && (leftType == DataType.FLOAT || rightType == DataType.FLOAT)) {
+            left = widen(left);
+            right = widen(right);
+            return switch (node.getOperator()) {
+                case Less -> new FloatLessNode(left, right);
+                case LessEqual -> new FloatLessEqualNode(left, right);
+                case Greater -> new FloatGreaterNode(left, right);
+                case GreaterEqual -> new FloatGreaterEqualNode(left, right);
+                case Equals -> new FloatEqualNode(left, right);
+                case NotEqual -> new FloatNotEqualNode(left, right);
+                default -> null;
+            };
+        }
+        if (leftType != rightType) {
+            return null;
+        }
+        return switch (node.getOperator()) {
+            case Less -> leftType == DataType.INT ? new IntLessNode(left, right) : null;
+            case LessEqual -> leftType == DataType.INT ? new IntLessEqualNode(left, right) : null;
+            case Greater -> leftType == DataType.INT ? new IntGreaterNode(left, right) : null;
+            case GreaterEqual -> leftType == DataType.INT ? new IntGreaterEqualNode(left, right) : null;
+            case Equals -> new IntEqualNode(left, right);
+            case NotEqual -> new IntNotEqualNode(left, right);
+            default -> null;
+        };
+    }
+
+    private static SpecializedNode logical(LogicalExpressionNode node, SpecializedNode left, SpecializedNode right) {
+        if (left.getType() != DataType.BOOL || (right != null && right.getType() != DataType.BOOL)) {
+            return null;
+        }
+        return switch (node.getOperator()) {
+            case And -> right == null ? null : new AndNode(left, right);
+            case Or -> right == null ? null : new OrNode(left, right);
+            case Not -> right == null ? new NotNode(left) : null;
+            default -> null;
+        };
+    }
+
+    private static SpecializedNode widen(SpecializedNode operand) {
+        return operand.getType() == DataType.INT ? new WidenNode(operand) : operand;
+    }
+}
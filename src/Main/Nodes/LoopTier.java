@@ -0,0 +1,14 @@
+package Main.Nodes;
+
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+
+// A faster tier the tree walker hands hot loops to. BlockExecutor counts the passes of each loop through countPass
+// and, once a loop has run enough of them, the tier compiles it; loops it cannot run stay with the walker. A tier
+// belongs to one run and keeps the counts and compiled loops of that run, so runs sharing a tree do not share them.
+public interface LoopTier {
+    // Counts a finished pass of the loop's body. Returns the compiled loop once there is one.
+    CompiledLoop countPass(IterativeNode iterativeNode);
+
+    // The loop as the tier compiled it, null while it is not hot or when the tier could not compile it.
+    CompiledLoop getCompiledLoop(IterativeNode iterativeNode);
+}
@@ -1,29 +1,280 @@
 package Main.Nodes;
 
+import Main.Engine.InputSource;
+import Main.Engine.OutputSink;
+import Main.Nodes.ASTNodes.DeclarationIndex;
 import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Token.Symbols;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+// Variables of one run, in a frame of slots. Declared variables own the slots the DeclarationIndex gave them, and
+// references the TypeChecker resolved read their slot directly; symbol ids are mapped to slots only for unresolved
+// references, and names only for diagnostics. Values are kept unboxed in the array for their type. Typed stores
+// write only that array; the LiteralNode view of a slot is built when something reads it and kept until the next store.
 public class SymbolTable {
-    private final Map<String, LiteralNode> initializedVariables;
+    private final Symbols symbols;
+    // -1 for symbols that have no slot yet
+    private int[] slotBySymbol;
+    private int[] symbolBySlot;
+    private int slotCount;
+    // declared type by slot, null for slots of undeclared symbols
+    private DataType[] types;
 
-    public SymbolTable() {
-        this.initializedVariables = new HashMap<>();
+    private int[] ints;
+    private float[] floats;
+    private char[] chars;
+    private boolean[] bools;
+    private LiteralNode[] values;
+    private boolean[] declared;
+    // the slot holds a value, not just a declaration without one
+    private boolean[] assigned;
+    // scratch stack for typed expression evaluation
+    private int[] operandStack = new int[16];
+    // SCAN and DISPLAY go through these, the console unless an embedder set its own
+    private InputSource input;
+    private OutputSink output;
+    // where BlockExecutor promotes hot loops to, null to keep every loop on the tree walker
+    private LoopTier loopTier;
+
+    public SymbolTable(Symbols symbols, DeclarationIndex index) {
+        this.symbols = symbols;
+        this.slotBySymbol = new int[symbols.size()];
+        Arrays.fill(slotBySymbol, -1);
+        int capacity = Math.max(index.size(), 1);
+        this.symbolBySlot = new int[capacity];
+        this.types = new DataType[capacity];
+        this.ints = new int[capacity];
+        this.floats = new float[capacity];
+        this.chars = new char[capacity];
+        this.bools = new boolean[capacity];
+        this.values = new LiteralNode[capacity];
+        this.declared = new boolean[capacity];
+        this.assigned = new boolean[capacity];
+        for (int slot = 0; slot < index.size(); slot++) {
+            int symbolId = index.getSymbolId(slot);
+            slotBySymbol[symbolId] = slot;
+            symbolBySlot[slot] = symbolId;
+            types[slot] = DataType.of(index.getDataType(symbolId));
+        }
+        this.slotCount = index.size();
+    }
+
+    public Symbols getSymbols() {
+        return symbols;
     }
 
+    // Name based view of the variables in the table, for diagnostics.
     public Map<String, LiteralNode> getInitializedVariables() {
-        return initializedVariables;
+        Map<String, LiteralNode> variables = new LinkedHashMap<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (declared[slot]) {
+                variables.put(symbols.getName(symbolBySlot[slot]), getValueAt(slot));
+            }
+        }
+        return variables;
+    }
+
+    public int slotOf(int symbolId) {
+        return symbolId >= 0 && symbolId < slotBySymbol.length ? slotBySymbol[symbolId] : -1;
+    }
+
+    public boolean contains(int symbolId) {
+        int slot = slotOf(symbolId);
+        return slot >= 0 && declared[slot];
+    }
+
+    public boolean contains(VariableNode variable) {
+        int slot = variable.getSlot();
+        return slot >= 0 ? declared[slot] : contains(variable.getSymbolId());
+    }
+
+    public void setValue(int symbolId, LiteralNode value) {
+        int slot = slotOf(symbolId);
+        setValueAt(slot >= 0 ? slot : addSlot(symbolId), value);
+    }
+
+    public LiteralNode getValue(int symbolId) {
+        int slot = slotOf(symbolId);
+        return slot >= 0 ? getValueAt(slot) : null;
+    }
+
+    public void setValue(VariableNode variable, LiteralNode value) {
+        int slot = variable.getSlot();
+        if (slot >= 0) {
+            setValueAt(slot, value);
+        } else {
+            setValue(variable.getSymbolId(), value);
+        }
+    }
+
+    // Value last stored for the variable, null when it was never stored.
+    public LiteralNode getValue(VariableNode variable) {
+        int slot = variable.getSlot();
+        return slot >= 0 ? getValueAt(slot) : getValue(variable.getSymbolId());
     }
 
     public void setValue(String variableName, LiteralNode value) {
-        initializedVariables.put(variableName, value);
+        setValue(symbols.intern(variableName), value);
     }
 
     public LiteralNode getValue(String variableName) {
-        return initializedVariables.get(variableName);
+        return getValue(symbols.lookup(variableName));
+    }
+
+    public void setValueAt(int slot, LiteralNode value) {
+        Object stored = value == null ? null : value.getValue();
+        switch (stored) {
+            case Integer i -> {
+                ints[slot] = i;
+                floats[slot] = i;
+            }
+            case Float f -> floats[slot] = f;
+            case Character c -> chars[slot] = c;
+            case Boolean b -> bools[slot] = b;
+            case null, default -> {
+            }
+        }
+        values[slot] = value;
+        declared[slot] = true;
+        assigned[slot] = stored != null;
+    }
+
+    public LiteralNode getValueAt(int slot) {
+        LiteralNode value = values[slot];
+        if (value == null && assigned[slot]) {
+            value = switch (types[slot]) {
+                case INT -> LiteralNode.of(ints[slot]);
+                case FLOAT -> new LiteralNode(floats[slot]);
+                case CHAR -> new LiteralNode(chars[slot]);
+                case BOOL -> LiteralNode.of(bools[slot]);
+            };
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    // Declared type of the slot, null for slots of undeclared symbols.
+    public DataType getType(int slot) {
+        return types[slot];
+    }
+
+    public boolean isAssigned(int slot) {
+        return assigned[slot];
+    }
+
+    // Typed stores, for slots of declared variables of the matching type.
+    public void setInt(int slot, int value) {
+        ints[slot] = value;
+        floats[slot] = value;
+        stored(slot);
+    }
+
+    public void setFloat(int slot, float value) {
+        floats[slot] = value;
+        stored(slot);
+    }
+
+    public void setChar(int slot, char value) {
+        chars[slot] = value;
+        stored(slot);
+    }
+
+    public void setBool(int slot, boolean value) {
+        bools[slot] = value;
+        stored(slot);
+    }
+
+    private void stored(int slot) {
+        values[slot] = null;
+        declared[slot] = true;
+        assigned[slot] = true;
+    }
+
+    // Unboxed reads of a slot holding a value of the matching type.
+    public int getInt(int slot) {
+        return ints[slot];
+    }
+
+    public float getFloat(int slot) {
+        return floats[slot];
+    }
+
+    public char getChar(int slot) {
+        return chars[slot];
+    }
+
+    public boolean getBool(int slot) {
+        return bools[slot];
+    }
+
+    private int addSlot(int symbolId) {
+        if (symbolId >= slotBySymbol.length) {
+            int length = slotBySymbol.length;
+            slotBySymbol = Arrays.copyOf(slotBySymbol, Math.max(symbolId + 1, symbols.size()));
+            Arrays.fill(slotBySymbol, length, slotBySymbol.length, -1);
+        }
+        if (slotCount == values.length) {
+            int capacity = slotCount * 2;
+            symbolBySlot = Arrays.copyOf(symbolBySlot, capacity);
+            types = Arrays.copyOf(types, capacity);
+            ints = Arrays.copyOf(ints, capacity);
+            floats = Arrays.copyOf(floats, capacity);
+            chars = Arrays.copyOf(chars, capacity);
+            bools = Arrays.copyOf(bools, capacity);
+            values = Arrays.copyOf(values, capacity);
+            declared = Arrays.copyOf(declared, capacity);
+            assigned = Arrays.copyOf(assigned, capacity);
+        }
+        slotBySymbol[symbolId] = slotCount;
+        symbolBySlot[slotCount] = symbolId;
+        return slotCount++;
     }
+
+    // At least size ints, shared by every typed evaluation of this run; they do not nest.
+    public int[] getOperandStack(int size) {
+        if (operandStack.length < size) {
+            operandStack = new int[Math.max(size, operandStack.length * 2)];
+        }
+        return operandStack;
+    }
+
+    public InputSource getInput() {
+        if (input == null) {
+            input = InputSource.from(System.in);
+        }
+        return input;
+    }
+
+    public void setInput(InputSource input) {
+        this.input = input;
+    }
+
+    public OutputSink getOutput() {
+        if (output == null) {
+            output = OutputSink.of(System.out);
+        }
+        return output;
+    }
+
+    public void setOutput(OutputSink output) {
+        this.output = output;
+    }
+
+    public LoopTier getLoopTier() {
+        return loopTier;
+    }
+
+    public void setLoopTier(LoopTier loopTier) {
+        this.loopTier = loopTier;
+    }
+
     public void clear() {
-        initializedVariables.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(declared, false);
+        Arrays.fill(assigned, false);
     }
 }
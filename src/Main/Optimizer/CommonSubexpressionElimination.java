@@ -0,0 +1,317 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.ExecutableCodeNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.ASTNodes.SingleVariableDeclaration;
+import Main.Nodes.ASTNodes.VariableDeclarationsNode;
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+import Main.Token.Symbols;
+import Main.Token.Token;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Computes an operation a statement repeats once, into a compiler temporary assigned just before the statement:
+// x = (a + b) * (a + b) runs as $int0 = a + b, then x = $int0 * $int0. Covers assignments, DISPLAY statements and
+// the first condition of an IF. Only operations that cannot fail move, so no division by a value that may be 0 and no
+// operation on a variable that may not be assigned yet, and every error is still reported where it was. Loop conditions and the
+// update of a FOR loop stay as they are, since a statement before them does not run each time they do.
+class CommonSubexpressionElimination implements OptimizerPass {
+    // operations moved out of one statement, so a long statement does not grow the program without bound
+    private static final int MAX_TEMPORARIES = 16;
+
+    private record Block(List<ASTNode> statements, BitSet assigned, boolean forBody) {
+    }
+
+    private OptimizationReport report;
+    private Symbols symbols;
+    private VariableDeclarationsNode declarations;
+    // declared temporaries by type, reused from one statement to the next
+    private final Map<DataType, List<VariableNode>> temporaries = new EnumMap<>(DataType.class);
+
+    @Override
+    public String getName() {
+        return "common-subexpressions";
+    }
+
+    @Override
+    public boolean run(ProgramNode program, Symbols symbols, OptimizationReport report) {
+        this.report = report;
+        this.symbols = symbols;
+        declarations = (VariableDeclarationsNode) program.getVariableDeclarations();
+        // variables that hold a value, by symbol id: an initialized declaration either assigns or stops the program
+        BitSet assigned = new BitSet();
+        for (SingleVariableDeclaration declaration : declarations.getVariableDeclarations()) {
+            for (VariableNode variableNode : declaration.getVariableNames()) {
+                if (variableNode.getInitialValue() != null) {
+                    assigned.set(variableNode.getSymbolId());
+                }
+            }
+        }
+
+        boolean changed = false;
+        // a nested block starts from what is assigned where it is, and what it assigns is not counted after it
+        Deque<Block> blocks = new ArrayDeque<>();
+        blocks.push(new Block(((ExecutableCodeNode) program.getExecutableCode()).getStatements(), assigned, false));
+        while (!blocks.isEmpty()) {
+            Block block = blocks.pop();
+            List<ASTNode> statements = block.statements();
+            for (int i = 0; i < statements.size(); i++) {
+                ASTNode statement = statements.get(i);
+                if (!block.forBody() || i < statements.size() - 1) {
+                    int inserted = eliminate(statements, i, block.assigned());
+                    changed |= inserted > 0;
+                    i += inserted;
+                }
+                switch (statement) {
+                    case VariableReinitializedNode reinitializedNode -> assign(reinitializedNode.getVariableNames(), block.assigned());
+                    case ScannerNode scannerNode -> assign(scannerNode.getVariableNames(), block.assigned());
+                    case ConditionalNode conditionalNode -> {
+                        blocks.push(new Block(conditionalNode.getIfStatements().getStatements(), (BitSet) block.assigned().clone(), false));
+                        for (ExecutableCodeNode elseIfBlock : conditionalNode.getElseIfBlocks()) {
+                            blocks.push(new Block(elseIfBlock.getStatements(), (BitSet) block.assigned().clone(), false));
+                        }
+                        blocks.push(new Block(conditionalNode.getElseStatements().getStatements(), (BitSet) block.assigned().clone(), false));
+                    }
+                    case IterativeNode iterativeNode -> {
+                        boolean isFor = iterativeNode instanceof ForLoopNode;
+                        if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof VariableReinitializedNode initialization) {
+                            assign(initialization.getVariableNames(), block.assigned());
+                        }
+                        blocks.push(new Block(iterativeNode.getIterativeStatements(), (BitSet) block.assigned().clone(), isFor));
+                    }
+                    case null, default -> {
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static void assign(List<VariableNode> variableNames, BitSet assigned) {
+        for (VariableNode variableNode : variableNames) {
+            assigned.set(variableNode.getSymbolId());
+        }
+    }
+
+    // Moves the repeated operations of statements[index] into temporaries, the largest first. Returns how many
+    // assignments it put before the statement.
+    private int eliminate(List<ASTNode> statements, int index, BitSet assigned) {
+        ASTNode statement = statements.get(index);
+        List<ASTNode> roots = roots(statement);
+        if (roots.isEmpty()) {
+            return 0;
+        }
+        BitSet available = (BitSet) assigned.clone();
+        Map<DataType, Integer> used = new EnumMap<>(DataType.class);
+        int inserted = 0;
+        while (inserted < MAX_TEMPORARIES) {
+            // operations get the same id when they apply the same operator to the same operands
+            Map<String, Integer> ids = new HashMap<>();
+            Map<ExpressionNode, Integer> idOf = new IdentityHashMap<>();
+            Map<ExpressionNode, Integer> sizes = new IdentityHashMap<>();
+            List<Integer> counts = new ArrayList<>();
+            List<ExpressionNode> nodes = new ArrayList<>();
+            for (ASTNode root : roots) {
+                if (!(root instanceof ExpressionNode expressionNode)) {
+                    continue;
+                }
+                for (ExpressionNode node : postOrder(expressionNode)) {
+                    nodes.add(node);
+                    int id = ids.computeIfAbsent(key(node, idOf), newKey -> ids.size());
+                    idOf.put(node, id);
+                    if (id == counts.size()) {
+                        counts.add(0);
+                    }
+                    counts.set(id, counts.get(id) + 1);
+                    // -1 for an operation that may fail
+                    int size = isSafe(node, available) ? 1 + size(node.getLeftOperand(), sizes) + size(node.getRightOperand(), sizes) : -1;
+                    sizes.put(node, size);
+                }
+            }
+            ExpressionNode repeated = null;
+            for (ExpressionNode node : nodes) {
+                if (sizes.get(node) > 0 && counts.get(idOf.get(node)) > 1 && (repeated == null || sizes.get(node) > sizes.get(repeated))) {
+                    repeated = node;
+                }
+            }
+            if (repeated == null) {
+                break;
+            }
+            int lineNumber = lineNumber(statement);
+            int number = used.merge(repeated.getType(), 1, Integer::sum) - 1;
+            VariableNode temporary = temporary(repeated.getType(), number, lineNumber);
+            available.set(temporary.getSymbolId());
+            int id = idOf.get(repeated);
+            for (int i = 0; i < roots.size(); i++) {
+                if (roots.get(i) instanceof ExpressionNode root) {
+                    roots.set(i, replace(root, id, idOf, temporary));
+                }
+            }
+            List<VariableNode> target = new ArrayList<>();
+            target.add(new VariableNode(temporary.getVariableName(), temporary.getSymbolId(), null));
+            statements.add(index + inserted, new VariableReinitializedNode(target, new LiteralNode(repeated), declarations, lineNumber));
+            inserted++;
+            report.add(getName(), lineNumber, repeated.getType() + " operation used " + counts.get(id)
+                    + " times computed once, into " + temporary.getVariableName());
+        }
+        if (inserted > 0) {
+            setRoots(statement, roots);
+        }
+        return inserted;
+    }
+
+    // The typed expressions of a statement the pass covers.
+    private static List<ASTNode> roots(ASTNode statement) {
+        List<ASTNode> roots = new ArrayList<>();
+        switch (statement) {
+            case VariableReinitializedNode reinitializedNode -> roots.add(reinitializedNode.getValue().getValue() instanceof ASTNode value ? value : null);
+            case DisplayNode displayNode -> roots.addAll(displayNode.getExpressions());
+            case ConditionalNode conditionalNode -> roots.add(conditionalNode.getConditions().getFirst());
+            case null, default -> {
+            }
+        }
+        roots.replaceAll(root -> root instanceof ExpressionNode expressionNode && expressionNode.isTyped() ? root : null);
+        return roots.stream().allMatch(root -> root == null) ? List.of() : roots;
+    }
+
+    private static void setRoots(ASTNode statement, List<ASTNode> roots) {
+        switch (statement) {
+            case VariableReinitializedNode reinitializedNode -> reinitializedNode.setValue(new LiteralNode(roots.getFirst()));
+            case DisplayNode displayNode -> {
+                for (int i = 0; i < roots.size(); i++) {
+                    if (roots.get(i) != null) {
+                        displayNode.getExpressions().set(i, roots.get(i));
+                    }
+                }
+            }
+            case ConditionalNode conditionalNode -> conditionalNode.getConditions().set(0, roots.getFirst());
+            default -> {
+            }
+        }
+    }
+
+    private static int lineNumber(ASTNode statement) {
+        return switch (statement) {
+            case VariableReinitializedNode reinitializedNode -> reinitializedNode.getLineNumber();
+            case DisplayNode displayNode -> displayNode.getLineNumber();
+            case ConditionalNode conditionalNode -> conditionalNode.getLineNumber();
+            default -> 0;
+        };
+    }
+
+    // An operation that cannot fail: division and modulo only by a literal other than 0, and only variables that
+    // hold a value. Its operand operations are checked on their own.
+    private static boolean isSafe(ExpressionNode node, BitSet available) {
+        if (node.getType() == null || node instanceof ArithmeticExpressionNode arithmeticNode
+                && (arithmeticNode.getOperator() == Token.Type.Divide || arithmeticNode.getOperator() == Token.Type.Modulo)
+                && !(node.getRightOperand() instanceof LiteralNode literalNode && literalNode.getValue() instanceof Number divisor
+                && divisor.doubleValue() != 0)) {
+            return false;
+        }
+        return isSafe(node.getLeftOperand(), available) && isSafe(node.getRightOperand(), available);
+    }
+
+    private static boolean isSafe(ASTNode operand, BitSet available) {
+        return !(operand instanceof VariableNode variableNode) || available.get(variableNode.getSymbolId());
+    }
+
+    // Number of operations, -1 when one of them may fail.
+    private static int size(ASTNode operand, Map<ExpressionNode, Integer> sizes) {
+        if (!(operand instanceof ExpressionNode expressionNode)) {
+            return 0;
+        }
+        int size = sizes.get(expressionNode);
+        return size < 0 ? Integer.MIN_VALUE / 2 : size;
+    }
+
+    private static String key(ExpressionNode node, Map<ExpressionNode, Integer> idOf) {
+        Token.Type operator = switch (node) {
+            case ArithmeticExpressionNode arithmeticNode -> arithmeticNode.getOperator();
+            case ComparisonExpressionNode comparisonNode -> comparisonNode.getOperator();
+            case LogicalExpressionNode logicalNode -> logicalNode.getOperator();
+            default -> null;
+        };
+        return operator + "(" + operandKey(node.getLeftOperand(), idOf) + "," + operandKey(node.getRightOperand(), idOf) + ")";
+    }
+
+    private static String operandKey(ASTNode operand, Map<ExpressionNode, Integer> idOf) {
+        return switch (operand) {
+            case ExpressionNode expressionNode -> "#" + idOf.get(expressionNode);
+            // a negated variable is another value
+            case VariableNode variableNode -> "v" + variableNode.getSymbolId() + (variableNode.getInitialValue() != null ? "-" : "");
+            case LiteralNode literalNode -> DataType.ofValue(literalNode.getValue()) + ":" + literalNode.getValue();
+            case null, default -> "";
+        };
+    }
+
+    private static List<ExpressionNode> postOrder(ExpressionNode root) {
+        Deque<ExpressionNode> pending = new ArrayDeque<>();
+        // root first, right operands before left ones: the post-order reversed
+        List<ExpressionNode> reversed = new ArrayList<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            ExpressionNode current = pending.pop();
+            reversed.add(current);
+            if (current.getLeftOperand() instanceof ExpressionNode left) {
+                pending.push(left);
+            }
+            if (current.getRightOperand() instanceof ExpressionNode right) {
+                pending.push(right);
+            }
+        }
+        return reversed.reversed();
+    }
+
+    // The expression with every operation of the given id read from the temporary instead.
+    private static ASTNode replace(ExpressionNode root, int id, Map<ExpressionNode, Integer> idOf, VariableNode temporary) {
+        Map<ExpressionNode, ASTNode> rewritten = new IdentityHashMap<>();
+        for (ExpressionNode node : postOrder(root)) {
+            if (idOf.get(node) == id) {
+                rewritten.put(node, new VariableNode(temporary.getVariableName(), temporary.getSymbolId(), null));
+                continue;
+            }
+            ASTNode left = node.getLeftOperand() instanceof ExpressionNode operand ? rewritten.getOrDefault(operand, operand) : node.getLeftOperand();
+            ASTNode right = node.getRightOperand() instanceof ExpressionNode operand ? rewritten.getOrDefault(operand, operand) : node.getRightOperand();
+            if (left != node.getLeftOperand() || right != node.getRightOperand()) {
+                rewritten.put(node, node.withOperands(left, right));
+            }
+        }
+        return rewritten.getOrDefault(root, root);
+    }
+
+    // The number-th temporary of a type, declared without a value the first time it is used.
+    private VariableNode temporary(DataType type, int number, int lineNumber) {
+        List<VariableNode> declared = temporaries.computeIfAbsent(type, t -> new ArrayList<>());
+        if (number == declared.size()) {
+            String name = "$" + type.name().toLowerCase() + number;
+            VariableNode variableNode = new VariableNode(name, symbols.intern(name), null);
+            declarations.getIndex().declare(variableNode, type.name(), lineNumber);
+            List<VariableNode> variableNames = new ArrayList<>();
+            variableNames.add(variableNode);
+            declarations.getVariableDeclarations().add(new SingleVariableDeclaration(type.name(), variableNames, lineNumber));
+            declared.add(variableNode);
+        }
+        return declared.get(number);
+    }
+}
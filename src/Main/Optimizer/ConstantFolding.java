@@ -0,0 +1,56 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.DataType;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+
+// Computes operations on literals before the program runs: 60 * 60 * 24 becomes 86400 and 1 > 2 becomes FALSE. An AND
+// or OR with a literal operand becomes that literal or its other operand where that evaluates the same operations.
+// An operation that fails, like a division by zero, is left to fail at run time.
+class ConstantFolding extends ExpressionRewriter {
+    // folded operations of the current expression
+    private int folded;
+
+    @Override
+    public String getName() {
+        return "constant-folding";
+    }
+
+    @Override
+    protected ASTNode rewrite(ExpressionNode node) {
+        LiteralNode value = node.fold();
+        if (value != null && DataType.ofValue(value.getValue()) == node.getType()) {
+            folded++;
+            return value;
+        }
+        if (node instanceof LogicalExpressionNode logicalNode && logicalNode.isShortCircuit()) {
+            if (node.getLeftOperand() instanceof LiteralNode left && left.getValue() instanceof Boolean leftValue) {
+                // FALSE AND e never evaluates e, TRUE AND e is e
+                if (logicalNode.decides(leftValue)) {
+                    folded++;
+                    return left;
+                } else if (node.getRightOperand() instanceof ExpressionNode right) {
+                    folded++;
+                    return right;
+                }
+            } else if (node.getRightOperand() instanceof LiteralNode right && right.getValue() instanceof Boolean rightValue
+                    && !logicalNode.decides(rightValue) && node.getLeftOperand() instanceof ExpressionNode left) {
+                // e AND TRUE and e OR FALSE are e
+                folded++;
+                return left;
+            }
+        }
+        return node;
+    }
+
+    @Override
+    protected void finish(ASTNode result, int lineNumber) {
+        if (folded > 0) {
+            report(lineNumber, "folded " + folded + (folded == 1 ? " operation" : " operations")
+                    + (result instanceof LiteralNode literalNode ? " to " + OptimizationReport.printable(literalNode.getValue()) : ""));
+            folded = 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.ExecutableCodeNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Token.Symbols;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Removes what a literal condition decides, mostly left by ConstantFolding. An IF branch whose condition is FALSE is
+// dropped, one whose condition is TRUE becomes the ELSE in place of the branches after it, and an IF without
+// conditions left is replaced by its ELSE statements. A WHILE loop whose condition is FALSE is removed, a FOR loop
+// leaves its initialization.
+class DeadBranchElimination implements OptimizerPass {
+    @Override
+    public String getName() {
+        return "dead-branch-elimination";
+    }
+
+    @Override
+    public boolean run(ProgramNode program, Symbols symbols, OptimizationReport report) {
+        boolean changed = false;
+        Deque<List<ASTNode>> blocks = new ArrayDeque<>();
+        blocks.push(((ExecutableCodeNode) program.getExecutableCode()).getStatements());
+        while (!blocks.isEmpty()) {
+            List<ASTNode> statements = blocks.pop();
+            // a statement put in place of another is looked at in turn
+            for (int i = 0; i < statements.size(); ) {
+                switch (statements.get(i)) {
+                    case ConditionalNode conditionalNode -> {
+                        List<ASTNode> conditions = new ArrayList<>();
+                        List<ExecutableCodeNode> branches = new ArrayList<>();
+                        ExecutableCodeNode elseBranch = conditionalNode.getElseStatements();
+                        int removed = 0;
+                        for (int branch = 0; branch < conditionalNode.getConditions().size(); branch++) {
+                            ASTNode condition = conditionalNode.getConditions().get(branch);
+                            ExecutableCodeNode statementsNode = branch == 0 ? conditionalNode.getIfStatements()
+                                    : conditionalNode.getElseIfBlocks().get(branch - 1);
+                            if (!(condition instanceof LiteralNode literalNode)) {
+                                conditions.add(condition);
+                                branches.add(statementsNode);
+                            } else if (Boolean.TRUE.equals(literalNode.getValue())) {
+                                removed += conditionalNode.getConditions().size() - branch;
+                                elseBranch = statementsNode;
+                                break;
+                            } else {
+                                removed++;
+                            }
+                        }
+                        if (removed > 0 && conditions.isEmpty()) {
+                            changed = true;
+                            report.add(getName(), conditionalNode.getLineNumber(), elseBranch.getStatements().isEmpty()
+                                    ? "removed an IF whose conditions are all FALSE" : "IF replaced by the statements of the branch that always runs");
+                            statements.remove(i);
+                            statements.addAll(i, elseBranch.getStatements());
+                            continue;
+                        } else if (removed > 0) {
+                            changed = true;
+                            report.add(getName(), conditionalNode.getLineNumber(), "removed " + removed + (removed == 1 ? " branch" : " branches") + " of an IF");
+                            statements.set(i, new ConditionalNode(conditions, branches.getFirst(), new ArrayList<>(branches.subList(1, branches.size())),
+                                    elseBranch, conditionalNode.getLineNumber()));
+                        }
+                    }
+                    case IterativeNode iterativeNode when iterativeNode.getCondition() instanceof LiteralNode literalNode
+                            && !Boolean.TRUE.equals(literalNode.getValue()) -> {
+                        changed = true;
+                        statements.remove(i);
+                        if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() != null) {
+                            report.add(getName(), iterativeNode.getLineNumber(), "FOR loop that never runs replaced by its initialization");
+                            statements.add(i++, forLoopNode.getInitialization());
+                        } else {
+                            report.add(getName(), iterativeNode.getLineNumber(), "removed a WHILE loop that never runs");
+                        }
+                        continue;
+                    }
+                    default -> {
+                    }
+                }
+                switch (statements.get(i)) {
+                    case ConditionalNode conditionalNode -> {
+                        blocks.push(conditionalNode.getIfStatements().getStatements());
+                        for (ExecutableCodeNode elseIfBlock : conditionalNode.getElseIfBlocks()) {
+                            blocks.push(elseIfBlock.getStatements());
+                        }
+                        blocks.push(conditionalNode.getElseStatements().getStatements());
+                    }
+                    case IterativeNode iterativeNode -> blocks.push(iterativeNode.getIterativeStatements());
+                    default -> {
+                    }
+                }
+                i++;
+            }
+        }
+        return changed;
+    }
+}
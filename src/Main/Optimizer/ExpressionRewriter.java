@@ -0,0 +1,145 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.ExecutableCodeNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.ASTNodes.SingleVariableDeclaration;
+import Main.Nodes.ASTNodes.VariableDeclarationsNode;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Token.Symbols;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Base of the passes that rewrite typed expressions one operation at a time: in declarations, assignments, DISPLAY
+// statements and IF and loop conditions. An expression is rebuilt along its post-order, each node with its operands
+// already rewritten, so deep expressions do not grow the Java stack.
+abstract class ExpressionRewriter implements OptimizerPass {
+    private OptimizationReport report;
+    private boolean changed;
+
+    // The node, or what replaces it: another expression of the same type or a literal. Never a variable, which the
+    // evaluators read at another point than an operation and with other errors.
+    protected abstract ASTNode rewrite(ExpressionNode node);
+
+    // Called when the expression of a statement is done, with what it became.
+    protected void finish(ASTNode result, int lineNumber) {
+    }
+
+    protected void report(int lineNumber, String change) {
+        report.add(getName(), lineNumber, change);
+    }
+
+    @Override
+    public boolean run(ProgramNode program, Symbols symbols, OptimizationReport report) {
+        this.report = report;
+        changed = false;
+        VariableDeclarationsNode declarations = (VariableDeclarationsNode) program.getVariableDeclarations();
+        for (SingleVariableDeclaration declaration : declarations.getVariableDeclarations()) {
+            List<VariableNode> variableNames = declaration.getVariableNames();
+            for (int i = 0; i < variableNames.size(); i++) {
+                VariableNode variableNode = variableNames.get(i);
+                if (variableNode.getInitialValue() instanceof ExpressionNode expressionNode) {
+                    ASTNode value = expression(expressionNode, declaration.getLineNumber());
+                    if (value != expressionNode) {
+                        // a literal initializer is the value itself
+                        variableNames.set(i, new VariableNode(variableNode.getVariableName(), variableNode.getSymbolId(),
+                                value instanceof LiteralNode literalNode ? literalNode.getValue() : value));
+                    }
+                }
+            }
+        }
+
+        Deque<List<ASTNode>> blocks = new ArrayDeque<>();
+        blocks.push(((ExecutableCodeNode) program.getExecutableCode()).getStatements());
+        while (!blocks.isEmpty()) {
+            for (ASTNode statement : blocks.pop()) {
+                switch (statement) {
+                    case VariableReinitializedNode reinitializedNode -> assignment(reinitializedNode);
+                    case DisplayNode displayNode -> {
+                        List<ASTNode> expressions = displayNode.getExpressions();
+                        for (int i = 0; i < expressions.size(); i++) {
+                            if (expressions.get(i) instanceof ExpressionNode expressionNode) {
+                                ASTNode value = expression(expressionNode, displayNode.getLineNumber());
+                                // DISPLAY prints literal parts as they are
+                                expressions.set(i, value instanceof LiteralNode literalNode
+                                        ? new LiteralNode(OptimizationReport.printable(literalNode.getValue())) : value);
+                            }
+                        }
+                    }
+                    case ConditionalNode conditionalNode -> {
+                        List<ASTNode> conditions = conditionalNode.getConditions();
+                        for (int i = 0; i < conditions.size(); i++) {
+                            if (conditions.get(i) instanceof ExpressionNode expressionNode) {
+                                conditions.set(i, expression(expressionNode, conditionalNode.getLineNumber()));
+                            }
+                        }
+                        blocks.push(conditionalNode.getIfStatements().getStatements());
+                        for (ExecutableCodeNode elseIfBlock : conditionalNode.getElseIfBlocks()) {
+                            blocks.push(elseIfBlock.getStatements());
+                        }
+                        blocks.push(conditionalNode.getElseStatements().getStatements());
+                    }
+                    case IterativeNode iterativeNode -> {
+                        if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof VariableReinitializedNode initialization) {
+                            assignment(initialization);
+                        }
+                        if (iterativeNode.getCondition() instanceof ExpressionNode expressionNode) {
+                            iterativeNode.setCondition(expression(expressionNode, iterativeNode.getLineNumber()));
+                        }
+                        blocks.push(iterativeNode.getIterativeStatements());
+                    }
+                    case null, default -> {
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private void assignment(VariableReinitializedNode reinitializedNode) {
+        if (reinitializedNode.getValue().getValue() instanceof ExpressionNode expressionNode) {
+            ASTNode value = expression(expressionNode, reinitializedNode.getLineNumber());
+            if (value != expressionNode) {
+                // an assigned literal is held as its value
+                reinitializedNode.setValue(new LiteralNode(value instanceof LiteralNode literalNode ? literalNode.getValue() : value));
+            }
+        }
+    }
+
+    // Expressions that are not fully typed are left as they are.
+    private ASTNode expression(ExpressionNode root, int lineNumber) {
+        if (!root.isTyped()) {
+            return root;
+        }
+        // only the nodes that changed
+        Map<ExpressionNode, ASTNode> rewritten = new IdentityHashMap<>();
+        for (ExpressionNode node : root.getPostOrder()) {
+            ASTNode left = operand(node.getLeftOperand(), rewritten);
+            ASTNode right = operand(node.getRightOperand(), rewritten);
+            ExpressionNode current = left == node.getLeftOperand() && right == node.getRightOperand() ? node : node.withOperands(left, right);
+            ASTNode result = rewrite(current);
+            if (result != node) {
+                rewritten.put(node, result);
+            }
+        }
+        ASTNode result = rewritten.getOrDefault(root, root);
+        finish(result, lineNumber);
+        changed |= result != root;
+        return result;
+    }
+
+    private static ASTNode operand(ASTNode operand, Map<ExpressionNode, ASTNode> rewritten) {
+        return operand instanceof ExpressionNode expressionNode ? rewritten.getOrDefault(expressionNode, expressionNode) : operand;
+    }
+}
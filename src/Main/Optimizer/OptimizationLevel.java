@@ -0,0 +1,40 @@
+package Main.Optimizer;
+
+import java.util.List;
+
+// How much CodeEngine rewrites a program between the TypeChecker and the engines. O0 runs it as written, O1 folds
+// constants and drops branches and loops whose condition is a constant, O2 also reduces operations in strength and
+// computes an operation a statement repeats once.
+public enum OptimizationLevel {
+    O0("0"), O1("1"), O2("2");
+
+    private final String name;
+
+    OptimizationLevel(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Level named by the digit of a -O flag, null for anything else.
+    public static OptimizationLevel of(String name) {
+        for (OptimizationLevel level : values()) {
+            if (level.name.equals(name)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    // The passes in the order they run; folding goes first, so the others see the literals it leaves.
+    List<OptimizerPass> getPasses() {
+        return switch (this) {
+            case O0 -> List.of();
+            case O1 -> List.of(new ConstantFolding(), new DeadBranchElimination());
+            case O2 -> List.of(new ConstantFolding(), new DeadBranchElimination(), new StrengthReduction(),
+                    new CommonSubexpressionElimination());
+        };
+    }
+}
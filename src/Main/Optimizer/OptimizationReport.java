@@ -0,0 +1,67 @@
+package Main.Optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// What the passes of one Optimizer run changed: a line per change, in the order they were made, and a count per pass.
+public class OptimizationReport {
+    private final OptimizationLevel level;
+    // by pass, in the order the passes ran
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private final List<String> changes = new ArrayList<>();
+
+    OptimizationReport(OptimizationLevel level) {
+        this.level = level;
+    }
+
+    // Lists the pass even when it changes nothing.
+    void ran(String pass) {
+        counts.putIfAbsent(pass, 0);
+    }
+
+    // lineNumber is zero-based, like the nodes'
+    void add(String pass, int lineNumber, String change) {
+        counts.merge(pass, 1, Integer::sum);
+        changes.add(pass + ", line " + (lineNumber + 1) + ": " + change);
+    }
+
+    public OptimizationLevel getLevel() {
+        return level;
+    }
+
+    public List<String> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    public int getChangeCount(String pass) {
+        return counts.getOrDefault(pass, 0);
+    }
+
+    // A value as the program would print it.
+    static String printable(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool ? "TRUE" : "FALSE";
+        }
+        return String.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Optimization -O").append(level.getName()).append(":");
+        if (counts.isEmpty()) {
+            text.append(" no passes");
+        }
+        String separator = " ";
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            text.append(separator).append(count.getKey()).append(' ').append(count.getValue());
+            separator = ", ";
+        }
+        for (String change : changes) {
+            text.append(System.lineSeparator()).append("  ").append(change);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package Main.Optimizer;
+
+import Main.ExceptionHandlers.TypeMismatchException;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Token.Lexer.Parser.TypeChecker;
+import Main.Token.Symbols;
+
+// Runs the passes of an OptimizationLevel over a program the TypeChecker has checked. A pass keeps what the program
+// prints and the errors it reports and where; only fewer operations run. After a pass that changed the tree the
+// program is checked again, so every expression is typed for the next pass and the engines.
+public class Optimizer {
+    public static OptimizationReport optimize(ProgramNode program, Symbols symbols, OptimizationLevel level) throws TypeMismatchException {
+        OptimizationReport report = new OptimizationReport(level);
+        for (OptimizerPass pass : level.getPasses()) {
+            report.ran(pass.getName());
+            if (pass.run(program, symbols, report)) {
+                new TypeChecker().check(program);
+            }
+        }
+        return report;
+    }
+}
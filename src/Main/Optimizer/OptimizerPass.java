@@ -0,0 +1,13 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Token.Symbols;
+
+// One rewrite of a type checked program. Returns whether it changed the tree; the Optimizer then runs the TypeChecker
+// again, so the nodes a pass created are typed for the next pass and the engines.
+interface OptimizerPass {
+    // the name the report lists the pass's changes under
+    String getName();
+
+    boolean run(ProgramNode program, Symbols symbols, OptimizationReport report);
+}
@@ -0,0 +1,75 @@
+package Main.Optimizer;
+
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.DataType;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Token.Token;
+
+// Replaces operations with cheaper ones of the same result. A FLOAT division by a power of two becomes a
+// multiplication by its reciprocal, which is exact, and adding 0 to or multiplying by 1 an operation's result drops the
+// operation. FLOAT e + 0 stays, since it turns -0.0 into 0.0.
+class StrengthReduction extends ExpressionRewriter {
+    @Override
+    public String getName() {
+        return "strength-reduction";
+    }
+
+    @Override
+    protected ASTNode rewrite(ExpressionNode node) {
+        if (!(node instanceof ArithmeticExpressionNode arithmeticNode)) {
+            return node;
+        }
+        Token.Type operator = arithmeticNode.getOperator();
+        boolean isFloat = node.getOperandType() == DataType.FLOAT;
+        Object left = node.getLeftOperand() instanceof LiteralNode literalNode ? literalNode.getValue() : null;
+        Object right = node.getRightOperand() instanceof LiteralNode literalNode ? literalNode.getValue() : null;
+        if (isFloat && operator == Token.Type.Divide && right instanceof Number number && isPowerOfTwo(number.floatValue())) {
+            float reciprocal = 1 / number.floatValue();
+            if (Math.abs(reciprocal) >= Float.MIN_NORMAL && !Float.isInfinite(reciprocal)) {
+                ArithmeticExpressionNode multiplication = new ArithmeticExpressionNode(node.getLeftOperand(), Token.Type.Times,
+                        new LiteralNode(reciprocal), node.getLineNumber());
+                multiplication.setTypes(node.getType(), node.getOperandType());
+                report(node.getLineNumber(), "FLOAT division by " + number + " became a multiplication by " + reciprocal);
+                return multiplication;
+            }
+        }
+        // the operand that is left when the other one is the identity
+        ASTNode kept = switch (operator) {
+            case Plus -> !isFloat && isZero(right) ? node.getLeftOperand() : !isFloat && isZero(left) ? node.getRightOperand() : null;
+            case Minus -> isZero(right) ? node.getLeftOperand() : null;
+            case Times -> isOne(right) ? node.getLeftOperand() : isOne(left) ? node.getRightOperand() : null;
+            case Divide -> isOne(right) ? node.getLeftOperand() : null;
+            default -> null;
+        };
+        if (kept instanceof ExpressionNode expressionNode && expressionNode.getType() == node.getType()) {
+            report(node.getLineNumber(), "dropped " + operatorText(operator) + " " + (kept == node.getLeftOperand() ? right : left));
+            return expressionNode;
+        }
+        return node;
+    }
+
+    private static boolean isPowerOfTwo(float value) {
+        float magnitude = Math.abs(value);
+        return magnitude > 0 && !Float.isInfinite(magnitude) && magnitude == Math.scalb(1.0f, Math.getExponent(magnitude));
+    }
+
+    // -0.0 is not an identity: e - -0.0 turns -0.0 into 0.0
+    private static boolean isZero(Object value) {
+        return value instanceof Integer i && i == 0 || value instanceof Float f && Float.floatToRawIntBits(f) == 0;
+    }
+
+    private static boolean isOne(Object value) {
+        return value instanceof Integer i && i == 1 || value instanceof Float f && f == 1.0f;
+    }
+
+    private static String operatorText(Token.Type operator) {
+        return switch (operator) {
+            case Plus -> "+";
+            case Minus -> "-";
+            case Times -> "*";
+            default -> "/";
+        };
+    }
+}
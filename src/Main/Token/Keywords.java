@@ -0,0 +1,124 @@
+package Main.Token;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// Keyword table shared by the Lexer and the Parser. Words are found with a perfect hash over
+// (first char, last char, length), so a keyword is recognized straight from the source without
+// building the identifier string first.
+public final class Keywords {
+    public static final int NONE = -1;
+
+    private static final String[] WORDS = {
+            "AND", "OR", "NOT", "DISPLAY", "SCAN", "INT", "CHAR", "BOOL", "FLOAT", "BREAK", "CONTINUE",
+            "IF", "ELSE", "WHILE", "FOR", "BEGIN", "END", "CODE", "THEN", "TRUE", "FALSE"
+    };
+    // token type of each word, null for words that only take part in two-word forms or are just reserved
+    private static final Token.Type[] TYPES = {
+            Token.Type.And, Token.Type.Or, Token.Type.Not, Token.Type.Print, Token.Type.Scan, Token.Type.Int,
+            Token.Type.Char, Token.Type.Bool, Token.Type.Float, Token.Type.Break, Token.Type.Continue,
+            Token.Type.If, Token.Type.Else, Token.Type.While, Token.Type.For, null, null, null, null,
+            Token.Type.BooleanLiteral, Token.Type.BooleanLiteral
+    };
+    // words that cannot be used as variable names
+    private static final boolean[] RESERVED = {
+            true, true, true, true, true, true, true, true, true, true, false,
+            true, true, true, false, true, true, true, true, false, false
+    };
+
+    public static final int IF = indexOf("IF");
+    public static final int ELSE = indexOf("ELSE");
+    public static final int WHILE = indexOf("WHILE");
+    public static final int FOR = indexOf("FOR");
+    public static final int BEGIN = indexOf("BEGIN");
+    public static final int END = indexOf("END");
+    public static final int CODE = indexOf("CODE");
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 8;
+    private static final int[] TABLE = new int[64];
+
+    static {
+        Arrays.fill(TABLE, NONE);
+        for (int i = 0; i < WORDS.length; i++) {
+            String word = WORDS[i];
+            int slot = hash(word.charAt(0), word.charAt(word.length() - 1), word.length());
+            if (TABLE[slot] != NONE) {
+                throw new IllegalStateException("Keyword hash collision between " + WORDS[TABLE[slot]] + " and " + word);
+            }
+            TABLE[slot] = i;
+        }
+    }
+
+    private Keywords() {
+    }
+
+    private static int hash(char first, char last, int length) {
+        return (first * 5 + last * 25 + length) & 63;
+    }
+
+    private static int indexOf(String word) {
+        return Arrays.asList(WORDS).indexOf(word);
+    }
+
+    // Index of the keyword spelled by input[start, start+length), or NONE.
+    public static int lookup(CharSequence input, int start, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return NONE;
+        }
+        int keyword = TABLE[hash(input.charAt(start), input.charAt(start + length - 1), length)];
+        if (keyword == NONE) {
+            return NONE;
+        }
+        String word = WORDS[keyword];
+        if (word.length() != length) {
+            return NONE;
+        }
+        // the hash does not pin down the first and last characters, different ones can land on the same slot
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(start + i) != word.charAt(i)) {
+                return NONE;
+            }
+        }
+        return keyword;
+    }
+
+    public static Token.Type getType(int keyword) {
+        return TYPES[keyword];
+    }
+
+    // Token type of the two-word forms BEGIN x, END x and ELSE IF, or null.
+    public static Token.Type getCompoundType(int first, int second) {
+        if (first == BEGIN) {
+            if (second == CODE) return Token.Type.BeginContainer;
+            if (second == IF) return Token.Type.BeginIf;
+            if (second == WHILE) return Token.Type.BeginWhile;
+            if (second == FOR) return Token.Type.BeginFor;
+        } else if (first == END) {
+            if (second == CODE) return Token.Type.EndContainer;
+            if (second == IF) return Token.Type.EndIf;
+            if (second == WHILE) return Token.Type.EndWhile;
+            if (second == FOR) return Token.Type.EndFor;
+        } else if (first == ELSE && second == IF) {
+            return Token.Type.IfElse;
+        }
+        return null;
+    }
+
+    public static boolean isReserved(CharSequence word) {
+        int keyword = lookup(word, 0, word.length());
+        return keyword != NONE && RESERVED[keyword];
+    }
+
+    public static Set<String> reservedWords() {
+        Set<String> reserved = new HashSet<>();
+        for (int i = 0; i < WORDS.length; i++) {
+            if (RESERVED[i]) {
+                reserved.add(WORDS[i]);
+            }
+        }
+        return Collections.unmodifiableSet(reserved);
+    }
+}
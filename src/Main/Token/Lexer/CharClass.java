@@ -0,0 +1,42 @@
+package Main.Token.Lexer;
+
+// Precomputed ASCII character classes for the Lexer. Characters outside ASCII, which only reach the
+// lexer through decoded (non-mapped) sources, fall back to the java.lang.Character predicates.
+public final class CharClass {
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte UNDERSCORE = 4;
+    private static final byte WHITESPACE = 8;
+
+    private static final byte[] TABLE = new byte[128];
+
+    static {
+        for (char c = 0; c < TABLE.length; c++) {
+            byte flags = 0;
+            if (Character.isLetter(c)) flags |= LETTER;
+            if (Character.isDigit(c)) flags |= DIGIT;
+            if (c == '_') flags |= UNDERSCORE;
+            if (Character.isWhitespace(c)) flags |= WHITESPACE;
+            TABLE[c] = flags;
+        }
+    }
+
+    private CharClass() {
+    }
+
+    public static boolean isDigit(char c) {
+        return c < 128 ? (TABLE[c] & DIGIT) != 0 : Character.isDigit(c);
+    }
+
+    public static boolean isWhitespace(char c) {
+        return c < 128 ? (TABLE[c] & WHITESPACE) != 0 : Character.isWhitespace(c);
+    }
+
+    public static boolean isIdentifierStart(char c) {
+        return c < 128 ? (TABLE[c] & (LETTER | UNDERSCORE)) != 0 : Character.isLetter(c);
+    }
+
+    public static boolean isIdentifierPart(char c) {
+        return c < 128 ? (TABLE[c] & (LETTER | DIGIT | UNDERSCORE)) != 0 : Character.isLetterOrDigit(c);
+    }
+}
@@ -1,43 +1,242 @@
 package Main.Token.Lexer;
 
+import Main.ExceptionHandlers.LexicalErrorException;
 import Main.Token.Lexer.Parser.Parser;
+import Main.Token.Keywords;
 import Main.Token.Token;
+import Main.Token.TokenBuffer;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Lexer {
-    private final String input;
+    // below this size splitting the input costs more than it saves
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private final CharSequence input;
     private int currentPos = 0;
     private int lineCount;
+    // offsets at which each line starts, filled while scanning. lineStarts[0] is always 0
+    private int[] lineStarts = new int[64];
+    private int lineStartCount = 1;
+
+    // state of a lexer working on one chunk of a parallel lex
+    private TokenBuffer chunkTokens;
+    private int chunkEnd;
+    private boolean leadingSign;
+    private RuntimeException chunkError;
 
-    public Lexer(String input) {
+    // result of relex: previous tokens [damageStart, damageEnd) were replaced, later ones moved by tokenShift
+    private int damageStart;
+    private int damageEnd;
+    private int tokenShift;
+
+    public Lexer(CharSequence input) {
         this.input = input;
         lineCount = 0;
     }
 
-    public List<Token> lex() {
-        List<Token> tokens = new ArrayList<>();
-        lineCount = input.split("\n").length;
-        while (currentPos < input.length()) {
+    // Lexer for the chunk starting at a line start. The line start itself is recorded by the previous chunk.
+    private Lexer(CharSequence input, int start, int end) {
+        this(input);
+        currentPos = start;
+        chunkEnd = end;
+        lineStartCount = start == 0 ? 1 : 0;
+    }
+
+    public TokenBuffer lex() {
+        TokenBuffer tokens = new TokenBuffer(input);
+        scan(tokens, input.length());
+        lineCount = countLines();
+        tokens.setLineStarts(lineStarts, lineStartCount);
+        return tokens;
+    }
+
+    // Lexes the input in newline-aligned chunks on the common fork-join pool. CODE is line oriented, so every
+    // chunk can be lexed on its own; the chunk results are then stitched together in order.
+    public TokenBuffer lexParallel() {
+        return lexParallel(ForkJoinPool.commonPool());
+    }
+
+    // Lexes on the given pool, whose parallelism sets how many chunks the input is split into.
+    TokenBuffer lexParallel(ForkJoinPool pool) {
+        int parallelism = pool.getParallelism();
+        if (parallelism < 2 || input.length() < 2 * MIN_CHUNK_SIZE) {
+            return lex();
+        }
+        Lexer[] chunks = split(Math.max(MIN_CHUNK_SIZE, input.length() / (parallelism * 4)));
+        pool.invoke(new ChunkTask(chunks, 0, chunks.length));
+
+        TokenBuffer tokens = new TokenBuffer(input);
+        lineStartCount = 0;
+        for (Lexer chunk : chunks) {
+            if (chunk.chunkError != null) {
+                throw chunk.chunkError;
+            }
+            int first = tokens.size();
+            tokens.append(chunk.chunkTokens);
+            if (chunk.leadingSign && first > 0) {
+                tokens.setType(first, isOperandEnd(tokens, first) ? Token.Type.Minus : Token.Type.Negation);
+            }
+            for (int i = 0; i < chunk.lineStartCount; i++) {
+                addLineStart(chunk.lineStarts[i]);
+            }
+            if (chunk.currentPos > chunk.chunkEnd) {
+                // a string or char literal ran past the chunk, the chunks after it started mid-literal
+                currentPos = chunk.currentPos;
+                scan(tokens, input.length());
+                break;
+            }
+        }
+        lineCount = countLines();
+        tokens.setLineStarts(lineStarts, lineStartCount);
+        return tokens;
+    }
+
+    // Lexes the input, which is the previous lexer's input with edit applied, by re-scanning only the lines the
+    // edit touched. Tokens before those lines are copied, tokens after them are copied with their offsets moved.
+    // When a token crosses the edited lines (a literal spanning lines) the whole input is lexed again.
+    public TokenBuffer relex(Lexer previous, TokenBuffer previousTokens, TextEdit edit) {
+        CharSequence old = previous.input;
+        int firstLine = previous.getLineNumber(edit.getOffset());
+        int start = previous.getLineStart(firstLine);
+        int removedEnd = edit.getOffset() + edit.getRemovedLength();
+        int oldEnd = Math.min(old.length(), ScanKernel.indexOf(old, removedEnd, old.length(), '\n') + 1);
+        int newEnd = oldEnd + edit.getDelta();
+        int from = previousTokens.indexAt(start);
+        int to = previousTokens.indexAt(oldEnd);
+        if ((from > 0 && previousTokens.getEndPos(from - 1) > start) ||
+                (to > from && previousTokens.getEndPos(to - 1) > oldEnd)) {
+            return relexAll(previousTokens);
+        }
+
+        TokenBuffer tokens = new TokenBuffer(input, input.length(), previousTokens.getSymbols());
+        tokens.append(previousTokens, 0, from, 0);
+        lineStarts = Arrays.copyOf(previous.lineStarts, Math.max(64, previous.lineStartCount + 16));
+        lineStartCount = firstLine + 1;
+        currentPos = start;
+        scan(tokens, newEnd);
+        if (currentPos > newEnd && newEnd < input.length()) {
+            // a literal now runs past the edited lines
+            return relexAll(previousTokens);
+        }
+
+        int first = tokens.size();
+        tokens.append(previousTokens, to, previousTokens.size(), edit.getDelta());
+        if (first > 0 && first < tokens.size() &&
+                (tokens.getType(first) == Token.Type.Minus || tokens.getType(first) == Token.Type.Negation)) {
+            tokens.setType(first, isOperandEnd(tokens, first) ? Token.Type.Minus : Token.Type.Negation);
+        }
+        for (int line = previous.getLineNumber(oldEnd) + 1; line < previous.lineStartCount; line++) {
+            addLineStart(previous.lineStarts[line] + edit.getDelta());
+        }
+        lineCount = countLines();
+        tokens.setLineStarts(lineStarts, lineStartCount);
+
+        damageStart = from;
+        damageEnd = to;
+        tokenShift = tokens.size() - previousTokens.size();
+        return tokens;
+    }
+
+    private TokenBuffer relexAll(TokenBuffer previousTokens) {
+        TokenBuffer tokens = new TokenBuffer(input, input.length(), previousTokens.getSymbols());
+        currentPos = 0;
+        lineStartCount = 1;
+        scan(tokens, input.length());
+        lineCount = countLines();
+        tokens.setLineStarts(lineStarts, lineStartCount);
+
+        damageStart = 0;
+        damageEnd = previousTokens.size();
+        tokenShift = tokens.size() - previousTokens.size();
+        return tokens;
+    }
+
+    public int getDamageStart() {
+        return damageStart;
+    }
+
+    public int getDamageEnd() {
+        return damageEnd;
+    }
+
+    public int getTokenShift() {
+        return tokenShift;
+    }
+
+    private Lexer[] split(int chunkSize) {
+        int count = 0;
+        Lexer[] chunks = new Lexer[input.length() / chunkSize + 1];
+        int start = 0;
+        while (start < input.length()) {
+            int end = Math.min(input.length(), start + chunkSize);
+            while (end < input.length() && input.charAt(end - 1) != '\n') {
+                end++;
+            }
+            chunks[count++] = new Lexer(input, start, end);
+            start = end;
+        }
+        return Arrays.copyOf(chunks, count);
+    }
+
+    private static class ChunkTask extends RecursiveAction {
+        private final Lexer[] chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Lexer[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(chunks, from, middle), new ChunkTask(chunks, middle, to));
+                return;
+            }
+            Lexer chunk = chunks[from];
+            chunk.chunkTokens = new TokenBuffer(chunk.input, chunk.chunkEnd - chunk.currentPos);
+            try {
+                chunk.scan(chunk.chunkTokens, chunk.chunkEnd);
+            } catch (RuntimeException e) {
+                chunk.chunkError = e;
+            }
+        }
+    }
+
+    private void scan(TokenBuffer tokens, int end) {
+        while (currentPos < end) {
             int tokenStartPos = currentPos;
             char lookahead = input.charAt(currentPos);
-            StringBuilder lineText = new StringBuilder();
-            int tempPos = currentPos;
-            while(tempPos < input.length() && input.charAt(tempPos) != '\n') {
-                lineText.append(input.charAt(tempPos));
-                tempPos++;
+            if (lookahead == '\n') {
+                // a newline directly after another newline is an empty line, also for CRLF sources
+                if(currentPos > 0 && (input.charAt(currentPos-1) == '\n' ||
+                        (currentPos > 1 && input.charAt(currentPos-1) == '\r' && input.charAt(currentPos-2) == '\n'))) {
+                    tokens.add(Token.Type.BlankLine, currentPos, 1);
+                }
+                addLineStart(currentPos + 1);
+                currentPos++;
+                continue;
             }
-            if(currentPos > 0 && lineText.toString().trim().isEmpty() && lookahead == '\n' && input.charAt(currentPos-1) == '\n') {
-                tokens.add(new Token(Token.Type.BlankLine, "\n", currentPos));
+            if (lookahead == ' ') {
+                currentPos = ScanKernel.skipSpaces(input, currentPos + 1, end);
+                continue;
             }
-            if (Character.isWhitespace(lookahead)) {
+            if (CharClass.isWhitespace(lookahead)) {
                 currentPos++;
                 continue;
             }
             switch (lookahead) {
                 case '#':
                     skipComment(tokens, tokenStartPos);
+                    if (currentPos < input.length()) {
+                        addLineStart(currentPos + 1);
+                    }
                     currentPos++;
                     break;
                 case ':':
@@ -63,112 +262,133 @@ public class Lexer {
                     handleLessToken(tokens, tokenStartPos);
                     break;
                 case '/':
-                    tokens.add(new Token(Token.Type.Divide, Character.toString(lookahead), tokenStartPos));
+                    tokens.add(Token.Type.Divide, tokenStartPos, 1);
                     currentPos++;
                     break;
                 case '$':
-                    tokens.add(new Token(Token.Type.NewLine, Character.toString(lookahead), tokenStartPos));
+                    tokens.add(Token.Type.NewLine, tokenStartPos, 1);
                     currentPos++;
                     break;
                 case '=':
                     handleEqualsToken(tokens, tokenStartPos);
                     break;
                 default:
-                    if (Character.isDigit(lookahead)) {
+                    if (CharClass.isDigit(lookahead)) {
                         handleNumberToken(tokens, tokenStartPos);
-                    } else if (Character.isLetter(lookahead) || lookahead == '_') {
+                    } else if (CharClass.isIdentifierStart(lookahead)) {
                         handleIdentifierOrKeyword(tokens, tokenStartPos);
                     } else {
-                        throw new RuntimeException("ERROR: Unknown character '" + lookahead + "' at position " + currentPos);
+                        throw error("ERROR: Unknown character '" + lookahead + "' at position " + currentPos, currentPos);
                     }
             }
         }
 //            printTokens(tokens);
-        return tokens;
+    }
+
+    // An error at a position of the input, with the zero-based line of the position. Only failing lexes count the
+    // lines up to it, and a chunk of a parallel lex has not seen the lines before it.
+    private LexicalErrorException error(String message, int position) {
+        int line = 0;
+        for (int i = 0; i < position; i++) {
+            if (input.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return new LexicalErrorException(message, line);
     }
 
     public int getLineCount() {
         return lineCount;
     }
 
-    private void skipComment(List<Token> tokens, int tokenStartPos) {
-        StringBuilder stringBuilder = new StringBuilder();
-        while (currentPos < input.length() && input.charAt(currentPos) != '\n') {
-            stringBuilder.append(input.charAt(currentPos));
-            currentPos++;
+    // Returns the zero-based line number of a position in the input.
+    public int getLineNumber(int position) {
+        int index = Arrays.binarySearch(lineStarts, 0, lineStartCount, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public int getLineStart(int lineNumber) {
+        return lineStarts[lineNumber];
+    }
+
+    private void addLineStart(int position) {
+        if (lineStartCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineStartCount * 2);
+        }
+        lineStarts[lineStartCount++] = position;
+    }
+
+    // Same count as input.split("\n").length: trailing empty lines are not counted.
+    private int countLines() {
+        int last = input.length() - 1;
+        while (last >= 0 && input.charAt(last) == '\n') {
+            last--;
         }
-        tokens.add(new Token(Token.Type.Comment, stringBuilder.toString(), tokenStartPos));
+        if (last < 0) {
+            return input.length() == 0 ? 1 : 0;
+        }
+        return getLineNumber(last) + 1;
+    }
+
+    private void skipComment(TokenBuffer tokens, int tokenStartPos) {
+        currentPos = ScanKernel.indexOf(input, currentPos, input.length(), '\n');
+        tokens.add(Token.Type.Comment, tokenStartPos, currentPos - tokenStartPos);
     }
 
     private boolean isValidEscapeChar(char c) {
         return c == '$' || c == '&' || c == '[' || c == ']' || c == '\'' || c == '"' || c == '#';
     }
 
-    private void addSingleCharacterToken(List<Token> tokens, char character, int startPos) {
+    private void addSingleCharacterToken(TokenBuffer tokens, char character, int startPos) {
         Token.Type type;
 
         if(character == '_') handleIdentifierOrKeyword(tokens, startPos);
 
         if (character == '[') {
-            StringBuilder charLiteralBuilder = new StringBuilder();
             char nextChar = input.charAt(currentPos + 1);
 
             if (currentPos + 1 < input.length() && isValidEscapeChar(nextChar)) {
-                charLiteralBuilder.append(nextChar);
                 currentPos++;
 
                 if (currentPos + 1 < input.length() && input.charAt(currentPos + 1) == ']') {
-                    String charLiteral = charLiteralBuilder.toString();
-                    tokens.add(new Token(Token.Type.Escape, charLiteral, startPos));
-                    currentPos += 2;
+                    tokens.add(Token.Type.Escape, startPos, 3);
+                    // leave currentPos on ']', the caller steps over it
+                    currentPos += 1;
                     return;
                 } else {
-                    throw new RuntimeException("ERROR: Unclosed or invalid character literal starting at position " + startPos);
+                    throw error("ERROR: Unclosed or invalid character literal starting at position " + startPos, startPos);
                 }
             } else {
-                throw new RuntimeException("ERROR: Invalid character following '[' at position " + (startPos + 1));
+                throw error("ERROR: Invalid character following '[' at position " + (startPos + 1), startPos + 1);
             }
         }
 
         if(character == '\'') {
-            StringBuilder charLiteralBuilder = new StringBuilder();
-
-            while (currentPos + 1 < input.length() && input.charAt(currentPos + 1) != '\'') {
-                char nextChar = input.charAt(currentPos + 1);
-                charLiteralBuilder.append(nextChar);
-                currentPos++;
-            }
+            skipLiteral('\'');
 
             if (currentPos + 1 < input.length() && input.charAt(currentPos + 1) == '\'') {
-                String charLiteral = charLiteralBuilder.toString();
-                tokens.add(new Token(Token.Type.CharLiteral, charLiteral, startPos));
+                tokens.add(Token.Type.CharLiteral, startPos, currentPos + 2 - startPos);
                 currentPos += 1;
                 return;
             } else {
-                throw new RuntimeException("ERROR: Unclosed character literal starting at position " + startPos);
+                throw error("ERROR: Unclosed character literal starting at position " + startPos, startPos);
             }
         }
 
         if(character == '\"') {
-            StringBuilder charLiteralBuilder = new StringBuilder();
-
-            while (currentPos + 1 < input.length() && input.charAt(currentPos + 1) != '\"') {
-                char nextChar = input.charAt(currentPos + 1);
-                charLiteralBuilder.append(nextChar);
-                currentPos++;
-            }
+            skipLiteral('\"');
 
             if (currentPos + 1 < input.length() && input.charAt(currentPos + 1) == '\"') {
-                String charLiteral = charLiteralBuilder.toString();
-                if(charLiteral.equals("TRUE") || charLiteral.equals("FALSE")) {
-                    tokens.add(new Token(Token.Type.BooleanLiteral, charLiteral, startPos));
+                int length = currentPos + 2 - startPos;
+                if(isBooleanLiteral(startPos + 1, length - 2)) {
+                    tokens.add(Token.Type.BooleanLiteral, startPos, length);
                 } else {
-                    tokens.add(new Token(Token.Type.StringLiteral, charLiteral, startPos));
+                    tokens.add(Token.Type.StringLiteral, startPos, length);
                 }
                 currentPos += 1;
                 return;
             } else {
-                throw new RuntimeException("ERROR: Unclosed character literal starting at position " + startPos);
+                throw error("ERROR: Unclosed character literal starting at position " + startPos, startPos);
             }
         }
 
@@ -180,10 +400,11 @@ public class Lexer {
                 type = Token.Type.Plus;
                 break;
             case '-':
-                if(currentPos < input.length() && (tokens.getLast().getType() == Token.Type.Num ||
-                        tokens.getLast().getType() == Token.Type.NumFloat ||
-                        tokens.getLast().getType() == Token.Type.Identifier) ||
-                        (tokens.getLast().getType() == Token.Type.Parentheses && tokens.getLast().getText().equals(")")) ) {
+                if(tokens.isEmpty() && startPos > 0) {
+                    // first token of a parallel chunk, decided when the chunks are stitched together
+                    leadingSign = true;
+                    type = Token.Type.Negation;
+                } else if(isOperandEnd(tokens, tokens.size())) {
                     type = Token.Type.Minus;
                 }
                 else {
@@ -207,183 +428,154 @@ public class Lexer {
                 type = Token.Type.Times;
                 break;
             default:
-                throw new RuntimeException("ERROR: Unknown character '" + character + "' at position " + currentPos);
+                throw error("ERROR: Unknown character '" + character + "' at position " + currentPos, currentPos);
+        }
+        tokens.add(type, startPos, 1);
+    }
+
+    // A '-' is a binary minus when the token before it ends an operand.
+    private static boolean isOperandEnd(TokenBuffer tokens, int next) {
+        Token.Type previous = tokens.getType(next - 1);
+        return previous == Token.Type.Num || previous == Token.Type.NumFloat || previous == Token.Type.Identifier ||
+                (previous == Token.Type.Parentheses && tokens.textEquals(next - 1, ")"));
+    }
+
+    // Advances currentPos to the character before the closing delimiter. Literals are not
+    // line bounded, so newlines inside them still have to be recorded.
+    private void skipLiteral(char delimiter) {
+        int next = ScanKernel.indexOfEither(input, currentPos + 1, input.length(), delimiter, '\n');
+        while (next < input.length() && input.charAt(next) == '\n') {
+            addLineStart(next + 1);
+            next = ScanKernel.indexOfEither(input, next + 1, input.length(), delimiter, '\n');
+        }
+        currentPos = next - 1;
+    }
+
+    private boolean isBooleanLiteral(int start, int length) {
+        return (length == 4 && startsWith("TRUE", start)) || (length == 5 && startsWith("FALSE", start));
+    }
+
+    private boolean startsWith(String prefix, int offset) {
+        if (offset < 0 || offset + prefix.length() > input.length()) {
+            return false;
         }
-        tokens.add(new Token(type, Character.toString(character), startPos));
+        for (int i = 0; i < prefix.length(); i++) {
+            if (input.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void handleGreaterToken(List<Token> tokens, int tokenStartPos) {
+    private void handleGreaterToken(TokenBuffer tokens, int tokenStartPos) {
         if (currentPos + 1 < input.length()) {
             int temp = currentPos;
             if (input.charAt(++temp) == '=') {
-                tokens.add(new Token(Token.Type.GreaterEqual, ">=", tokenStartPos));
+                tokens.add(Token.Type.GreaterEqual, tokenStartPos, 2);
                 currentPos++;
             } else {
-                tokens.add(new Token(Token.Type.Greater, ">", tokenStartPos));
+                tokens.add(Token.Type.Greater, tokenStartPos, 1);
             }
         } else {
-            tokens.add(new Token(Token.Type.Greater, ">", tokenStartPos));
+            tokens.add(Token.Type.Greater, tokenStartPos, 1);
         }
         currentPos++;
     }
 
-    private void handleLessToken(List<Token> tokens, int tokenStartPos) {
+    private void handleLessToken(TokenBuffer tokens, int tokenStartPos) {
         if (currentPos + 1 < input.length()) {
             int temp = currentPos;
             if (input.charAt(++temp) == '=') {
-                tokens.add(new Token(Token.Type.LessEqual, "<=", tokenStartPos));
+                tokens.add(Token.Type.LessEqual, tokenStartPos, 2);
                 currentPos++;
             } else if (input.charAt(temp) == '>') {
-                tokens.add(new Token(Token.Type.NotEqual, "<>", tokenStartPos));
+                tokens.add(Token.Type.NotEqual, tokenStartPos, 2);
                 currentPos++;
             } else {
-                tokens.add(new Token(Token.Type.Less, "<", tokenStartPos));
+                tokens.add(Token.Type.Less, tokenStartPos, 1);
             }
         } else {
-            tokens.add(new Token(Token.Type.Less, "<", tokenStartPos));
+            tokens.add(Token.Type.Less, tokenStartPos, 1);
         }
         currentPos++;
     }
 
-    private void handleEqualsToken(List<Token> tokens, int tokenStartPos) {
+    private void handleEqualsToken(TokenBuffer tokens, int tokenStartPos) {
         if (currentPos + 1 < input.length()) {
             int temp = currentPos;
             if (input.charAt(++temp) == '=') {
-                tokens.add(new Token(Token.Type.Equals, "==", tokenStartPos));
+                tokens.add(Token.Type.Equals, tokenStartPos, 2);
                 currentPos++;
             } else {
-                tokens.add(new Token(Token.Type.Assign, "=", tokenStartPos));
+                tokens.add(Token.Type.Assign, tokenStartPos, 1);
             }
         } else {
-            tokens.add(new Token(Token.Type.Assign, "=", tokenStartPos));
+            tokens.add(Token.Type.Assign, tokenStartPos, 1);
         }
         currentPos++;
     }
 
-    private void handleNumberToken(List<Token> tokens, int tokenStartPos) {
-        StringBuilder text = new StringBuilder();
+    private void handleNumberToken(TokenBuffer tokens, int tokenStartPos) {
         boolean hasDecimal = false;
 
-        while (currentPos < input.length() && (Character.isDigit(input.charAt(currentPos)) || input.charAt(currentPos) == '.')) {
+        while (currentPos < input.length() && (CharClass.isDigit(input.charAt(currentPos)) || input.charAt(currentPos) == '.')) {
             char currentChar = input.charAt(currentPos);
             if (currentChar == '.') {
                 if (hasDecimal) {
-                    throw new RuntimeException("ERROR: Invalid floating-point number format at position " + currentPos);
+                    throw error("ERROR: Invalid floating-point number format at position " + currentPos, currentPos);
                 }
                 hasDecimal = true;
             }
-            text.append(currentChar);
             currentPos++;
         }
 
-        tokens.add(new Token(hasDecimal ? Token.Type.NumFloat : Token.Type.Num, text.toString(), tokenStartPos));
+        tokens.add(hasDecimal ? Token.Type.NumFloat : Token.Type.Num, tokenStartPos, currentPos - tokenStartPos);
     }
 
-    private void handleIdentifierOrKeyword(List<Token> tokens, int tokenStartPos) {
-        StringBuilder text = new StringBuilder();
-        while (currentPos < input.length() && (Character.isLetterOrDigit(input.charAt(currentPos)) || input.charAt(currentPos) == '_')) {
-            text.append(input.charAt(currentPos));
-            currentPos++;
+    private void handleIdentifierOrKeyword(TokenBuffer tokens, int tokenStartPos) {
+        currentPos = scanWord(tokenStartPos);
+        int keyword = Keywords.lookup(input, tokenStartPos, currentPos - tokenStartPos);
+        if (keyword == Keywords.NONE) {
+            tokens.addIdentifier(tokenStartPos, currentPos - tokenStartPos);
+            return;
         }
-        String identifier = text.toString();
-        Token.Type type;
-
-        switch (identifier) {
-            case "TRUE":
-            case "FALSE":
-                throw new RuntimeException("ERROR: Invalid boolean literal value '" + identifier
-                        + "' at position " + tokenStartPos);
-            case "AND":
-                type = Token.Type.And;
-                break;
-            case "DISPLAY":
-                type = Token.Type.Print;
-                break;
-            case "SCAN":
-                type = Token.Type.Scan;
-                break;
-            case "OR":
-                type = Token.Type.Or;
-                break;
-            case "NOT":
-                type = Token.Type.Not;
-                break;
-            case "INT":
-                type = Token.Type.Int;
-                break;
-            case "CHAR":
-                type = Token.Type.Char;
-                break;
-            case "BOOL":
-                type = Token.Type.Bool;
-                break;
-            case "FLOAT":
-                type = Token.Type.Float;
-                break;
-            case "BREAK":
-                type = Token.Type.Break;
-                break;
-            case "CONTINUE":
-                type = Token.Type.Continue;
-                break;
-            case "BEGIN":
-                if (currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 4 < input.length() && input.startsWith("CODE", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.BeginContainer, "BEGIN CODE", tokenStartPos));
-                    currentPos += 5;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 2 < input.length() && input.startsWith("IF", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.BeginIf, "BEGIN IF", tokenStartPos));
-                    currentPos += 3;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 5 < input.length() && input.startsWith("WHILE", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.BeginWhile, "BEGIN WHILE", tokenStartPos));
-                    currentPos+=6;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 3 < input.length() && input.startsWith("FOR", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.BeginFor, "BEGIN FOR", tokenStartPos));
-                    currentPos+=4;
-                }
-                return;
-            case "END":
-                if (currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 2 < input.length() && input.startsWith("CODE", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.EndContainer, "END CODE", tokenStartPos));
-                    currentPos += 5;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 2 < input.length() && input.startsWith("IF", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.EndIf, "END IF", tokenStartPos));
-                    currentPos += 3;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 5 < input.length() && input.startsWith("WHILE", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.EndWhile, "END WHILE", tokenStartPos));
-                    currentPos+=6;
-                } else if(currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 3 < input.length() && input.startsWith("FOR", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.EndFor, "END FOR", tokenStartPos));
-                    currentPos+=4;
-                }
-                return;
-            case "IF":
-                type = Token.Type.If;
-                break;
-            case "ELSE":
-                if (currentPos < input.length() && input.charAt(currentPos) == ' ' && currentPos + 2 < input.length() && input.startsWith("IF", currentPos + 1)) {
-                    tokens.add(new Token(Token.Type.IfElse, "ELSE IF", tokenStartPos));
-                    currentPos += 3;
+        Token.Type type = Keywords.getType(keyword);
+        if (type == Token.Type.BooleanLiteral) {
+            throw error("ERROR: Invalid boolean literal value '" + input.subSequence(tokenStartPos, currentPos)
+                    + "' at position " + tokenStartPos, tokenStartPos);
+        }
+        if (keyword == Keywords.BEGIN || keyword == Keywords.END || keyword == Keywords.ELSE) {
+            // two-word forms (BEGIN CODE, END WHILE, ELSE IF, ...) are separated by a single space
+            if (currentPos < input.length() && input.charAt(currentPos) == ' ') {
+                int secondEnd = scanWord(currentPos + 1);
+                int second = Keywords.lookup(input, currentPos + 1, secondEnd - currentPos - 1);
+                Token.Type compound = Keywords.getCompoundType(keyword, second);
+                if (compound != null) {
+                    currentPos = secondEnd;
+                    tokens.add(compound, tokenStartPos, currentPos - tokenStartPos);
                     return;
                 }
-                type = Token.Type.Else;
-                break;
-            case "WHILE":
-                type = Token.Type.While;
-                break;
-            case "FOR":
-                type = Token.Type.For;
-                break;
-            default:
-                if (Character.isLetter(identifier.charAt(0)) || identifier.charAt(0) == '_') {
-                    type = Token.Type.Identifier;
-                } else {
-                    throw new RuntimeException("ERROR: Invalid identifier '" + identifier + "' at position " + tokenStartPos);
-                }
+            }
+            if (type == null) {
+                // BEGIN or END without a container name does not produce a token
+                return;
+            }
+        }
+        if (type == null) {
+            tokens.addIdentifier(tokenStartPos, currentPos - tokenStartPos);
+        } else {
+            tokens.add(type, tokenStartPos, currentPos - tokenStartPos);
+        }
+    }
+
+    private int scanWord(int from) {
+        while (from < input.length() && CharClass.isIdentifierPart(input.charAt(from))) {
+            from++;
         }
-        tokens.add(new Token(type, identifier, tokenStartPos));
+        return from;
     }
 
-    private void printTokens(List<Token> tokens) {
+    private void printTokens(TokenBuffer tokens) {
         for (int i = 0; i < tokens.size(); i++) {
             Token token = tokens.get(i);
             System.out.println("Token " + i + ": Type = " + token.getType() + ", Text = '" + token.getText() + "', StartPos = " + token.getStartPos());
@@ -0,0 +1,79 @@
+package Main.Token.Lexer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read-only view of an ASCII source file that is memory-mapped instead of copied into the heap.
+// The lexer scans the mapped bytes through charAt, so no char[] or String of the whole file is built.
+public class MappedSource implements CharSequence {
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final ByteBuffer buffer;
+
+    private MappedSource(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // Maps the file and returns a view over its bytes. Files containing non-ASCII bytes cannot be
+    // indexed byte-for-char, so they are decoded as UTF-8 into a String instead.
+    public static CharSequence load(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (isAscii(mapped)) {
+            return new MappedSource(mapped);
+        }
+        return StandardCharsets.UTF_8.decode(mapped.duplicate()).toString();
+    }
+
+    private static boolean isAscii(ByteBuffer bytes) {
+        int length = bytes.limit();
+        int i = 0;
+        // eight bytes at a time, any byte with its high bit set is non-ASCII
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if ((bytes.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public int length() {
+        return buffer.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) buffer.get(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new MappedSource(buffer.slice(start, end - start).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(0, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
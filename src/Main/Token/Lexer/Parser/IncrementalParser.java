@@ -0,0 +1,79 @@
+package Main.Token.Lexer.Parser;
+
+import Main.ExceptionHandlers.*;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.TextEdit;
+import Main.Token.TokenBuffer;
+
+// Front end for a source that is edited repeatedly. Each edit re-lexes only the lines it touched and
+// re-parses only the top-level statements those lines belong to; the rest of the tokens and tree is reused.
+public class IncrementalParser {
+    private CharSequence source;
+    private Lexer lexer;
+    private TokenBuffer tokens;
+    private Parser parser;
+    private ProgramNode program;
+
+    public IncrementalParser(CharSequence source) throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+            VariableDeclarationException, VariableInitializationException, DisplayException {
+        this.source = source;
+        this.lexer = new Lexer(source);
+        this.tokens = lexer.lex();
+        Parser fullParser = new Parser(tokens);
+        this.program = (ProgramNode) fullParser.parse();
+        this.parser = fullParser;
+    }
+
+    // Applies the edit and returns the program for the edited source. The source is updated even when the
+    // edited text does not lex or parse, so the next edit is applied to it; that edit then starts from scratch.
+    public ProgramNode applyEdit(TextEdit edit) throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+            VariableDeclarationException, VariableInitializationException, DisplayException {
+        Lexer previousLexer = lexer;
+        TokenBuffer previousTokens = tokens;
+        Parser previousParser = parser;
+        ProgramNode previousProgram = program;
+        source = edit.apply(source);
+        lexer = null;
+        tokens = null;
+        parser = null;
+        program = null;
+
+        Lexer editedLexer = new Lexer(source);
+        TokenBuffer editedTokens = previousTokens == null ? editedLexer.lex() : editedLexer.relex(previousLexer, previousTokens, edit);
+        lexer = editedLexer;
+        tokens = editedTokens;
+
+        Parser editedParser = new Parser(editedTokens);
+        ProgramNode editedProgram;
+        if (previousParser == null) {
+            editedProgram = (ProgramNode) editedParser.parse();
+        } else {
+            editedProgram = (ProgramNode) editedParser.reparse(previousParser, previousProgram,
+                    editedLexer.getDamageStart(), editedLexer.getDamageEnd(), editedLexer.getTokenShift());
+        }
+        parser = editedParser;
+        program = editedProgram;
+        return program;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public Lexer getLexer() {
+        return lexer;
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public Parser getParser() {
+        return parser;
+    }
+
+    public ProgramNode getProgram() {
+        return program;
+    }
+}
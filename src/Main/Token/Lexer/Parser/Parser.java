@@ -9,19 +9,33 @@
     import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
     import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
     import Main.Nodes.SymbolTable;
+    import Main.Token.Keywords;
     import Main.Token.Token;
+    import Main.Token.TokenBuffer;
 
     import java.util.*;
 
     public class Parser {
-        private final List<Token> tokens;
+        private final TokenBuffer tokens;
         private int currentTokenIndex;
-        private final SymbolTable symbolTable = new SymbolTable();
-        public static int statementCount = 0;
+        // zero-based source line of the statement being parsed, used for node and error line numbers
+        private int statementLine;
         private int errorCount;
         private boolean isInsideLoop = false;
 
-        public Parser(List<Token> tokens) {
+        // top-level steps of the executable code, kept so a later parse of an edited source can reuse them
+        private final List<StatementSpan> statementSpans = new ArrayList<>();
+        private int executableStart;
+        private int executableEnd;
+        private int reusedStatements;
+
+        // set while re-parsing an edited source: the parse of the source before the edit, the first of its tokens
+        // after the edited ones, and how far its tokens moved
+        private Parser previous;
+        private int reuseFrom;
+        private int tokenShift;
+
+        public Parser(TokenBuffer tokens) {
             this.tokens = tokens;
             currentTokenIndex = 0;
             errorCount = 0;
@@ -30,35 +44,132 @@
 
 
         // call parse method to start parsing
-        public ASTNode parse() throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException {
-            return program();
+        public ASTNode parse() throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+                VariableDeclarationException, VariableInitializationException, DisplayException {
+            try {
+                return program();
+            } catch (MissingEndContainer m) {
+                throw missingEndContainer();
+            }
         }
 
 
 
-        // Program -> BEGIN CODE VariableDeclarations ExecutableCode END CODE / ε.
-        private ASTNode program() throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException {
-            while(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
-                statementCount++;
+        // Parses an edited source after Lexer.relex replaced the previous tokens [damageStart, damageEnd) and moved the
+        // ones after them by tokenShift. Statements before the edit are kept, parsing restarts at the first top-level
+        // statement the edit touches and goes back to the previous statements once it is in step with them again.
+        // Edits inside the declarations re-parse everything.
+        ASTNode reparse(Parser previous, ProgramNode previousProgram, int damageStart, int damageEnd, int tokenShift) throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+                VariableDeclarationException, VariableInitializationException, DisplayException {
+            try {
+                return reparseStatements(previous, previousProgram, damageStart, damageEnd, tokenShift);
+            } catch (MissingEndContainer m) {
+                throw missingEndContainer();
+            }
+        }
+
+        private ASTNode reparseStatements(Parser previous, ProgramNode previousProgram, int damageStart, int damageEnd, int tokenShift) throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+                VariableDeclarationException, VariableInitializationException, DisplayException {
+            if(damageStart <= previous.executableStart) {
+                return program();
+            }
+            this.previous = previous;
+            this.reuseFrom = damageEnd;
+            this.tokenShift = tokenShift;
+            executableStart = previous.executableStart;
+
+            // a statement also looks at up to two tokens after it (ELSE IF after END IF, a missing '&' in PRINT)
+            currentTokenIndex = executableStart;
+            List<ASTNode> statements = new ArrayList<>();
+            for(StatementSpan span : previous.statementSpans) {
+                if(span.getEnd() + 2 > damageStart) {
+                    break;
+                }
+                keepStatement(span, 0, statements);
+                currentTokenIndex = span.getEnd();
+            }
+
+            VariableDeclarationsNode variableDeclarations = (VariableDeclarationsNode) previousProgram.getVariableDeclarations();
+            ASTNode executableCode = executableCode(variableDeclarations, statements);
+            return programEnd(variableDeclarations, executableCode);
+        }
+
+
+
+        // Once re-parsing reaches the start of a previous statement past the edit that is still on the same line,
+        // the rest of the previous executable code is taken over unchanged. Nodes carry line numbers, so an edit
+        // that adds or removes lines re-parses the statements after it.
+        private boolean reuseStatements(List<ASTNode> statements) {
+            int oldIndex = currentTokenIndex - tokenShift;
+            if(oldIndex < reuseFrom) {
+                return false;
+            }
+            List<StatementSpan> spans = previous.statementSpans;
+            int low = 0;
+            int high = spans.size();
+            while(low < high) {
+                int middle = (low + high) >>> 1;
+                if(spans.get(middle).getStart() < oldIndex) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
             }
+            if(low == spans.size() || spans.get(low).getStart() != oldIndex ||
+                    previous.tokens.getLineNumber(oldIndex) != tokens.getLineNumber(currentTokenIndex) ||
+                    tokens.getLineNumber(currentTokenIndex) == tokens.getLineNumber(currentTokenIndex - 1)) {
+                return false;
+            }
+            for(int i = low; i < spans.size(); i++) {
+                keepStatement(spans.get(i), tokenShift, statements);
+            }
+            currentTokenIndex = previous.executableEnd + tokenShift;
+            executableEnd = currentTokenIndex;
+            return true;
+        }
+
+        private void keepStatement(StatementSpan span, int shift, List<ASTNode> statements) {
+            statementSpans.add(shift == 0 ? span : span.shift(shift));
+            if(span.getStatement() != null) {
+                statements.add(span.getStatement());
+            }
+            reusedStatements++;
+        }
+
+        // number of top-level steps taken over from the previous parse by reparse
+        public int getReusedStatements() {
+            return reusedStatements;
+        }
+
+
+
+        // Program -> BEGIN CODE VariableDeclarations ExecutableCode END CODE / ε.
+        private ASTNode program() throws BeginContainerMissingException, EndContainerMissingException, SyntaxErrorException,
+                VariableDeclarationException, VariableInitializationException, DisplayException {
+            skipTrivia();
+            statementLine = lineOf(currentTokenIndex);
             if(match(Token.Type.BeginContainer)) {
-                statementCount++;
                 ASTNode variableDeclarations = variableDeclarations();
-                ASTNode executableCode = executableCode((VariableDeclarationsNode) variableDeclarations);
-                if(match(Token.Type.EndContainer)) {
-                    statementCount++;
-                    while(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
-                        statementCount++;
-                    }
-                    if(tokens.size() > currentTokenIndex) {
-                        throw new SyntaxErrorException("ERROR: Invalid token found after END CODE container.", getStatementCount());
-                    }
-                    return new ProgramNode(variableDeclarations, executableCode, symbolTable);
-                } else {
-                    throw new EndContainerMissingException("ERROR: Missing END CODE container.", getStatementCount());
+                executableStart = currentTokenIndex;
+                ASTNode executableCode = executableCode((VariableDeclarationsNode) variableDeclarations, new ArrayList<>());
+                return programEnd(variableDeclarations, executableCode);
+            } else {
+                throw new BeginContainerMissingException("ERROR: Missing BEGIN CODE container", getLineNumber());
+            }
+        }
+
+        private ASTNode programEnd(ASTNode variableDeclarations, ASTNode executableCode) throws EndContainerMissingException, SyntaxErrorException {
+            statementLine = lineOf(currentTokenIndex);
+            if(match(Token.Type.EndContainer)) {
+                skipTrivia();
+                if(tokens.size() > currentTokenIndex) {
+                    statementLine = lineOf(currentTokenIndex);
+                    throw new SyntaxErrorException("ERROR: Invalid token found after END CODE container.", getLineNumber());
                 }
+                return new ProgramNode(variableDeclarations, executableCode,
+                        new SymbolTable(tokens.getSymbols(), ((VariableDeclarationsNode) variableDeclarations).getIndex()));
             } else {
-                throw new BeginContainerMissingException("ERROR: Missing BEGIN CODE container", getStatementCount());
+                throw new EndContainerMissingException("ERROR: Missing END CODE container.", getLineNumber());
             }
         }
 
@@ -70,12 +181,12 @@
 
 
         // Method to match token type. If the current token type matches the expected token type, increment the current token index.
+        // Consuming the last token when it is not END CODE means the container is never closed.
         private boolean match(Token.Type expectedType) {
-            if (currentTokenIndex < tokens.size() && tokens.get(currentTokenIndex).getType() == expectedType) {
-                if(currentTokenIndex + 1 == tokens.size() && tokens.get(currentTokenIndex).getType() != Token.Type.EndContainer &&
-                        (tokens.get(currentTokenIndex).getType() != Token.Type.Comment && tokens.get(currentTokenIndex).getType() != Token.Type.BlankLine)) {
-                    System.err.println("ERROR: Missing END CODE container. at line " + getStatementCount());
-                    System.exit(1);
+            if (currentTokenIndex < tokens.size() && tokens.getType(currentTokenIndex) == expectedType) {
+                if(currentTokenIndex + 1 == tokens.size() && expectedType != Token.Type.EndContainer &&
+                        expectedType != Token.Type.Comment && expectedType != Token.Type.BlankLine) {
+                    throw new MissingEndContainer();
                 }
                 currentTokenIndex++;
                 return true;
@@ -83,17 +194,36 @@
             return false;
         }
 
+        // Unwinds the parser from wherever the tokens ran out, parse() turns it into an EndContainerMissingException.
+        private static class MissingEndContainer extends RuntimeException {
+            MissingEndContainer() {
+                super(null, null, false, false);
+            }
+        }
+
+        private EndContainerMissingException missingEndContainer() {
+            errorCount++;
+            return new EndContainerMissingException("ERROR: Missing END CODE container.", lineOf(tokens.size() - 1));
+        }
+
+        // Type of the token at index, null past the last token.
+        private Token.Type typeAt(int index) {
+            return index < tokens.size() ? tokens.getType(index) : null;
+        }
+
+        // Text of the token at index, empty past the last token.
+        private String textAt(int index) {
+            return index < tokens.size() ? tokens.getText(index) : "";
+        }
+
 
 
         // Reserved Words
-        public static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
-                "BEGIN", "CODE", "END", "INT", "CHAR", "BOOL", "FLOAT", "DISPLAY",
-                "THEN", "ELSE", "IF", "WHILE", "AND", "OR", "NOT", "SCAN", "BREAK"
-        ));
+        public static final Set<String> RESERVED_WORDS = Keywords.reservedWords();
 
         // Method to check if a token is a reserved word
         private boolean isReservedWord(String token) {
-            return RESERVED_WORDS.contains(token);
+            return Keywords.isReserved(token);
         }
 
         // Method to check if a variable name is a reserved word.
@@ -109,30 +239,40 @@
             return errorCount;
         }
 
-        // getter for statement count, used in App.java to check if there are more than one statement in a single line
-        public static int getStatementCount() {
-            return statementCount;
+        // line reported for the statement being parsed
+        private int getLineNumber() {
+            return statementLine;
+        }
+
+        private int lineOf(int tokenIndex) {
+            return tokens.isEmpty() ? 0 : tokens.getLineNumber(Math.min(tokenIndex, tokens.size() - 1));
+        }
+
+        // Marks the current token as the start of a statement. A statement has to start on a new line, only a
+        // comment may follow it on the same line.
+        private void startStatement() throws SyntaxErrorException {
+            statementLine = lineOf(currentTokenIndex);
+            if(currentTokenIndex > 0 && currentTokenIndex < tokens.size() && tokens.getType(currentTokenIndex) != Token.Type.Comment &&
+                    statementLine == lineOf(currentTokenIndex - 1)) {
+                throw new SyntaxErrorException("ERROR: Cannot have more than one statement in a single line.", getLineNumber());
+            }
+        }
+
+        // Comments and blank lines can appear between any two statements.
+        private void skipTrivia() {
+            while(currentTokenIndex < tokens.size() && (tokens.getType(currentTokenIndex) == Token.Type.Comment ||
+                    tokens.getType(currentTokenIndex) == Token.Type.BlankLine)) {
+                currentTokenIndex++;
+            }
         }
 
 
 
         // Method to check if an expression is valid. Used in variable declaration and assignment
         private boolean isValidExpression() {
-            return ((tokens.get(currentTokenIndex + 1).getType() == Token.Type.Plus ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Minus ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Times ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Divide ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Modulo ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Less ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.LessEqual ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Greater ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.GreaterEqual ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Equals ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.NotEqual ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.And ||
-                    tokens.get(currentTokenIndex + 1).getType() == Token.Type.Or) &&
+            return (bindingPower(typeAt(currentTokenIndex + 1)) > 0 &&
                     (match(Token.Type.Num) || match(Token.Type.NumFloat) || match(Token.Type.Identifier))) ||
-                    (match(Token.Type.Parentheses) && tokens.get(currentTokenIndex - 1).getText().equals("(")) ||
+                    (match(Token.Type.Parentheses) && tokens.textEquals(currentTokenIndex - 1, "(")) ||
                     match(Token.Type.Not);
         }
 
@@ -144,19 +284,24 @@
             return match(Token.Type.Int) || match(Token.Type.Char) || match(Token.Type.Bool) || match(Token.Type.Float);
         }
 
-        // Method to check if a token is a valid variable name.
-        private String variableName() throws VariableDeclarationException {
-            String variableName;
+        // Method to check if a token is a valid variable name. Returns the index of the name token.
+        private int variableName() throws VariableDeclarationException {
+            int variableName;
             if (match(Token.Type.Identifier)) {
-                variableName = tokens.get(currentTokenIndex - 1).getText();
-            } else if(isReservedVariable(tokens.get(currentTokenIndex).getText())) {
-                throw new VariableDeclarationException("ERROR: Variable name '" + tokens.get(currentTokenIndex).getText() + "' is a reserved word.", getStatementCount());
+                variableName = currentTokenIndex - 1;
+            } else if(isReservedVariable(textAt(currentTokenIndex))) {
+                throw new VariableDeclarationException("ERROR: Variable name '" + textAt(currentTokenIndex) + "' is a reserved word.", getLineNumber());
             } else {
-                throw new VariableDeclarationException("ERROR: Invalid variable name format. It should start with a letter or an underscore only.", getStatementCount());
+                throw new VariableDeclarationException("ERROR: Invalid variable name format. It should start with a letter or an underscore only.", getLineNumber());
             }
             return variableName;
         }
 
+        // Variable reference for the identifier token at the given index.
+        private VariableNode variableNode(int tokenIndex, Object initialValue) {
+            return new VariableNode(tokens.getText(tokenIndex), tokens.getSymbolId(tokenIndex), initialValue);
+        }
+
 
 
 
@@ -166,18 +311,16 @@
             if (exprNode != null) {
                 return exprNode;
             } else {
-                throw new SyntaxErrorException("ERROR: Invalid parsing of expression. Null value found.", getStatementCount());
+                throw new SyntaxErrorException("ERROR: Invalid parsing of expression. Null value found.", getLineNumber());
             }
         }
 
 
 
         // method to check if variable used is already declared.
-        private void checkDeclaration(VariableDeclarationsNode declarations, String variableName) throws VariableDeclarationException {
-            if(declarations.getVariableDeclarations().stream()
-                    .flatMap(declaration -> declaration.getVariableNames().stream())
-                    .noneMatch(variableNode -> variableNode.getVariableName().equals(variableName))) {
-                throw new VariableDeclarationException("ERROR: Variable '" + variableName + "' not declared.", getStatementCount());
+        private void checkDeclaration(VariableDeclarationsNode declarations, VariableNode variable) throws VariableDeclarationException {
+            if(!declarations.getIndex().contains(variable.getSymbolId())) {
+                throw new VariableDeclarationException("ERROR: Variable '" + variable.getVariableName() + "' not declared.", getLineNumber());
             }
         }
 
@@ -191,18 +334,22 @@
      ************************************************************************/
 
         // VariableDeclarations -> VariableDeclaration VariableDeclarations | ε
-        private ASTNode variableDeclarations() {
+        private ASTNode variableDeclarations() throws VariableDeclarationException, VariableInitializationException, SyntaxErrorException {
             List<SingleVariableDeclaration> variables = new ArrayList<>();
+            DeclarationIndex index = new DeclarationIndex();
             try {
                 while (true) {
                     SingleVariableDeclaration variable = (SingleVariableDeclaration) variableDeclaration();
                     if (variable != null) {
-                        if(variables.stream().anyMatch(declaration -> declaration.getVariableNames().stream()
-                                .anyMatch(variableNode -> variable.getVariableNames().stream()
-                                        .anyMatch(variableNode1 -> variableNode1.getVariableName().equals(variableNode.getVariableName()))))) {
-                            throw new VariableDeclarationException("ERROR: Duplicate variable declaration found.", getStatementCount());
+                        // a name may repeat inside one declaration, only earlier declarations count as duplicates
+                        for(VariableNode variableNode : variable.getVariableNames()) {
+                            if(index.contains(variableNode.getSymbolId())) {
+                                throw new VariableDeclarationException("ERROR: Duplicate variable declaration found.", getLineNumber());
+                            }
+                        }
+                        for(VariableNode variableNode : variable.getVariableNames()) {
+                            index.declare(variableNode, variable.getDataType(), variable.getLineNumber());
                         }
-                        statementCount++;
                         variables.add(variable);
                     } else {
                         break;
@@ -210,27 +357,25 @@
                 }
             } catch (VariableDeclarationException | VariableInitializationException | SyntaxErrorException v) {
                 errorCount++;
-                System.err.println(v.getMessage());
-                System.exit(1);
+                throw v;
             }
-            return new VariableDeclarationsNode(variables);
+            return new VariableDeclarationsNode(variables, index);
         }
 
 
 
         // VariableDeclaration -> DataType VariableList
         private ASTNode variableDeclaration() throws VariableDeclarationException, VariableInitializationException, SyntaxErrorException {
-            while(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
-                statementCount++;
-            }
-            String dataType = tokens.get(currentTokenIndex).getText();
+            skipTrivia();
+            startStatement();
+            String dataType = textAt(currentTokenIndex);
             ASTNode variableDeclaration = null;
             if (!dataType.isEmpty() && DataType()) {
                 List<VariableNode> variableNodes = variableList();
                 if(variableNodes.isEmpty()) {
-                    throw new VariableDeclarationException("ERROR: Found Data Type token but variable list is empty.", getStatementCount());
+                    throw new VariableDeclarationException("ERROR: Found Data Type token but variable list is empty.", getLineNumber());
                 }
-                variableDeclaration = new SingleVariableDeclaration(dataType, variableNodes);
+                variableDeclaration = new SingleVariableDeclaration(dataType, variableNodes, getLineNumber());
             }
             return variableDeclaration;
         }
@@ -240,26 +385,25 @@
         // VariableList -> VariableName VariableList'
         private List<VariableNode> variableList() throws VariableDeclarationException, VariableInitializationException, SyntaxErrorException {
             List<VariableNode> variableNodes = new ArrayList<>();
-            String variableName;
+            int variableName;
 
-            while((variableName = variableName()) != null) {
-                List<String> dominoInitializedVariables = new ArrayList<>();
+            while((variableName = variableName()) >= 0) {
+                List<Integer> dominoInitializedVariables = new ArrayList<>();
                 dominoInitializedVariables.add(variableName);
                 Object initialValue = assignment();
                 if(initialValue != null) {
                     while (true) {
                         assert initialValue != null;
                         if (!initialValue.equals("continue")) break;
-                        variableName = tokens.get(currentTokenIndex - 1).getText();
-                        dominoInitializedVariables.add(variableName);
+                        dominoInitializedVariables.add(currentTokenIndex - 1);
                         initialValue = assignment();
                     }
 
-                    for (String domino : dominoInitializedVariables) {
-                        variableNodes.add(new VariableNode(domino, initialValue));
+                    for (int domino : dominoInitializedVariables) {
+                        variableNodes.add(variableNode(domino, initialValue));
                     }
                 } else {
-                    variableNodes.add(new VariableNode(variableName, null));
+                    variableNodes.add(variableNode(variableName, null));
                 }
 
                 if (!match(Token.Type.Comma)) {
@@ -281,7 +425,7 @@
                     return assignedValue;
                 }
                 throw new VariableInitializationException("ERROR: Assignment operator found but " +
-                        "value token is missing or is an invalid value type. Please check again.", getStatementCount());
+                        "value token is missing or is an invalid value type. Please check again.", getLineNumber());
             }
             return null;
         }
@@ -299,27 +443,27 @@
                     currentTokenIndex-=2;
                     return expressionHandler();
                 } else if(match(Token.Type.Identifier)) {
-                    return new VariableNode(tokens.get(currentTokenIndex-1).getText(), -1);
+                    return variableNode(currentTokenIndex-1, -1);
                 } else if (match(Token.Type.Num)) {
-                    return -(Integer.parseInt(tokens.get(currentTokenIndex-1).getText()));
+                    return -(Integer.parseInt(tokens.getText(currentTokenIndex-1)));
                 } else if (match(Token.Type.NumFloat)) {
-                    return -(Float.parseFloat(tokens.get(currentTokenIndex-1).getText()));
+                    return -(Float.parseFloat(tokens.getText(currentTokenIndex-1)));
                 }
             } else if (match(Token.Type.Num)) {
-                return Integer.parseInt(tokens.get(currentTokenIndex - 1).getText());
+                return Integer.parseInt(tokens.getText(currentTokenIndex - 1));
             } else if (match(Token.Type.NumFloat)) {
-                return Float.parseFloat(tokens.get(currentTokenIndex - 1).getText());
+                return Float.parseFloat(tokens.getText(currentTokenIndex - 1));
             } else if (match(Token.Type.CharLiteral)) {
-                return tokens.get(currentTokenIndex - 1).getText().charAt(0);
+                return tokens.getText(currentTokenIndex - 1).charAt(0);
             } else if (match(Token.Type.BooleanLiteral)) {
-                return tokens.get(currentTokenIndex - 1).getText();
+                return tokens.textEquals(currentTokenIndex - 1, "TRUE");
             } else if(match(Token.Type.Identifier)) {
-                String variableName = tokens.get(currentTokenIndex-1).getText();
+                int variableName = currentTokenIndex-1;
                 if(match(Token.Type.Assign)) {
                     currentTokenIndex--;
                     return "continue";
                 } else {
-                    return new VariableNode(variableName, null);
+                    return variableNode(variableName, null);
                 }
             }
             return null;
@@ -335,13 +479,17 @@
 
 
         // ExecutableCode -> Statement ExecutableCode | ε
-        private ASTNode executableCode(VariableDeclarationsNode variableDeclarationsNode) {
+        private ASTNode executableCode(VariableDeclarationsNode variableDeclarationsNode, List<ASTNode> statements)
+                throws SyntaxErrorException, DisplayException, VariableDeclarationException, VariableInitializationException {
             try {
-                List<ASTNode> statements = new ArrayList<>();
                 while(true) {
-                    while(match(Token.Type.BlankLine) || match(Token.Type.Comment)) {
-                        statementCount++;
+                    if(previous != null && reuseStatements(statements)) {
+                        break;
                     }
+                    int spanStart = currentTokenIndex;
+                    int statementsBefore = statements.size();
+                    skipTrivia();
+                    startStatement();
                     if (match(Token.Type.Print)) {
                         DisplayNode displayNode = (DisplayNode) displayHandler(variableDeclarationsNode);
                         statements.add(displayNode);
@@ -356,44 +504,44 @@
                     } else if (match(Token.Type.If)) {
                         isInsideLoop = false;
                         currentTokenIndex--;
-                        statements.add(conditionalStatements(variableDeclarationsNode));
+                        statements.add(compoundStatement(variableDeclarationsNode));
                     } else if(match(Token.Type.While)){
                         isInsideLoop = true;
                         currentTokenIndex--;
-                        statements.add(parseIterative(variableDeclarationsNode));
+                        statements.add(compoundStatement(variableDeclarationsNode));
                     } else if(match(Token.Type.For)) {
                         isInsideLoop = true;
                         currentTokenIndex--;
-                        statements.add(parseIterative(variableDeclarationsNode));
+                        statements.add(compoundStatement(variableDeclarationsNode));
                     } else {
+                        executableEnd = currentTokenIndex;
                         break;
                     }
-
+                    statementSpans.add(new StatementSpan(spanStart, currentTokenIndex,
+                            statements.size() > statementsBefore ? statements.getLast() : null));
                 }
 
                 if(DataType()) {
                     currentTokenIndex--;
-                    throw new SyntaxErrorException("ERROR: Variable declaration found after executable code.", getStatementCount());
+                    throw new SyntaxErrorException("ERROR: Variable declaration found after executable code.", getLineNumber());
                 }
 
                 return new ExecutableCodeNode(statements);
             } catch (SyntaxErrorException | DisplayException | VariableDeclarationException | VariableInitializationException v) {
                 errorCount++;
-                System.err.println(v.getMessage());
-                System.exit(1);
+                throw v;
             }
-            return null;
         }
 
 
 
         // Reinitialize Variable Executable
         private ASTNode reinitializeVariable(VariableDeclarationsNode declarationStatements) throws VariableInitializationException, SyntaxErrorException, VariableDeclarationException {
-            List<String> dominoInitializedVariables = new ArrayList<>();
+            List<VariableNode> dominoInitializedVariables = new ArrayList<>();
             Object initialValue = null;
-            String variableName;
-            if((variableName = variableName()) != null) {
-                dominoInitializedVariables.add(variableName);
+            int variableName;
+            if((variableName = variableName()) >= 0) {
+                dominoInitializedVariables.add(variableNode(variableName, null));
                 initialValue = assignment();
                 if(initialValue != null) {
                     // INT a,b,c,d
@@ -401,20 +549,18 @@
                     while (true) {
                         assert initialValue != null;
                         if (!initialValue.equals("continue")) break;
-                        variableName = tokens.get(currentTokenIndex - 1).getText();
-                        dominoInitializedVariables.add(variableName);
+                        dominoInitializedVariables.add(variableNode(currentTokenIndex - 1, null));
                         initialValue = assignment();
                     }
                 } else {
-                    throw new SyntaxErrorException("ERROR: Invalid variable reinitialization format. Expected assignment operator.", getStatementCount());
+                    throw new SyntaxErrorException("ERROR: Invalid variable reinitialization format. Expected assignment operator.", getLineNumber());
                 }
             }
 
-            for(String domino : dominoInitializedVariables) {
+            for(VariableNode domino : dominoInitializedVariables) {
                 checkDeclaration(declarationStatements, domino);
             }
-            statementCount++;
-            return new VariableReinitializedNode(dominoInitializedVariables, new LiteralNode(initialValue), declarationStatements, getStatementCount()-1);
+            return new VariableReinitializedNode(dominoInitializedVariables, new LiteralNode(initialValue), declarationStatements, getLineNumber());
 
         }
 
@@ -424,26 +570,25 @@
             private ASTNode scanFunction(VariableDeclarationsNode declarations) throws VariableDeclarationException, SyntaxErrorException {
                 if (match(Token.Type.Scan)) {
                     if (match(Token.Type.Colon)) {
-                        List<String> variableNames = new ArrayList<>();
+                        List<VariableNode> variableNames = new ArrayList<>();
                         if(match(Token.Type.Identifier)) {
-                            variableNames.add(tokens.get(currentTokenIndex-1).getText());
+                            variableNames.add(variableNode(currentTokenIndex-1, null));
                             while(match(Token.Type.Comma)) {
-                                variableNames.add(tokens.get(currentTokenIndex).getText());
+                                variableNames.add(variableNode(currentTokenIndex, null));
+                                match(Token.Type.Identifier);
                             }
                         }
-                        List<SingleVariableDeclaration> declarationStatements = declarations.getVariableDeclarations();
-                        if(declarationStatements.isEmpty() && !variableNames.isEmpty()) {
-                            throw new VariableDeclarationException("ERROR: Variables '" + variableNames + "' not declared.", getStatementCount());
+                        if(declarations.getIndex().size() == 0 && !variableNames.isEmpty()) {
+                            throw new VariableDeclarationException("ERROR: Variables '" + variableNames.stream().map(VariableNode::getVariableName).toList() + "' not declared.", getLineNumber());
                         } else {
-                            for(String varName : variableNames) {
+                            for(VariableNode varName : variableNames) {
                                 checkDeclaration(declarations, varName);
                             }
                         }
 
-                        statementCount++;
-                        return new ScannerNode(variableNames, declarations, getStatementCount()-1);
+                        return new ScannerNode(variableNames, declarations, getLineNumber());
                     } else {
-                        throw new SyntaxErrorException("ERROR: Expected colon (:) after SCAN keyword.", getStatementCount());
+                        throw new SyntaxErrorException("ERROR: Expected colon (:) after SCAN keyword.", getLineNumber());
                     }
                 }
                 return null;
@@ -464,237 +609,225 @@
                             currentTokenIndex-=2;
                             expressions.add(expressionHandler());
                         } else if(match(Token.Type.Identifier)) {
-                            expressions.add(new VariableNode(tokens.get(currentTokenIndex-1).getText(), -1));
+                            expressions.add(variableNode(currentTokenIndex-1, -1));
                         } else if (match(Token.Type.Num)) {
-                            expressions.add(new LiteralNode(-(Integer.parseInt(tokens.get(currentTokenIndex-1).getText()))));
+                            expressions.add(new LiteralNode(-(Integer.parseInt(tokens.getText(currentTokenIndex-1)))));
                         } else if (match(Token.Type.NumFloat)) {
-                            expressions.add(new LiteralNode(-(Float.parseFloat(tokens.get(currentTokenIndex-1).getText()))));
+                            expressions.add(new LiteralNode(-(Float.parseFloat(tokens.getText(currentTokenIndex-1)))));
                         }
                     } else if(match(Token.Type.Identifier)) {
-                        String variableName = tokens.get(currentTokenIndex-1).getText();
-                        checkDeclaration(variableDeclarationsNode, variableName);
-                        expressions.add(new VariableNode(variableName, null));
+                        VariableNode variable = variableNode(currentTokenIndex-1, null);
+                        checkDeclaration(variableDeclarationsNode, variable);
+                        expressions.add(variable);
                     } else if(match(Token.Type.Num) || match(Token.Type.NumFloat) ||
                         match(Token.Type.CharLiteral) || match(Token.Type.BooleanLiteral) ||
                         match(Token.Type.StringLiteral) || match(Token.Type.NewLine) || match(Token.Type.Escape)){
 
-                        LiteralNode literalNode = new LiteralNode(tokens.get(currentTokenIndex - 1).getText());
-                        if(literalNode.getValue().equals("$") && tokens.get(currentTokenIndex-1).getType() == Token.Type.NewLine){
+                        LiteralNode literalNode = new LiteralNode(tokens.getText(currentTokenIndex - 1));
+                        if(literalNode.getValue().equals("$") && typeAt(currentTokenIndex-1) == Token.Type.NewLine){
                             literalNode = new LiteralNode("\n");
                         }
                         expressions.add(literalNode);
 
                     } else {
-                        throw new DisplayException("ERROR: Invalid display statement format near '" + tokens.get(currentTokenIndex).getText() + "' token", getStatementCount());
+                        throw new DisplayException("ERROR: Invalid display statement format near '" + textAt(currentTokenIndex) + "' token", getLineNumber());
                     }
 
                     if (!match(Token.Type.Concat)) {
-                        if(tokens.get(currentTokenIndex).getType() == Token.Type.NewLine ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.Escape ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.Identifier ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.StringLiteral ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.CharLiteral ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.Num ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.NumFloat ||
-                                tokens.get(currentTokenIndex).getType() == Token.Type.BooleanLiteral) {
+                        if(typeAt(currentTokenIndex) == Token.Type.NewLine ||
+                                typeAt(currentTokenIndex) == Token.Type.Escape ||
+                                typeAt(currentTokenIndex) == Token.Type.Identifier ||
+                                typeAt(currentTokenIndex) == Token.Type.StringLiteral ||
+                                typeAt(currentTokenIndex) == Token.Type.CharLiteral ||
+                                typeAt(currentTokenIndex) == Token.Type.Num ||
+                                typeAt(currentTokenIndex) == Token.Type.NumFloat ||
+                                typeAt(currentTokenIndex) == Token.Type.BooleanLiteral) {
                                 if(match(Token.Type.Identifier) && match(Token.Type.Assign)) {
                                     currentTokenIndex -=2;
                                     break;
                                 }
-                                throw new DisplayException("ERROR: Expression found but concatenation token is missing.", getStatementCount());
+                                throw new DisplayException("ERROR: Expression found but concatenation token is missing.", getLineNumber());
                         }
                         break;
                     }
                 }
             } else {
-                throw new DisplayException("ERROR: Colon (:) token missing after DISPLAY keyword.", getStatementCount());
+                throw new DisplayException("ERROR: Colon (:) token missing after DISPLAY keyword.", getLineNumber());
             }
-            statementCount++;
-            return new DisplayNode(expressions, getStatementCount()-1);
+            return new DisplayNode(expressions, getLineNumber());
         }
 
 
 
         // Conditional Statements Executable
-        private ASTNode conditionalStatements(VariableDeclarationsNode variableDeclarationsNode) throws SyntaxErrorException, VariableInitializationException, DisplayException, VariableDeclarationException {
-            List<ASTNode> ifStatements = new ArrayList<>();
-            List<ExecutableCodeNode> elseIfBlocks = new ArrayList<>();
-            List<ASTNode> elseStatements = new ArrayList<>();
-            List<ASTNode> conditions = new ArrayList<>();
-            if(match(Token.Type.If)) {
-                conditions.add(parseCondition());
-                beginIfBlock(ifStatements, variableDeclarationsNode);
-            }
-            while(match(Token.Type.IfElse)) {
-                List<ASTNode> elseIfStatements = new ArrayList<>();
-                conditions.add(parseCondition());
-                beginIfBlock(elseIfStatements, variableDeclarationsNode);
-                elseIfBlocks.add(new ExecutableCodeNode(elseIfStatements));
-            }
-            if(match(Token.Type.Else)) {
-                statementCount++;
-                beginIfBlock(elseStatements, variableDeclarationsNode);
-            }
-            return new ConditionalNode(conditions,new ExecutableCodeNode(ifStatements), elseIfBlocks, new ExecutableCodeNode(elseStatements), getStatementCount()-1);
-        }
-
-        private ASTNode parseCondition() throws SyntaxErrorException, VariableInitializationException {
-            ASTNode condition;
-            if(match(Token.Type.Parentheses) && tokens.get(currentTokenIndex-1).getText().equals("(")) {
-                condition = expressionHandler();
-                if (!match(Token.Type.Parentheses) || !tokens.get(currentTokenIndex - 1).getText().equals(")")) {
-                    throw new SyntaxErrorException("ERROR: Missing closing parenthesis for condition statement.", getStatementCount());
+        // IF, WHILE and FOR statements. Nested blocks are kept on an explicit stack instead of the Java stack, so
+        // nesting depth is only limited by memory.
+        private ASTNode compoundStatement(VariableDeclarationsNode variableDeclarationsNode) throws SyntaxErrorException, VariableInitializationException, DisplayException, VariableDeclarationException {
+            Deque<Block> blocks = new ArrayDeque<>();
+            blocks.push(openBlock(variableDeclarationsNode));
+            while(true) {
+                Block block = blocks.peek();
+                if(match(block.closer())) {
+                    if(block.kind == Token.Type.If && !block.inElse && match(Token.Type.IfElse)) {
+                        statementLine = lineOf(currentTokenIndex - 1);
+                        List<ASTNode> elseIfStatements = new ArrayList<>();
+                        block.conditions.add(parseCondition());
+                        beginIfBlock();
+                        block.elseIfBlocks.add(new ExecutableCodeNode(elseIfStatements));
+                        block.statements = elseIfStatements;
+                        continue;
+                    }
+                    if(block.kind == Token.Type.If && !block.inElse && match(Token.Type.Else)) {
+                        statementLine = lineOf(currentTokenIndex - 1);
+                        beginIfBlock();
+                        block.inElse = true;
+                        block.statements = block.elseStatements;
+                        continue;
+                    }
+                    blocks.pop();
+                    ASTNode node = block.toNode();
+                    if(blocks.isEmpty()) {
+                        return node;
+                    }
+                    blocks.peek().statements.add(node);
+                    continue;
                 }
-            } else {
-                throw new SyntaxErrorException("ERROR: Missing opening parenthesis for condition statement.", getStatementCount());
-            }
-            statementCount++;
-            return condition;
-        }
 
-        private void beginIfBlock(List<ASTNode> ifStatements, VariableDeclarationsNode variableDeclarationsNode) throws SyntaxErrorException, VariableInitializationException, DisplayException, VariableDeclarationException {
-            if (match(Token.Type.BeginIf)) {
-                statementCount++;
-                while (!match(Token.Type.EndIf)) {
-                     if (match(Token.Type.Print)) {
-                        DisplayNode displayNode = (DisplayNode) displayHandler(variableDeclarationsNode);
-                        ifStatements.add(displayNode);
-                    } else if (match(Token.Type.Identifier)) {
-                        if (match(Token.Type.Assign)) {
-                            currentTokenIndex -= 2;
-                            ifStatements.add(reinitializeVariable(variableDeclarationsNode));
-                        }
-                    } else if (match(Token.Type.Scan)) {
-                        currentTokenIndex--;
-                        ifStatements.add(scanFunction(variableDeclarationsNode));
-                    } else if(match(Token.Type.If)) {
-                        currentTokenIndex--;
-                        ifStatements.add(conditionalStatements(variableDeclarationsNode));
-                    } else if (match(Token.Type.While)) {
-                        currentTokenIndex--;
-                        ifStatements.add(parseIterative(variableDeclarationsNode));
-                    } else if(match(Token.Type.For)) {
-                        currentTokenIndex--;
-                        ifStatements.add(parseIterative(variableDeclarationsNode));
-                    } else if (match(Token.Type.Continue)) {
-                         if(!isInsideLoop) {
-                             throw new SyntaxErrorException("ERROR: CONTINUE statement found outside of LOOP block.",getStatementCount());
-                         }
-                         statementCount++;
-                         ifStatements.add(new ContinueNode());
-                     } else if (match(Token.Type.Break)) {
-                        if(!isInsideLoop) {
-                            throw new SyntaxErrorException("ERROR: BREAK statement found outside of LOOP block.", getStatementCount());
-                        }
-                        statementCount++;
-                        ifStatements.add(new BreakNode());
-                    } else if(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
-                         statementCount++;
-                     } else {
-                        throw new SyntaxErrorException("ERROR: Expected PRINT, SCAN, IF, WHILE, FOR, or BREAK statement inside IF block " +
-                                "but found " + tokens.get(currentTokenIndex).getType() + " token.\n" +
-                                "Either it is not an executable statement OR EndIf token is missing.", getStatementCount());
+                startStatement();
+                List<ASTNode> statements = block.statements;
+                if (match(Token.Type.Print)) {
+                    DisplayNode displayNode = (DisplayNode) displayHandler(variableDeclarationsNode);
+                    statements.add(displayNode);
+                } else if (match(Token.Type.Identifier)) {
+                    if (match(Token.Type.Assign)) {
+                        currentTokenIndex -= 2;
+                        statements.add(reinitializeVariable(variableDeclarationsNode));
                     }
+                } else if (match(Token.Type.Scan)) {
+                    currentTokenIndex--;
+                    statements.add(scanFunction(variableDeclarationsNode));
+                } else if(match(Token.Type.If) || match(Token.Type.While) || match(Token.Type.For)) {
+                    currentTokenIndex--;
+                    blocks.push(openBlock(variableDeclarationsNode));
+                } else if (match(Token.Type.Continue)) {
+                    if(block.kind == Token.Type.If && !isInsideLoop) {
+                        throw new SyntaxErrorException("ERROR: CONTINUE statement found outside of LOOP block.",getLineNumber());
+                    }
+                    statements.add(new ContinueNode());
+                } else if (match(Token.Type.Break)) {
+                    if(block.kind == Token.Type.If && !isInsideLoop) {
+                        throw new SyntaxErrorException("ERROR: BREAK statement found outside of LOOP block.", getLineNumber());
+                    }
+                    statements.add(new BreakNode());
+                } else if(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
+                    // comments and blank lines between statements
+                } else if(block.kind == Token.Type.If) {
+                    throw new SyntaxErrorException("ERROR: Expected PRINT, SCAN, IF, WHILE, FOR, or BREAK statement inside IF block " +
+                            "but found " + typeAt(currentTokenIndex) + " token.\n" +
+                            "Either it is not an executable statement OR EndIf token is missing.", getLineNumber());
+                } else {
+                    throw new SyntaxErrorException("ERROR: Expected PRINT, SCAN, IF, WHILE, FOR, or BREAK statement inside loop block " +
+                            "but found " + typeAt(currentTokenIndex) + " token.\n" +
+                            "Either it is not an executable statement OR EndWhile/EndFor token is missing.", getLineNumber());
                 }
-            } else {
-                throw new SyntaxErrorException("ERROR: Missing BEGIN IF token after condition statement.", getStatementCount());
             }
-            statementCount++;
         }
 
-
-
-        // Loop Statements
-        private ASTNode parseIterative(VariableDeclarationsNode variableDeclarationsNode) throws SyntaxErrorException, VariableInitializationException, DisplayException, VariableDeclarationException {
-            ASTNode condition;
-            if(match(Token.Type.While)) {
-                condition = parseCondition();
-                List<ASTNode> whileStatements = new ArrayList<>();
-                if(match(Token.Type.BeginWhile)) {
-                    statementCount++;
-                    while (!match(Token.Type.EndWhile)) {
-                        parseIterativeStatements(variableDeclarationsNode, whileStatements);
-                    }
-                } else {
-                    throw new SyntaxErrorException("ERROR: Missing BEGIN WHILE token after condition statement.", getStatementCount());
+        // Parses the header of the IF, WHILE or FOR statement at the current token, up to and including its BEGIN token.
+        private Block openBlock(VariableDeclarationsNode variableDeclarationsNode) throws SyntaxErrorException, VariableInitializationException, VariableDeclarationException {
+            Block block = new Block(typeAt(currentTokenIndex), getLineNumber());
+            if(match(Token.Type.If)) {
+                block.conditions.add(parseCondition());
+                beginIfBlock();
+            } else if(match(Token.Type.While)) {
+                block.condition = parseCondition();
+                if(!match(Token.Type.BeginWhile)) {
+                    throw new SyntaxErrorException("ERROR: Missing BEGIN WHILE token after condition statement.", getLineNumber());
                 }
-                statementCount++;
-                return new WhileLoopNode(condition, whileStatements, getStatementCount()-1);
             } else if(match(Token.Type.For)) {
-                if(match(Token.Type.Parentheses) && tokens.get(currentTokenIndex-1).getText().equals("(")) {
-                    ASTNode initialization = reinitializeVariable(variableDeclarationsNode);
-                    statementCount--;
+                if(match(Token.Type.Parentheses) && tokens.textEquals(currentTokenIndex-1, "(")) {
+                    block.initialization = reinitializeVariable(variableDeclarationsNode);
                     if (!match(Token.Type.Comma)) {
-                        throw new SyntaxErrorException("ERROR: Missing comma after initialization statement.", getStatementCount());
+                        throw new SyntaxErrorException("ERROR: Missing comma after initialization statement.", getLineNumber());
                     }
 
-                    condition = expressionHandler();
+                    block.condition = expressionHandler();
                     if (!match(Token.Type.Comma)) {
-                        throw new SyntaxErrorException("ERROR: Missing comma after condition statement.", getStatementCount());
+                        throw new SyntaxErrorException("ERROR: Missing comma after condition statement.", getLineNumber());
                     }
 
-                    ASTNode initializedUpdate = reinitializeVariable(variableDeclarationsNode);
-                    statementCount--;
+                    block.update = reinitializeVariable(variableDeclarationsNode);
 
-                    if(match(Token.Type.Parentheses) && tokens.get(currentTokenIndex-1).getText().equals(")")) {
-                        statementCount++;
-                        List<ASTNode> forStatements = new ArrayList<>();
-                        if(match(Token.Type.BeginFor)) {
-                            statementCount++;
-                            while (!match(Token.Type.EndFor)) {
-                                parseIterativeStatements(variableDeclarationsNode, forStatements);
-                            }
-                        } else {
-                            throw new SyntaxErrorException("ERROR: Missing BEGIN FOR token after condition statement.", getStatementCount());
+                    if(match(Token.Type.Parentheses) && tokens.textEquals(currentTokenIndex-1, ")")) {
+                        if(!match(Token.Type.BeginFor)) {
+                            throw new SyntaxErrorException("ERROR: Missing BEGIN FOR token after condition statement.", getLineNumber());
                         }
-                        forStatements.add(initializedUpdate);
-                        statementCount++;
-                        return new ForLoopNode(initialization, condition, forStatements, getStatementCount()-1);
                     } else {
-                        throw new SyntaxErrorException("ERROR: Missing closing parenthesis for FOR loop statement.", getStatementCount());
+                        throw new SyntaxErrorException("ERROR: Missing closing parenthesis for FOR loop statement.", getLineNumber());
                     }
                 } else {
-                    throw new SyntaxErrorException("ERROR: Missing opening parenthesis for FOR loop statement.", getStatementCount());
+                    throw new SyntaxErrorException("ERROR: Missing opening parenthesis for FOR loop statement.", getLineNumber());
                 }
             }
-            return null;
+            return block;
         }
 
-
-
-        private void parseIterativeStatements(VariableDeclarationsNode variableDeclarationsNode, List<ASTNode> statements) throws VariableDeclarationException, SyntaxErrorException, VariableInitializationException, DisplayException {
-            if (match(Token.Type.Print)) {
-                DisplayNode displayNode = (DisplayNode) displayHandler(variableDeclarationsNode);
-                statements.add(displayNode);
-            } else if (match(Token.Type.Identifier)) {
-                if (match(Token.Type.Assign)) {
-                    currentTokenIndex -= 2;
-                    statements.add(reinitializeVariable(variableDeclarationsNode));
+        private ASTNode parseCondition() throws SyntaxErrorException, VariableInitializationException {
+            ASTNode condition;
+            if(match(Token.Type.Parentheses) && tokens.textEquals(currentTokenIndex-1, "(")) {
+                condition = expressionHandler();
+                if (!match(Token.Type.Parentheses) || !tokens.textEquals(currentTokenIndex - 1, ")")) {
+                    throw new SyntaxErrorException("ERROR: Missing closing parenthesis for condition statement.", getLineNumber());
                 }
-            } else if (match(Token.Type.Scan)) {
-                currentTokenIndex--;
-                statements.add(scanFunction(variableDeclarationsNode));
-            } else if(match(Token.Type.If)) {
-                currentTokenIndex--;
-                statements.add(conditionalStatements(variableDeclarationsNode));
-            } else if (match(Token.Type.While)) {
-                currentTokenIndex--;
-                statements.add(parseIterative(variableDeclarationsNode));
-            } else if (match(Token.Type.For)) {
-                currentTokenIndex--;
-                statements.add(parseIterative(variableDeclarationsNode));
-            } else if(match(Token.Type.Continue)) {
-                statementCount++;
-                statements.add(new ContinueNode());
-            } else if (match(Token.Type.Break)) {
-                statementCount++;
-                statements.add(new BreakNode());
-            } else if(match(Token.Type.Comment) || match(Token.Type.BlankLine)) {
-                statementCount++;
             } else {
-                throw new SyntaxErrorException("ERROR: Expected PRINT, SCAN, IF, WHILE, FOR, or BREAK statement inside loop block " +
-                        "but found " + tokens.get(currentTokenIndex).getType() + " token.\n" +
-                        "Either it is not an executable statement OR EndWhile/EndFor token is missing.", getStatementCount());
+                throw new SyntaxErrorException("ERROR: Missing opening parenthesis for condition statement.", getLineNumber());
+            }
+            return condition;
+        }
+
+        private void beginIfBlock() throws SyntaxErrorException {
+            if (!match(Token.Type.BeginIf)) {
+                throw new SyntaxErrorException("ERROR: Missing BEGIN IF token after condition statement.", getLineNumber());
+            }
+        }
+
+        // An IF, WHILE or FOR statement whose body is being parsed; statements is the list the next statement goes to.
+        private static class Block {
+            final Token.Type kind;
+            final int line;
+            final List<ASTNode> conditions = new ArrayList<>();
+            final List<ASTNode> ifStatements = new ArrayList<>();
+            final List<ExecutableCodeNode> elseIfBlocks = new ArrayList<>();
+            final List<ASTNode> elseStatements = new ArrayList<>();
+            boolean inElse;
+            ASTNode condition;
+            ASTNode initialization;
+            ASTNode update;
+            List<ASTNode> statements;
+
+            Block(Token.Type kind, int line) {
+                this.kind = kind;
+                this.line = line;
+                this.statements = kind == Token.Type.If ? ifStatements : new ArrayList<>();
+            }
+
+            Token.Type closer() {
+                return switch (kind) {
+                    case If -> Token.Type.EndIf;
+                    case While -> Token.Type.EndWhile;
+                    default -> Token.Type.EndFor;
+                };
+            }
+
+            ASTNode toNode() {
+                return switch (kind) {
+                    case If -> new ConditionalNode(conditions, new ExecutableCodeNode(ifStatements), elseIfBlocks, new ExecutableCodeNode(elseStatements), line);
+                    case While -> new WhileLoopNode(condition, statements, line);
+                    default -> {
+                        statements.add(update);
+                        yield new ForLoopNode(initialization, condition, statements, line);
+                    }
+                };
             }
         }
 
@@ -706,144 +839,141 @@
      * EXPRESSION PARSING
      ************************************************************************/
 
-    private ASTNode expr() throws SyntaxErrorException, VariableInitializationException {
-        ASTNode logicalAnd = logicalAnd();
-        if (logicalAnd != null) {
-            while (match(Token.Type.Or)) {
-                Token.Type operator = tokens.get(currentTokenIndex - 1).getType();
-                ASTNode rightOperand = logicalAnd();
-                if (rightOperand != null) {
-                    logicalAnd = new LogicalExpressionNode(logicalAnd, operator, rightOperand, getStatementCount());
-                } else {
-                    throw new SyntaxErrorException("ERROR: " + tokens.get(currentTokenIndex).getType() + " " +
-                            tokens.get(currentTokenIndex).getText() + " is not a valid operand.", getStatementCount());
-                }
-            }
-        }
-        return logicalAnd;
+    // Binding power of each binary operator, 0 for tokens that are not one. All of them are left associative; unary
+    // NOT and negation bind tighter than any of them and apply to the operand right after them.
+    private static final int[] BINDING_POWER = new int[Token.Type.values().length];
+    private static final int LOGICAL_OR = 1;
+    private static final int LOGICAL_AND = 2;
+    private static final int COMPARISON = 3;
+    private static final int ADDITIVE = 4;
+    private static final int MULTIPLICATIVE = 5;
+
+    static {
+        BINDING_POWER[Token.Type.Or.ordinal()] = LOGICAL_OR;
+        BINDING_POWER[Token.Type.And.ordinal()] = LOGICAL_AND;
+        for (Token.Type type : new Token.Type[]{Token.Type.Less, Token.Type.LessEqual, Token.Type.Greater,
+                Token.Type.GreaterEqual, Token.Type.Equals, Token.Type.NotEqual}) {
+            BINDING_POWER[type.ordinal()] = COMPARISON;
+        }
+        BINDING_POWER[Token.Type.Plus.ordinal()] = ADDITIVE;
+        BINDING_POWER[Token.Type.Minus.ordinal()] = ADDITIVE;
+        BINDING_POWER[Token.Type.Times.ordinal()] = MULTIPLICATIVE;
+        BINDING_POWER[Token.Type.Divide.ordinal()] = MULTIPLICATIVE;
+        BINDING_POWER[Token.Type.Modulo.ordinal()] = MULTIPLICATIVE;
     }
 
+    // operator and operand stacks of expr, which never runs nested, kept to avoid allocating them per expression
+    private final ArrayList<Token.Type> pendingOperators = new ArrayList<>();
+    private final ArrayList<ASTNode> pendingOperands = new ArrayList<>();
 
+    private static int bindingPower(Token.Type type) {
+        return type == null ? 0 : BINDING_POWER[type.ordinal()];
+    }
 
-    private ASTNode logicalAnd() throws SyntaxErrorException, VariableInitializationException {
-        ASTNode comp = comp();
-        if (comp != null) {
-            while (match(Token.Type.And)) {
-                Token.Type operator = tokens.get(currentTokenIndex - 1).getType();
-                ASTNode rightOperand = comp();
-                if (rightOperand != null) {
-                    comp = new LogicalExpressionNode(comp, operator, rightOperand, getStatementCount());
+    // Expression -> Operand (BinaryOperator Operand)*, Operand -> NOT* (Factor | '(' Expression ')').
+    // Operators and open parentheses wait on an explicit stack until an operator that binds no tighter, or the
+    // closing parenthesis, folds them, so long chains and deep nesting do not grow the Java stack.
+    private ASTNode expr() throws SyntaxErrorException, VariableInitializationException {
+        ArrayList<Token.Type> operators = pendingOperators;
+        ArrayList<ASTNode> operands = pendingOperands;
+        operators.clear();
+        operands.clear();
+        while (true) {
+            // an operand, after any number of NOTs and opening parentheses
+            ASTNode operand = null;
+            while (operand == null) {
+                if (match(Token.Type.Not)) {
+                    operators.add(Token.Type.Not);
+                } else if (match(Token.Type.Parentheses)) {
+                    if (!tokens.textEquals(currentTokenIndex - 1, "(")) {
+                        break;
+                    }
+                    operators.add(Token.Type.Parentheses);
+                } else if (match(Token.Type.Negation)) {
+                    if (match(Token.Type.Identifier)) {
+                        operand = variableNode(currentTokenIndex - 1, -1);
+                    } else if (match(Token.Type.Num)) {
+                        operand = new LiteralNode(-(Integer.parseInt(tokens.getText(currentTokenIndex - 1))));
+                    } else if (match(Token.Type.NumFloat)) {
+                        operand = new LiteralNode(-(Float.parseFloat(tokens.getText(currentTokenIndex - 1))));
+                    } else if (match(Token.Type.Parentheses) && tokens.textEquals(currentTokenIndex - 1, "(")) {
+                        operators.add(Token.Type.Parentheses);
+                    } else {
+                        throw new SyntaxErrorException("ERROR: Negation token found but number token is missing.", getLineNumber());
+                    }
                 } else {
-                    throw new SyntaxErrorException("ERROR: " + tokens.get(currentTokenIndex).getType() + " " +
-                            tokens.get(currentTokenIndex).getText() + " is not a valid operand.", getStatementCount());
+                    operand = factor();
+                    if (operand == null) {
+                        break;
+                    }
                 }
             }
-        }
-        return comp;
-    }
-
-
-    private ASTNode comp() throws SyntaxErrorException, VariableInitializationException {
-        ASTNode arithmeticExpr = arithmeticExpr();
-        if (arithmeticExpr != null) {
-            while (match(Token.Type.Less) || match(Token.Type.LessEqual) || match(Token.Type.Greater) ||
-                    match(Token.Type.GreaterEqual) || match(Token.Type.Equals) || match(Token.Type.NotEqual)) {
-                Token.Type operator = tokens.get(currentTokenIndex - 1).getType();
-                ASTNode rightOperand = arithmeticExpr();
-                if (rightOperand != null) {
-                    arithmeticExpr = new ComparisonExpressionNode(arithmeticExpr, operator, rightOperand, getStatementCount());
-                } else {
-                    throw new SyntaxErrorException("ERROR: " + tokens.get(currentTokenIndex).getType() + " " +
-                            tokens.get(currentTokenIndex).getText() + " is not a valid operand.", getStatementCount());
+            if (operand == null) {
+                Token.Type pending = operators.isEmpty() ? null : operators.getLast();
+                if (pending == null) {
+                    return null;
+                } else if (pending == Token.Type.Not) {
+                    throw new SyntaxErrorException("ERROR: NOT operator found but operand to be complemented is missing.", getLineNumber());
+                } else if (pending == Token.Type.Parentheses) {
+                    throw new SyntaxErrorException("ERROR: Invalid parsing of expression. Null value found.", getLineNumber());
                 }
+                throw new SyntaxErrorException("ERROR: " + typeAt(currentTokenIndex) + " " +
+                        textAt(currentTokenIndex) + " is not a valid operand.", getLineNumber());
             }
-        }
-        return arithmeticExpr;
-    }
-
-
-    private ASTNode arithmeticExpr() throws SyntaxErrorException, VariableInitializationException {
-        ASTNode term = term();
 
-        if (term != null) {
-            while (match(Token.Type.Plus) || match(Token.Type.Minus)) {
-                Token.Type operator = tokens.get(currentTokenIndex - 1).getType();
-                ASTNode rightOperand = term();
-                if (rightOperand != null) {
-                    term = new ArithmeticExpressionNode(term, operator, rightOperand, getStatementCount());
-                } else {
-                    throw new SyntaxErrorException("ERROR: " + tokens.get(currentTokenIndex).getType() + " " +
-                            tokens.get(currentTokenIndex).getText() + " is not a valid operand.", getStatementCount());
+            // fold finished operands: NOTs right away, binary operators once nothing binds tighter
+            while (true) {
+                while (!operators.isEmpty() && operators.getLast() == Token.Type.Not) {
+                    operators.removeLast();
+                    operand = new LogicalExpressionNode(operand, Token.Type.Not, null, getLineNumber());
+                }
+                Token.Type operator = typeAt(currentTokenIndex);
+                int power = bindingPower(operator);
+                while (!operators.isEmpty() && bindingPower(operators.getLast()) >= Math.max(power, 1)) {
+                    operand = binaryNode(operands.removeLast(), operators.removeLast(), operand);
                 }
+                if (power > 0 && match(operator)) {
+                    operands.add(operand);
+                    operators.add(operator);
+                    break;
+                }
+                if (operators.isEmpty()) {
+                    return operand;
+                }
+                // only an open parenthesis can be left here
+                if (!(operator == Token.Type.Parentheses && tokens.textEquals(currentTokenIndex, ")") && match(Token.Type.Parentheses))) {
+                    throw new SyntaxErrorException("ERROR: Invalid expression format. Missing closing parenthesis.", getLineNumber());
+                }
+                operators.removeLast();
             }
         }
-        return term;
     }
 
-    private ASTNode term() throws SyntaxErrorException, VariableInitializationException {
-        ASTNode factor = factor();
-        if(factor != null) {
-            while (match(Token.Type.Times) || match(Token.Type.Divide) || match(Token.Type.Modulo)) {
-                Token.Type operator = tokens.get(currentTokenIndex - 1).getType();
-                ASTNode rightOperand = factor();
-                if (rightOperand != null) {
-                    factor = new ArithmeticExpressionNode(factor, operator, rightOperand, getStatementCount());
-                } else {
-                    throw new SyntaxErrorException("ERROR: " + tokens.get(currentTokenIndex).getType() + " " +
-                            tokens.get(currentTokenIndex).getText() + " is not a valid operand.", getStatementCount());
-                }
-            }
+    private ASTNode binaryNode(ASTNode left, Token.Type operator, ASTNode right) {
+        int power = bindingPower(operator);
+        if (power <= LOGICAL_AND) {
+            return new LogicalExpressionNode(left, operator, right, getLineNumber());
+        } else if (power == COMPARISON) {
+            return new ComparisonExpressionNode(left, operator, right, getLineNumber());
         }
-
-        return factor;
+        return new ArithmeticExpressionNode(left, operator, right, getLineNumber());
     }
 
 
-    private ASTNode factor() throws SyntaxErrorException, VariableInitializationException {
-        if (match(Token.Type.Negation)) {
-            if(match(Token.Type.Identifier)) {
-                return new VariableNode(tokens.get(currentTokenIndex-1).getText(), -1);
-            } if (match(Token.Type.Num)) {
-                return new LiteralNode(-(Integer.parseInt(tokens.get(currentTokenIndex - 1).getText())));
-            } else if (match(Token.Type.NumFloat)) {
-                return new LiteralNode(-(Float.parseFloat(tokens.get(currentTokenIndex - 1).getText())));
-            }
-            ASTNode expression = parenthesisExpression();
-            if (expression != null) return expression;
-            throw new SyntaxErrorException("ERROR: Negation token found but number token is missing.", getStatementCount());
-        } else if (match(Token.Type.Not)) {
-            Token.Type type = tokens.get(currentTokenIndex - 1).getType();
-            ASTNode operand = factor();
-            if (operand != null) {
-                return new LogicalExpressionNode(operand, type, null, getStatementCount());
-            } else {
-                throw new SyntaxErrorException("ERROR: NOT operator found but operand to be complemented is missing.", getStatementCount());
-            }
-        } else if (match(Token.Type.Num)) {
-            return new LiteralNode(Integer.parseInt(tokens.get(currentTokenIndex - 1).getText()));
+    private ASTNode factor() {
+        if (match(Token.Type.Num)) {
+            return new LiteralNode(Integer.parseInt(tokens.getText(currentTokenIndex - 1)));
         } else if (match(Token.Type.Identifier)) {
-            return new VariableNode(tokens.get(currentTokenIndex-1).getText(), null);
+            return variableNode(currentTokenIndex-1, null);
         } else if (match(Token.Type.NumFloat)) {
-            return new LiteralNode(Float.parseFloat(tokens.get(currentTokenIndex - 1).getText()));
+            return new LiteralNode(Float.parseFloat(tokens.getText(currentTokenIndex - 1)));
         } else if (match(Token.Type.CharLiteral)) {
-            return new LiteralNode(tokens.get(currentTokenIndex-1).getText().charAt(0));
+            return new LiteralNode(tokens.getText(currentTokenIndex-1).charAt(0));
         } else if(match(Token.Type.BooleanLiteral)) {
-            return new LiteralNode(tokens.get(currentTokenIndex - 1).getText());
-        } else {
-            return parenthesisExpression();
+            return LiteralNode.of(tokens.textEquals(currentTokenIndex - 1, "TRUE"));
         }
+        return null;
     }
 
-        private ASTNode parenthesisExpression() throws SyntaxErrorException, VariableInitializationException {
-            if (match(Token.Type.Parentheses) && tokens.get(currentTokenIndex - 1).getText().equals("(")) {
-                ASTNode expression = expressionHandler();
-                if (tokens.get(currentTokenIndex).getText().equals(")") && match(Token.Type.Parentheses)) {
-                    return expression;
-                }
-                throw new SyntaxErrorException("ERROR: Invalid expression format. Missing closing parenthesis.", getStatementCount());
-            }
-            return null;
-        }
-
 
     }
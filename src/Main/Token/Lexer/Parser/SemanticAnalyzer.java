@@ -6,6 +6,8 @@ import Main.ExceptionHandlers.VariableDeclarationException;
 import Main.ExceptionHandlers.VariableInitializationException;
 import Main.Nodes.ASTNodes.*;
 import Main.Nodes.AssignmentValidator;
+import Main.Nodes.BlockExecutor;
+import Main.Nodes.DataType;
 import Main.Nodes.EvaluableNodes.VariableNode;
 import Main.Nodes.ExpressionNodes.ExpressionNode;
 import Main.Nodes.SymbolTable;
@@ -33,54 +35,52 @@ public class SemanticAnalyzer {
             List<SingleVariableDeclaration> declarations = variableDeclarationsNode.getVariableDeclarations();
             for(SingleVariableDeclaration declaration : declarations) {
                 String dataType = declaration.getDataType();
+                DataType type = DataType.of(dataType);
                 for(VariableNode variableNode : declaration.getVariableNames()) {
-                    String variableName = variableNode.getVariableName();
                     switch (variableNode.getInitialValue()) {
                         case ExpressionNode expressionNode -> {
                             // INT x = a+b
                             Object value = expressionNode.evaluateExpression(getSymbolTable()).getValue();
-                            new VariableNode(variableName, value).evaluate(getSymbolTable());
+                            getSymbolTable().setValue(variableNode, new LiteralNode(type.coerce(value)));
                         }
                         case VariableNode varNode -> {
                             // INT x = b
                             String varName = varNode.getVariableName();
                             LiteralNode initialValue;
-                            if(!getSymbolTable().getInitializedVariables().containsKey(varName)) {
+                            if(!getSymbolTable().contains(varNode)) {
                                 throw new VariableDeclarationException("ERROR: Variable " + varName + " is not declared.", declarations.indexOf(declaration)+1);
-                            } else if(getSymbolTable().getValue(varName) == null || getSymbolTable().getValue(varName).getValue() == null) {
+                            } else if(getSymbolTable().getValue(varNode) == null || getSymbolTable().getValue(varNode).getValue() == null) {
                                 throw new VariableInitializationException("ERROR: Variable " + varName + " is not initialized.", declarations.indexOf(declaration)+1);
                             } else if(varNode.getInitialValue() == null) {
-                                initialValue = getSymbolTable().getValue(varName);
+                                initialValue = getSymbolTable().getValue(varNode);
                             } else if ((int) varNode.getInitialValue() == -1) {
-                                if (getSymbolTable().getValue(varName).getValue() instanceof Integer) {
-                                    initialValue = new LiteralNode((int) getSymbolTable().getValue(varName).getValue()*-1);
-                                } else if (getSymbolTable().getValue(varName).getValue() instanceof Double) {
-                                    initialValue = new LiteralNode((double) getSymbolTable().getValue(varName).getValue()*-1.0);
+                                if (getSymbolTable().getValue(varNode).getValue() instanceof Integer) {
+                                    initialValue = new LiteralNode((int) getSymbolTable().getValue(varNode).getValue()*-1);
+                                } else if (getSymbolTable().getValue(varNode).getValue() instanceof Float floatValue) {
+                                    initialValue = new LiteralNode(floatValue*-1.0f);
                                 } else {
                                     throw new VariableInitializationException("ERROR: Value of type " + dataType + " cannot be negated.", declarations.indexOf(declaration)+1);
                                 }
                             } else {
                                 initialValue = new LiteralNode(varNode.getInitialValue());
                             }
-                            AssignmentValidator.validateAssignmentType(dataType, variableNode.getVariableName(), initialValue, declarations.indexOf(declaration)+1);
-                            new VariableNode(variableName, initialValue.getValue()).evaluate(getSymbolTable());
+                            if(variableNode.getType() == null || varNode.getType() == null) {
+                                // not checked by the TypeChecker
+                                AssignmentValidator.validateAssignmentType(dataType, variableNode.getVariableName(), initialValue, declarations.indexOf(declaration)+1);
+                            }
+                            getSymbolTable().setValue(variableNode, new LiteralNode(type.coerce(initialValue.getValue())));
                         }
                         case LiteralNode literalNode -> {
                             // INT x=100
                             AssignmentValidator.validateAssignmentType(dataType, variableNode.getVariableName(), literalNode, declarations.indexOf(declaration)+1);
-                            new VariableNode(variableNode.getVariableName(), literalNode.getValue()).evaluate(getSymbolTable());
+                            getSymbolTable().setValue(variableNode, new LiteralNode(type.coerce(literalNode.getValue())));
                         }
-                        case null, default -> variableNode.evaluate(getSymbolTable());
+                        case null, default -> getSymbolTable().setValue(variableNode, new LiteralNode(type.coerce(variableNode.getInitialValue())));
                     }
                 }
             }
         } else if(node instanceof ExecutableCodeNode executableCodeNode) {
-            List<ASTNode> executables = executableCodeNode.getStatements();
-            for(ASTNode statement : executables) {
-                if(statement instanceof EvaluableNode evaluableNode) {
-                    evaluableNode.evaluate(getSymbolTable());
-                }
-            }
+            BlockExecutor.execute(executableCodeNode.getStatements(), getSymbolTable());
         }
     }
 }
\ No newline at end of file
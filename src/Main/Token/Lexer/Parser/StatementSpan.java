@@ -0,0 +1,33 @@
+package Main.Token.Lexer.Parser;
+
+import Main.Nodes.ASTNodes.ASTNode;
+
+// Tokens [start, end) consumed by one top-level step of the executable code. The statement is null for steps
+// that only consumed comments or blank lines.
+class StatementSpan {
+    private final int start;
+    private final int end;
+    private final ASTNode statement;
+
+    StatementSpan(int start, int end, ASTNode statement) {
+        this.start = start;
+        this.end = end;
+        this.statement = statement;
+    }
+
+    int getStart() {
+        return start;
+    }
+
+    int getEnd() {
+        return end;
+    }
+
+    ASTNode getStatement() {
+        return statement;
+    }
+
+    StatementSpan shift(int tokenShift) {
+        return new StatementSpan(start + tokenShift, end + tokenShift, statement);
+    }
+}
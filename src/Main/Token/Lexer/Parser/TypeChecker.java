@@ -0,0 +1,222 @@
+package Main.Token.Lexer.Parser;
+
+import Main.ExceptionHandlers.TypeMismatchException;
+import Main.Nodes.ASTNodes.*;
+import Main.Nodes.DataType;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.ForLoopNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.ScannerNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Nodes.ExpressionNodes.ComparisonExpressionNode;
+import Main.Nodes.ExpressionNodes.ExpressionNode;
+import Main.Nodes.ExpressionNodes.LogicalExpressionNode;
+import Main.Token.Token;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Runs between the Parser and the SemanticAnalyzer. Resolves every variable reference to its declared type and frame
+// slot, gives every expression the type it produces and is computed in, so the evaluator can skip its checks on the
+// operand values, and reports operations and assignments whose types cannot match before the program runs. Operands
+// whose type is not known are left unannotated and checked at run time as before.
+public class TypeChecker {
+    private DeclarationIndex index;
+
+    public void check(ProgramNode programNode) throws TypeMismatchException {
+        VariableDeclarationsNode declarations = (VariableDeclarationsNode) programNode.getVariableDeclarations();
+        index = declarations.getIndex();
+        for (SingleVariableDeclaration declaration : declarations.getVariableDeclarations()) {
+            for (VariableNode variableNode : declaration.getVariableNames()) {
+                resolve(variableNode);
+                if (variableNode.getInitialValue() != null) {
+                    checkAssignment(variableNode, valueType(variableNode.getInitialValue(), declaration.getLineNumber()), declaration.getLineNumber());
+                }
+            }
+        }
+
+        // bodies are checked from an explicit stack, like BlockExecutor runs them
+        Deque<List<ASTNode>> blocks = new ArrayDeque<>();
+        blocks.push(((ExecutableCodeNode) programNode.getExecutableCode()).getStatements());
+        while (!blocks.isEmpty()) {
+            for (ASTNode statement : blocks.pop()) {
+                switch (statement) {
+                    case VariableReinitializedNode reinitializedNode -> checkReinitialization(reinitializedNode);
+                    case ScannerNode scannerNode -> {
+                        for (VariableNode variableNode : scannerNode.getVariableNames()) {
+                            resolve(variableNode);
+                        }
+                    }
+                    case DisplayNode displayNode -> {
+                        for (ASTNode expression : displayNode.getExpressions()) {
+                            infer(expression, displayNode.getLineNumber());
+                        }
+                    }
+                    case ConditionalNode conditionalNode -> {
+                        for (ASTNode condition : conditionalNode.getConditions()) {
+                            checkCondition(condition, conditionalNode.getLineNumber());
+                        }
+                        blocks.push(conditionalNode.getIfStatements().getStatements());
+                        for (ExecutableCodeNode elseIfBlock : conditionalNode.getElseIfBlocks()) {
+                            blocks.push(elseIfBlock.getStatements());
+                        }
+                        blocks.push(conditionalNode.getElseStatements().getStatements());
+                    }
+                    case IterativeNode iterativeNode -> {
+                        if (iterativeNode instanceof ForLoopNode forLoopNode && forLoopNode.getInitialization() instanceof VariableReinitializedNode initialization) {
+                            checkReinitialization(initialization);
+                        }
+                        checkCondition(iterativeNode.getCondition(), iterativeNode.getLineNumber());
+                        blocks.push(iterativeNode.getIterativeStatements());
+                    }
+                    case null, default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkReinitialization(VariableReinitializedNode reinitializedNode) throws TypeMismatchException {
+        // a parenthesized literal arrives as a LiteralNode inside the value; the engines get the literal itself
+        while (reinitializedNode.getValue().getValue() instanceof LiteralNode literalNode) {
+            reinitializedNode.setValue(literalNode);
+        }
+        DataType valueType = valueType(reinitializedNode.getValue().getValue(), reinitializedNode.getLineNumber());
+        boolean checked = valueType != null;
+        for (VariableNode target : reinitializedNode.getVariableNames()) {
+            checked &= resolve(target) != null;
+            checkAssignment(target, valueType, reinitializedNode.getLineNumber());
+        }
+        reinitializedNode.setValueType(checked ? valueType : null);
+    }
+
+    private void checkAssignment(VariableNode target, DataType valueType, int lineNumber) throws TypeMismatchException {
+        if (target.getType() != null && valueType != null && !target.getType().accepts(valueType)) {
+            throw new TypeMismatchException("ERROR: Cannot assign a value of type " + valueType + " to variable '" +
+                    target.getVariableName() + "' of type " + target.getType() + ".", lineNumber);
+        }
+    }
+
+    private void checkCondition(ASTNode condition, int lineNumber) throws TypeMismatchException {
+        DataType type = infer(condition, lineNumber);
+        if (type != null && type != DataType.BOOL) {
+            throw new TypeMismatchException("ERROR: Condition must be of type BOOL but is of type " + type + ".", lineNumber);
+        }
+    }
+
+    // Assigned values are expressions, variables, or the literal values themselves, also inside parentheses.
+    private DataType valueType(Object value, int lineNumber) throws TypeMismatchException {
+        while (value instanceof LiteralNode literalNode) {
+            value = literalNode.getValue();
+        }
+        return value instanceof ASTNode node ? infer(node, lineNumber) : DataType.ofValue(value);
+    }
+
+    private DataType resolve(VariableNode variableNode) {
+        variableNode.setType(DataType.of(index.getDataType(variableNode.getSymbolId())));
+        variableNode.setSlot(index.getSlot(variableNode.getSymbolId()));
+        return variableNode.getType();
+    }
+
+    // Type of an operand, annotating it on the way. Expressions are visited in post-order from explicit stacks, so
+    // their depth does not grow the Java stack.
+    private DataType infer(ASTNode node, int lineNumber) throws TypeMismatchException {
+        switch (node) {
+            case LiteralNode literalNode -> {
+                return DataType.ofValue(literalNode.getValue());
+            }
+            case VariableNode variableNode -> {
+                DataType type = resolve(variableNode);
+                if (variableNode.getInitialValue() != null && type != null && !type.isNumeric()) {
+                    throw new TypeMismatchException("ERROR: Value of type " + type + " cannot be negated.", lineNumber);
+                }
+                return type;
+            }
+            case ExpressionNode expressionNode -> {
+                Deque<ExpressionNode> pending = new ArrayDeque<>();
+                List<ExpressionNode> postOrder = new ArrayList<>();
+                pending.push(expressionNode);
+                while (!pending.isEmpty()) {
+                    ExpressionNode current = pending.pop();
+                    postOrder.add(current);
+                    if (current.getLeftOperand() instanceof ExpressionNode left) {
+                        pending.push(left);
+                    }
+                    if (current.getRightOperand() instanceof ExpressionNode right) {
+                        pending.push(right);
+                    }
+                }
+                ExpressionNode[] nodes = new ExpressionNode[postOrder.size()];
+                for (int i = postOrder.size() - 1; i >= 0; i--) {
+                    nodes[nodes.length - 1 - i] = postOrder.get(i);
+                    annotate(postOrder.get(i));
+                }
+                // a node only gets a type when its operands have one, so a typed root means a fully typed tree
+                if (expressionNode.getType() != null) {
+                    expressionNode.setPostOrder(nodes);
+                }
+                return expressionNode.getType();
+            }
+            case null, default -> {
+                return null;
+            }
+        }
+    }
+
+    // Operand expressions are annotated already.
+    private void annotate(ExpressionNode expressionNode) throws TypeMismatchException {
+        int lineNumber = expressionNode.getLineNumber();
+        DataType left = operandType(expressionNode.getLeftOperand(), lineNumber);
+        DataType right = operandType(expressionNode.getRightOperand(), lineNumber);
+        switch (expressionNode) {
+            case ArithmeticExpressionNode arithmeticNode -> {
+                if (left == null || right == null) {
+                    return;
+                }
+                if (!left.isNumeric() || !right.isNumeric()) {
+                    throw new TypeMismatchException("ERROR: Unsupported operand types: " + left + " and " + right + ".", lineNumber);
+                }
+                DataType type = left == DataType.INT && right == DataType.INT ? DataType.INT : DataType.FLOAT;
+                arithmeticNode.setTypes(type, type);
+            }
+            case ComparisonExpressionNode comparisonNode -> {
+                if (left == null || right == null) {
+                    return;
+                }
+                if (left.isNumeric() && right.isNumeric()) {
+                    DataType operandType = left == DataType.INT && right == DataType.INT ? DataType.INT : DataType.FLOAT;
+                    comparisonNode.setTypes(DataType.BOOL, operandType);
+                } else if (left != right) {
+                    throw new TypeMismatchException("ERROR: Comparison operation can only be applied to same data types.", lineNumber);
+                } else if (comparisonNode.getOperator() != Token.Type.Equals && comparisonNode.getOperator() != Token.Type.NotEqual) {
+                    throw new TypeMismatchException("ERROR: Cannot apply operation type to value of type " + left + ".", lineNumber);
+                } else {
+                    comparisonNode.setTypes(DataType.BOOL, left);
+                }
+            }
+            case LogicalExpressionNode logicalNode -> {
+                if (expressionNode.getRightOperand() == null) {
+                    if (left != null && left != DataType.BOOL) {
+                        throw new TypeMismatchException("ERROR: Unary operation can only be applied to boolean types.", lineNumber);
+                    }
+                } else if ((left != null && left != DataType.BOOL) || (right != null && right != DataType.BOOL)) {
+                    throw new TypeMismatchException("ERROR: Unsupported operand types: " + left + " and " + right + ".", lineNumber);
+                }
+                if (left != null && (expressionNode.getRightOperand() == null || right != null)) {
+                    logicalNode.setTypes(DataType.BOOL, DataType.BOOL);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private DataType operandType(ASTNode operand, int lineNumber) throws TypeMismatchException {
+        return operand instanceof ExpressionNode expressionNode ? expressionNode.getType() : infer(operand, lineNumber);
+    }
+}
@@ -0,0 +1,103 @@
+package Main.Token.Lexer;
+
+import java.nio.ByteBuffer;
+
+// Search loops used by the Lexer for comments, string/char literals and runs of spaces.
+// Over a MappedSource the bytes are examined eight at a time inside a long (SWAR); any other
+// CharSequence, or -Dcode.lexer.swar=false, takes the plain char-by-char loop.
+public final class ScanKernel {
+    private static final boolean SWAR_ENABLED = !"false".equals(System.getProperty("code.lexer.swar"));
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long SPACES = ' ' * ONES;
+
+    private ScanKernel() {
+    }
+
+    // Index of the first target character in [from, to), or to when there is none.
+    public static int indexOf(CharSequence input, int from, int to, char target) {
+        if (SWAR_ENABLED && input instanceof MappedSource mapped) {
+            ByteBuffer bytes = mapped.getBuffer();
+            long pattern = target * ONES;
+            int i = from;
+            for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                long matches = zeroBytes(bytes.getLong(i) ^ pattern);
+                if (matches != 0) {
+                    return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+                }
+            }
+            from = i;
+        }
+        for (int i = from; i < to; i++) {
+            if (input.charAt(i) == target) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    // Index of the first occurrence of either character in [from, to), or to when there is none.
+    public static int indexOfEither(CharSequence input, int from, int to, char first, char second) {
+        if (SWAR_ENABLED && input instanceof MappedSource mapped) {
+            ByteBuffer bytes = mapped.getBuffer();
+            long firstPattern = first * ONES;
+            long secondPattern = second * ONES;
+            int i = from;
+            for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                long word = bytes.getLong(i);
+                long matches = zeroBytes(word ^ firstPattern) | zeroBytes(word ^ secondPattern);
+                if (matches != 0) {
+                    return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+                }
+            }
+            from = i;
+        }
+        for (int i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (c == first || c == second) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    // Index of the first character in [from, to) that is not a space, or to when there is none.
+    public static int skipSpaces(CharSequence input, int from, int to) {
+        // most runs are a single space between tokens, only longer ones (indentation) are worth a word loop
+        int limit = Math.min(to, from + Long.BYTES);
+        for (; from < limit; from++) {
+            if (input.charAt(from) != ' ') {
+                return from;
+            }
+        }
+        if (SWAR_ENABLED && input instanceof MappedSource mapped) {
+            ByteBuffer bytes = mapped.getBuffer();
+            int i = from;
+            for (; i + Long.BYTES <= to; i += Long.BYTES) {
+                long others = nonZeroBytes(bytes.getLong(i) ^ SPACES);
+                if (others != 0) {
+                    return i + (Long.numberOfTrailingZeros(others) >>> 3);
+                }
+            }
+            from = i;
+        }
+        for (int i = from; i < to; i++) {
+            if (input.charAt(i) != ' ') {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    // High bit set in every byte that is zero. Exact for the lowest such byte, which is all callers use.
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    // High bit set in exactly the bytes that are not zero.
+    private static long nonZeroBytes(long word) {
+        return (((word & LOW_BITS) + LOW_BITS) | word) & HIGH_BITS;
+    }
+}
@@ -0,0 +1,42 @@
+package Main.Token.Lexer;
+
+import java.util.Objects;
+
+// A single change to a source text: removedLength characters at offset are replaced by insertedText.
+public class TextEdit {
+    private final int offset;
+    private final int removedLength;
+    private final String insertedText;
+
+    public TextEdit(int offset, int removedLength, String insertedText) {
+        this.offset = offset;
+        this.removedLength = removedLength;
+        this.insertedText = insertedText;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getRemovedLength() {
+        return removedLength;
+    }
+
+    public String getInsertedText() {
+        return insertedText;
+    }
+
+    // How far text after the edit moves.
+    public int getDelta() {
+        return insertedText.length() - removedLength;
+    }
+
+    public String apply(CharSequence source) {
+        Objects.checkFromIndexSize(offset, removedLength, source.length());
+        return new StringBuilder(source.length() + getDelta())
+                .append(source, 0, offset)
+                .append(insertedText)
+                .append(source, offset + removedLength, source.length())
+                .toString();
+    }
+}
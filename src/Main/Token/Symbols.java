@@ -0,0 +1,102 @@
+package Main.Token;
+
+import java.util.Arrays;
+
+// Per-program identifier interner. Every distinct identifier gets a dense int id when it is first lexed,
+// so later stages compare and index variables by id. The name String is built once per distinct identifier.
+public class Symbols {
+    public static final int NONE = -1;
+
+    private String[] names = new String[16];
+    private int[] hashes = new int[16];
+    private int size;
+    // open addressing table of id + 1, 0 marks an empty slot
+    private int[] table = new int[64];
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    // Id of the identifier spelled by input[start, start+length), assigning a new one if it was not seen yet.
+    public int intern(CharSequence input, int start, int length) {
+        int hash = hash(input, start, length);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                int id = add(input.subSequence(start, start + length).toString(), hash);
+                table[slot] = id + 1;
+                if (size * 2 > table.length) {
+                    rehash();
+                }
+                return id;
+            }
+            if (hashes[entry - 1] == hash && matches(names[entry - 1], input, start, length)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public int intern(String name) {
+        return intern(name, 0, name.length());
+    }
+
+    // Id of an already interned name, or NONE.
+    public int lookup(String name) {
+        int hash = hash(name, 0, name.length());
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && names[id].equals(name)) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    private int add(String name, int hash) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        names[size] = name;
+        hashes[size] = hash;
+        return size++;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence input, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + input.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence input, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
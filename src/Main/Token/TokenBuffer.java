@@ -0,0 +1,213 @@
+package Main.Token;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Compact token storage: one slot in parallel int arrays per token (type ordinal, start offset and length
+// of the lexeme in the source, and the interned symbol id of identifiers). Token text is only built when
+// getText is called.
+public class TokenBuffer {
+    private static final Token.Type[] TYPES = Token.Type.values();
+
+    private final CharSequence source;
+    private final Symbols symbols;
+    private int[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int[] symbolIds;
+    private int size;
+    // offsets at which each source line starts, set by the Lexer once the source is scanned
+    private int[] lineStarts = {0};
+    private int lineStartCount = 1;
+
+    public TokenBuffer(CharSequence source) {
+        this(source, source.length());
+    }
+
+    // Buffer for the tokens of sourceLength characters of the source.
+    public TokenBuffer(CharSequence source, int sourceLength) {
+        this(source, sourceLength, new Symbols());
+    }
+
+    // Buffer that interns into an existing symbol table, so identifiers keep the ids they had in an earlier buffer.
+    public TokenBuffer(CharSequence source, int sourceLength, Symbols symbols) {
+        this.source = source;
+        this.symbols = symbols;
+        // roughly one token every four characters in typical CODE programs
+        int capacity = Math.max(16, sourceLength / 4);
+        this.types = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.symbolIds = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(Token.Type type, int startPos, int length) {
+        add(type, startPos, length, Symbols.NONE);
+    }
+
+    // Adds an identifier token, interning its name.
+    public void addIdentifier(int startPos, int length) {
+        add(Token.Type.Identifier, startPos, length, symbols.intern(source, startPos, length));
+    }
+
+    private void add(Token.Type type, int startPos, int length, int symbolId) {
+        if (size == types.length) {
+            grow(size * 2);
+        }
+        types[size] = type.ordinal();
+        starts[size] = startPos;
+        lengths[size] = length;
+        symbolIds[size] = symbolId;
+        size++;
+    }
+
+    // Appends the tokens of another buffer over the same source, re-interning its identifiers into this buffer.
+    public void append(TokenBuffer other) {
+        append(other, 0, other.size, 0);
+    }
+
+    // Appends tokens [from, to) of another buffer, moving their start offsets by shift.
+    public void append(TokenBuffer other, int from, int to, int shift) {
+        Objects.checkFromToIndex(from, to, other.size);
+        int count = to - from;
+        if (size + count > types.length) {
+            grow(Math.max(size * 2, size + count));
+        }
+        System.arraycopy(other.types, from, types, size, count);
+        System.arraycopy(other.lengths, from, lengths, size, count);
+        for (int i = 0; i < count; i++) {
+            starts[size + i] = other.starts[from + i] + shift;
+        }
+        if (other.symbols == symbols) {
+            System.arraycopy(other.symbolIds, from, symbolIds, size, count);
+        } else {
+            int[] remap = new int[other.symbols.size()];
+            for (int id = 0; id < remap.length; id++) {
+                remap[id] = symbols.intern(other.symbols.getName(id));
+            }
+            for (int i = 0; i < count; i++) {
+                int id = other.symbolIds[from + i];
+                symbolIds[size + i] = id == Symbols.NONE ? Symbols.NONE : remap[id];
+            }
+        }
+        size += count;
+    }
+
+    public void setType(int index, Token.Type type) {
+        types[Objects.checkIndex(index, size)] = type.ordinal();
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        symbolIds = Arrays.copyOf(symbolIds, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public Symbols getSymbols() {
+        return symbols;
+    }
+
+    public Token.Type getType(int index) {
+        return TYPES[types[Objects.checkIndex(index, size)]];
+    }
+
+    public int getStartPos(int index) {
+        return starts[Objects.checkIndex(index, size)];
+    }
+
+    public int getLength(int index) {
+        return lengths[Objects.checkIndex(index, size)];
+    }
+
+    public int getEndPos(int index) {
+        return getStartPos(index) + lengths[index];
+    }
+
+    // Index of the first token starting at or after position, size() when there is none.
+    public int indexAt(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Interned id of an identifier token, Symbols.NONE for every other token.
+    public int getSymbolId(int index) {
+        return symbolIds[Objects.checkIndex(index, size)];
+    }
+
+    public void setLineStarts(int[] lineStarts, int lineStartCount) {
+        this.lineStarts = lineStarts;
+        this.lineStartCount = lineStartCount;
+    }
+
+    // Zero-based source line the token starts on.
+    public int getLineNumber(int index) {
+        int line = Arrays.binarySearch(lineStarts, 0, lineStartCount, getStartPos(index));
+        return line >= 0 ? line : -line - 2;
+    }
+
+    public Token.Type getLastType() {
+        return getType(size - 1);
+    }
+
+    // Text of the token. Quoted and bracketed literals ("...", '...', [.]) are returned without their delimiters.
+    public String getText(int index) {
+        int start = getStartPos(index);
+        int end = start + lengths[index];
+        if (isDelimited(TYPES[types[index]])) {
+            start++;
+            end--;
+        }
+        return source.subSequence(start, end).toString();
+    }
+
+    // Compares the token text without materializing it.
+    public boolean textEquals(int index, String text) {
+        int start = getStartPos(index);
+        int length = lengths[index];
+        if (isDelimited(TYPES[types[index]])) {
+            start++;
+            length -= 2;
+        }
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Token get(int index) {
+        return new Token(getType(index), getText(index), getStartPos(index));
+    }
+
+    private static boolean isDelimited(Token.Type type) {
+        return type == Token.Type.StringLiteral || type == Token.Type.BooleanLiteral ||
+                type == Token.Type.CharLiteral || type == Token.Type.Escape;
+    }
+}
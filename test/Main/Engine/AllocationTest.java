@@ -0,0 +1,57 @@
+package Main.Engine;
+
+import Main.Optimizer.OptimizationLevel;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationTest {
+    private static final int ITERATIONS = 1000;
+    private static final int EXTRA_ITERATIONS = 100000;
+    private static final int WARM_UP_RUNS = 5;
+    // bytes the longer run may allocate beyond the shorter one, far below one byte per extra iteration
+    private static final long MAX_EXTRA_BYTES = 4096;
+
+    // Typed INT work is evaluated unboxed, so a run with more iterations allocates nothing more: what a run
+    // allocates (the frame, the output) does not depend on how long its loop runs.
+    @Test
+    void integerLoopAllocatesNothingPerIteration() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CodeEngine engine = new CodeEngine(mode, CodeEngine.DEFAULT_HOT_LOOP_THRESHOLD, level);
+                CompiledProgram shortLoop = engine.compile(loop(ITERATIONS));
+                CompiledProgram longLoop = engine.compile(loop(ITERATIONS + EXTRA_ITERATIONS));
+                // lets the loop get specialized, compiled by the tiered engine and by the JVM
+                for (int run = 0; run < WARM_UP_RUNS; run++) {
+                    run(engine, shortLoop);
+                    run(engine, longLoop);
+                }
+                long start = threads.getThreadAllocatedBytes(thread);
+                run(engine, shortLoop);
+                long shortRun = threads.getThreadAllocatedBytes(thread) - start;
+                start = threads.getThreadAllocatedBytes(thread);
+                run(engine, longLoop);
+                long longRun = threads.getThreadAllocatedBytes(thread) - start;
+                assertTrue(longRun - shortRun < MAX_EXTRA_BYTES,
+                        mode.getName() + " -O" + level.getName() + ": " + shortRun + " bytes for " + ITERATIONS
+                                + " iterations, " + longRun + " for " + (ITERATIONS + EXTRA_ITERATIONS));
+            }
+        }
+    }
+
+    private static void run(CodeEngine engine, CompiledProgram program) {
+        assertEquals(0, engine.run(program, InputSource.of(), text -> {}).size());
+    }
+
+    private static String loop(int iterations) {
+        return "BEGIN CODE\nINT i = 0, s = 0\n" +
+                "WHILE (i < " + iterations + ")\nBEGIN WHILE\n" +
+                "s = s + i % 7 * 2 - 1\ni = i + 1\n" +
+                "END WHILE\nDISPLAY: s\nEND CODE\n";
+    }
+}
@@ -0,0 +1,55 @@
+package Main.Engine;
+
+import Main.Optimizer.OptimizationLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeEngineTest {
+    // Every diagnostic carries the one-based line of the error, also when the message gives a position or no line.
+    @Test
+    void compileDiagnosticsCarryTheirLine() {
+        assertCompileError("BEGIN CODE\nINT a = 1\nDISPLAY: a ~ 2\nEND CODE\n", Diagnostic.Phase.LEXICAL, 3);
+        assertCompileError("BEGIN CODE\nINT a = 1\n\nDISPLAY: \"x\" & a @\nEND CODE\n", Diagnostic.Phase.LEXICAL, 4);
+        assertCompileError("BEGIN CODE\nINT a = 1\nIF (a > 0)\nDISPLAY: a\nEND CODE\n", Diagnostic.Phase.SYNTAX, 3);
+        assertCompileError("BEGIN CODE\nINT a = 1\nCHAR c = 'x'\n\na = c\nEND CODE\n", Diagnostic.Phase.TYPE, 5);
+    }
+
+    @Test
+    void runtimeDiagnosticsCarryTheirLine() {
+        String[][] cases = {
+                {"INT a = 1, b = 0\nDISPLAY: a\na = a / b", "4"},
+                {"INT a = 1, b = 0\n\na = a % b", "4"},
+                {"FLOAT f = 1.5, g = 0\nf = f / g", "3"},
+                {"INT a = 1, b = 0, i\nFOR (i = 0, i < 3, i = i + 1)\nBEGIN FOR\nb = b + 1\nEND FOR\nb = 0\nDISPLAY: a\na = a % b", "9"},
+                {"INT a, b = 2\nb = a + 1", "3"},
+        };
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CodeEngine engine = new CodeEngine(mode, 1, level);
+                for (String[] testCase : cases) {
+                    String where = mode.getName() + " -O" + level.getName() + ": " + testCase[0];
+                    CompiledProgram program = engine.compile("BEGIN CODE\n" + testCase[0] + "\nEND CODE\n");
+                    assertTrue(program.isSuccessful(), where + ": " + program.getDiagnostics());
+                    List<Diagnostic> diagnostics = engine.run(program, InputSource.of(), text -> {});
+                    assertEquals(1, diagnostics.size(), where);
+                    assertEquals(Diagnostic.Phase.RUNTIME, diagnostics.get(0).getPhase(), where);
+                    assertEquals(Integer.parseInt(testCase[1]), diagnostics.get(0).getLineNumber(), where + ": " + diagnostics);
+                }
+            }
+        }
+    }
+
+    private static void assertCompileError(String source, Diagnostic.Phase phase, int line) {
+        CompiledProgram program = new CodeEngine().compile(source);
+        assertFalse(program.isSuccessful(), source);
+        assertEquals(1, program.getDiagnostics().size(), source);
+        Diagnostic diagnostic = program.getDiagnostics().get(0);
+        assertEquals(phase, diagnostic.getPhase(), source + ": " + diagnostic);
+        assertEquals(line, diagnostic.getLineNumber(), source + ": " + diagnostic);
+    }
+}
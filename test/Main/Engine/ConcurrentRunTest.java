@@ -0,0 +1,88 @@
+package Main.Engine;
+
+import Main.Optimizer.OptimizationLevel;
+import Main.TestPrograms;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentRunTest {
+    private static final int THREADS = 8;
+    private static final int RUNS_PER_THREAD = 4;
+    // loops hot enough to be specialized and compiled by the tiered engine while other runs walk them
+    private static final String HOT_LOOPS = """
+            BEGIN CODE
+            INT i = 0, j, s = 0
+            FLOAT f = 0.5
+            BOOL odd = "FALSE"
+            WHILE (i < 300)
+            BEGIN WHILE
+                FOR (j = 0, j < 20, j = j + 1)
+                BEGIN FOR
+                    s = s + i * j % 7 - 3
+                    f = f + j / 4.0
+                END FOR
+                odd = NOT odd
+                IF (odd AND s > 100)
+                BEGIN IF
+                    s = s - 100
+                END IF
+                i = i + 1
+            END WHILE
+            DISPLAY: s & " " & f & " " & odd & $
+            END CODE
+            """;
+
+    // Runs of a compiled program share its tree, so running it from several threads at once gives every run the
+    // output of a run on its own, on every engine.
+    @Test
+    void concurrentRunsMatchSerialRuns() throws Exception {
+        List<String> sources = new ArrayList<>(TestPrograms.ALL);
+        sources.add(HOT_LOOPS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                for (OptimizationLevel level : OptimizationLevel.values()) {
+                    for (String source : sources) {
+                        String name = mode.getName() + " -O" + level.getName() + ":\n" + source;
+                        // a fresh program per engine, so its expressions are specialized by the concurrent runs
+                        CodeEngine engine = new CodeEngine(mode, 1, level);
+                        String serial = run(engine, engine.compile(source));
+                        CompiledProgram program = engine.compile(source);
+                        List<Future<List<String>>> results = new ArrayList<>();
+                        for (int thread = 0; thread < THREADS; thread++) {
+                            results.add(pool.submit(() -> {
+                                List<String> outputs = new ArrayList<>();
+                                for (int run = 0; run < RUNS_PER_THREAD; run++) {
+                                    outputs.add(run(engine, program));
+                                }
+                                return outputs;
+                            }));
+                        }
+                        for (Future<List<String>> result : results) {
+                            for (String output : result.get()) {
+                                assertEquals(serial, output, name);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String run(CodeEngine engine, CompiledProgram program) {
+        assertTrue(program.isSuccessful(), program.getDiagnostics().toString());
+        StringBuilder output = new StringBuilder();
+        List<Diagnostic> diagnostics = engine.run(program, InputSource.of(), output::append);
+        return output + diagnostics.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package Main.Engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeepNestingTest {
+    private static final int DEPTH = 100000;
+    // far less than a recursive descent this deep needs
+    private static final long STACK_SIZE = 512 * 1024;
+    private static final String HEAD = "BEGIN CODE\nINT a = 1, s = 0\nBOOL q = \"TRUE\"\n";
+
+    @Test
+    void parsesAndEvaluatesDeepExpressions() throws Exception {
+        String chain = HEAD + "s = a" + " + a".repeat(DEPTH) + "\nDISPLAY: s\nEND CODE\n";
+        String parens = HEAD + "s = " + "(".repeat(DEPTH) + "a + 1" + ")".repeat(DEPTH) + "\nDISPLAY: s\nEND CODE\n";
+        String negations = HEAD + "q = " + "NOT ".repeat(DEPTH) + "q\nDISPLAY: q\nEND CODE\n";
+        runOnSmallStack(chain, String.valueOf(DEPTH + 1));
+        runOnSmallStack(parens, "2");
+        runOnSmallStack(negations, "TRUE");
+    }
+
+    @Test
+    void parsesAndEvaluatesDeepBlocks() throws Exception {
+        String ifs = HEAD + "IF (a > 0)\nBEGIN IF\n".repeat(DEPTH) + "s = s + 1\n" + "END IF\n".repeat(DEPTH)
+                + "DISPLAY: s\nEND CODE\n";
+        String whiles = HEAD + "WHILE (a < 3)\nBEGIN WHILE\n".repeat(DEPTH) + "a = a + 1\nIF (a == 3)\nBEGIN IF\nBREAK\nEND IF\n"
+                + "END WHILE\n".repeat(DEPTH) + "DISPLAY: a\nEND CODE\n";
+        runOnSmallStack(ifs, "1");
+        runOnSmallStack(whiles, "3");
+    }
+
+    // Compiles and runs the program on every engine, on a thread with a small stack.
+    private static void runOnSmallStack(String source, String expected) throws Exception {
+        List<Throwable> failures = new ArrayList<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                for (ExecutionMode mode : ExecutionMode.values()) {
+                    CodeEngine engine = new CodeEngine(mode);
+                    CompiledProgram program = engine.compile(source);
+                    assertTrue(program.isSuccessful(), mode.getName() + ": " + program.getDiagnostics());
+                    StringBuilder output = new StringBuilder();
+                    List<Diagnostic> diagnostics = engine.run(program, InputSource.of(), output::append);
+                    assertEquals(List.of(), diagnostics, mode.getName());
+                    assertEquals(expected, output.toString(), mode.getName());
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        }, "deep", STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package Main.Engine;
+
+import Main.Optimizer.OptimizationLevel;
+import Main.TestPrograms;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EngineEquivalenceTest {
+    // lines SCAN reads, for the samples that ask for input
+    private static final String[] INPUT = {"4", "2"};
+    private static final List<String> ERRORS = List.of(
+            // division by zero, INT and FLOAT, after some output
+            """
+            BEGIN CODE
+            INT a = 7, b = 0
+            DISPLAY: a & $
+            a = a / b
+            END CODE
+            """,
+            """
+            BEGIN CODE
+            INT a = 7, b = 3, i
+            FOR (i = 0, i < 5, i = i + 1)
+            BEGIN FOR
+                b = b - 1
+                DISPLAY: a % b & " "
+            END FOR
+            END CODE
+            """,
+            """
+            BEGIN CODE
+            FLOAT f = 2.5, g = 1.0
+            WHILE (g >= 0)
+            BEGIN WHILE
+                DISPLAY: f / g & $
+                g = g - 0.5
+            END WHILE
+            END CODE
+            """,
+            // a variable read before it has a value
+            """
+            BEGIN CODE
+            INT a, b = 1
+            DISPLAY: b & $
+            b = a + 1
+            END CODE
+            """,
+            """
+            BEGIN CODE
+            INT a, b = 1
+            b = a
+            END CODE
+            """,
+            """
+            BEGIN CODE
+            BOOL p
+            INT i = 0
+            WHILE (i < 3)
+            BEGIN WHILE
+                i = i + 1
+                IF (i == 2)
+                BEGIN IF
+                    p = NOT p
+                END IF
+            END WHILE
+            END CODE
+            """,
+            // BREAK and CONTINUE inside nested IFs of nested loops
+            """
+            BEGIN CODE
+            INT i = 0, j, s = 0
+            WHILE (i < 20)
+            BEGIN WHILE
+                i = i + 1
+                IF (i % 2 == 0)
+                BEGIN IF
+                    IF (i > 10)
+                    BEGIN IF
+                        BREAK
+                    END IF
+                    CONTINUE
+                END IF
+                FOR (j = 0, j < 10, j = j + 1)
+                BEGIN FOR
+                    IF (j > i)
+                    BEGIN IF
+                        BREAK
+                    END IF
+                    ELSE IF (j % 3 == 0)
+                    BEGIN IF
+                        CONTINUE
+                    END IF
+                    s = s + j
+                END FOR
+                DISPLAY: i & ":" & s & " "
+            END WHILE
+            DISPLAY: $ & i & " " & j & " " & s
+            END CODE
+            """,
+            // BREAK outside any loop
+            """
+            BEGIN CODE
+            INT a = 1
+            IF (a > 0)
+            BEGIN IF
+                DISPLAY: "before"
+                BREAK
+            END IF
+            DISPLAY: "after"
+            END CODE
+            """
+    );
+
+    // The compilers and the tiered engine run a program the way the tree walker does: every sample and error
+    // program gives the output and diagnostics of the tree walker at -O0 on every engine at every level, with loops
+    // hot from their first pass.
+    @Test
+    void enginesMatchTheTreeWalker() {
+        List<String> sources = new ArrayList<>(TestPrograms.ALL);
+        sources.addAll(ERRORS);
+        for (String source : sources) {
+            String expected = run(new CodeEngine(ExecutionMode.TREE, 1, OptimizationLevel.O0), source);
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                for (OptimizationLevel level : OptimizationLevel.values()) {
+                    String actual = run(new CodeEngine(mode, 1, level), source);
+                    assertEquals(expected, actual, mode.getName() + " -O" + level.getName() + ":\n" + source);
+                }
+            }
+        }
+    }
+
+    // Output, then every diagnostic with its phase and line.
+    private static String run(CodeEngine engine, String source) {
+        CompiledProgram program = engine.compile(source);
+        StringBuilder result = new StringBuilder();
+        List<Diagnostic> diagnostics = program.getDiagnostics();
+        if (program.isSuccessful()) {
+            diagnostics = engine.run(program, InputSource.of(INPUT), result::append);
+        }
+        for (Diagnostic diagnostic : diagnostics) {
+            result.append('\n').append(diagnostic.getPhase()).append(' ').append(diagnostic.getLineNumber())
+                    .append(": ").append(diagnostic.getMessage());
+        }
+        return result.toString();
+    }
+}
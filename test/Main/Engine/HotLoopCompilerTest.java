@@ -0,0 +1,50 @@
+package Main.Engine;
+
+import Main.Nodes.ASTNodes.DeclarationIndex;
+import Main.Nodes.ASTNodes.ExecutableCodeNode;
+import Main.Nodes.ASTNodes.VariableDeclarationsNode;
+import Main.Nodes.CompiledLoop;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HotLoopCompilerTest {
+    private static final int THRESHOLD = 3;
+
+    // Which loops are hot belongs to the tier of one run: a later run's tier starts cold on the same tree, and once the
+    // loop is hot there too it gets the loop the first run compiled.
+    @Test
+    void runsDoNotShareTieringState() {
+        CompiledProgram program = new CodeEngine(ExecutionMode.TIERED).compile("""
+                BEGIN CODE
+                INT i = 0, s = 0
+                WHILE (i < 100)
+                BEGIN WHILE
+                    s = s + i
+                    i = i + 1
+                END WHILE
+                DISPLAY: s
+                END CODE
+                """);
+        DeclarationIndex index = ((VariableDeclarationsNode) program.getProgram().getVariableDeclarations()).getIndex();
+        IterativeNode loop = (IterativeNode) ((ExecutableCodeNode) program.getProgram().getExecutableCode()).getStatements().get(0);
+
+        HotLoopCompiler first = new HotLoopCompiler(THRESHOLD, index, program.getCompiledLoops());
+        for (int pass = 1; pass < THRESHOLD; pass++) {
+            assertNull(first.countPass(loop));
+        }
+        CompiledLoop compiledLoop = first.countPass(loop);
+        assertNotNull(compiledLoop);
+        assertSame(first.getCompiledLoop(loop), first.countPass(loop));
+
+        HotLoopCompiler second = new HotLoopCompiler(THRESHOLD, index, program.getCompiledLoops());
+        assertNull(second.getCompiledLoop(loop));
+        for (int pass = 1; pass < THRESHOLD; pass++) {
+            assertNull(second.countPass(loop));
+        }
+        assertSame(compiledLoop, second.countPass(loop));
+    }
+}
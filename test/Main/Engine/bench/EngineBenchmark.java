@@ -0,0 +1,97 @@
+package Main.Engine.bench;
+
+import Main.Engine.*;
+import Main.Optimizer.OptimizationLevel;
+import Main.Token.Lexer.MappedSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// Times a program end to end on each ExecutionMode. With a path it runs that file (its SCAN
+// statements get no input), without one a loop mixing INT, FLOAT and BOOL work for the given number of iterations,
+// with break:iterations a nested loop that leaves its inner loop through CONTINUE and BREAK inside IFs, or with
+// vars:iterations a loop assigning each of 1,000 declared variables from the one before. The program is optimized
+// at the given level, -O1 by default.
+// Usage: EngineBenchmark [iterations | break:iterations | vars:iterations | path] [runs] [-O0 | -O1 | -O2]
+public class EngineBenchmark {
+    private static final int VARIABLES = 1000;
+
+    public static void main(String[] args) throws IOException {
+        String target = args.length > 0 ? args[0] : "1000000";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        OptimizationLevel level = args.length > 2 ? OptimizationLevel.of(args[2].substring("-O".length())) : CodeEngine.DEFAULT_OPTIMIZATION_LEVEL;
+        if (level == null) {
+            System.err.println("ERROR: Unknown optimization level " + args[2] + ", expected -O0, -O1 or -O2.");
+            return;
+        }
+        CharSequence source;
+        if (target.chars().allMatch(Character::isDigit)) {
+            source = loop(Integer.parseInt(target));
+        } else if (target.startsWith("break:")) {
+            source = breakLoop(Integer.parseInt(target.substring("break:".length())));
+        } else if (target.startsWith("vars:")) {
+            source = variablesLoop(Integer.parseInt(target.substring("vars:".length())));
+        } else {
+            source = MappedSource.load(Path.of(target));
+        }
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            CodeEngine engine = new CodeEngine(mode, CodeEngine.DEFAULT_HOT_LOOP_THRESHOLD, level);
+            long start = System.nanoTime();
+            CompiledProgram program = engine.compile(source);
+            long compiled = System.nanoTime();
+            if (!program.isSuccessful()) {
+                program.getDiagnostics().forEach(System.err::println);
+                return;
+            }
+            // the first half of the runs warm up the JIT
+            long best = Long.MAX_VALUE;
+            List<Diagnostic> diagnostics = List.of();
+            for (int run = 0; run < runs; run++) {
+                long runStart = System.nanoTime();
+                diagnostics = engine.run(program, InputSource.of(), text -> {});
+                if (run >= runs / 2) {
+                    best = Math.min(best, System.nanoTime() - runStart);
+                }
+            }
+            String fallback = "";
+            if (mode == ExecutionMode.CLOSURE && program.getClosureProgram() == null
+                    || (mode == ExecutionMode.BYTECODE || mode == ExecutionMode.JIT) && program.getChunk() == null) {
+                fallback = "(tree fallback)";
+            } else if (mode == ExecutionMode.JIT && program.getJitProgram() == null) {
+                fallback = "(vm fallback)";
+            }
+            System.out.printf("%-7s %s compile %8.1f ms, best run %8.1f ms %s%n", mode.getName(), fallback,
+                    (compiled - start) / 1e6, best / 1e6, diagnostics);
+        }
+    }
+
+    private static String loop(int iterations) {
+        return "BEGIN CODE\nINT i = 0, s = 0\nFLOAT f = 0.5\nBOOL b = \"TRUE\"\n" +
+                "WHILE (i < " + iterations + ")\nBEGIN WHILE\n" +
+                "s = s + i % 7 * 2 - 1\nf = f + 1.5\nb = s > 10 AND b OR i == 3\ni = i + 1\n" +
+                "END WHILE\nDISPLAY: s & \" \" & f & \" \" & b\nEND CODE\n";
+    }
+
+    private static String breakLoop(int iterations) {
+        return "BEGIN CODE\nINT i = 0, j = 0, s = 0\n" +
+                "WHILE (i < " + iterations + ")\nBEGIN WHILE\nj = 0\n" +
+                "WHILE (j < 100)\nBEGIN WHILE\nj = j + 1\n" +
+                "IF (j % 2 == 0)\nBEGIN IF\nCONTINUE\nEND IF\n" +
+                "s = s + j\n" +
+                "IF (j > 7)\nBEGIN IF\nBREAK\nEND IF\n" +
+                "END WHILE\ni = i + 1\nEND WHILE\nDISPLAY: s\nEND CODE\n";
+    }
+
+    private static String variablesLoop(int iterations) {
+        StringBuilder source = new StringBuilder("BEGIN CODE\nINT i = 0");
+        for (int variable = 0; variable < VARIABLES; variable++) {
+            source.append(variable % 10 == 0 ? "\nINT " : ", ").append('v').append(variable).append(" = ").append(variable);
+        }
+        source.append("\nWHILE (i < ").append(iterations).append(")\nBEGIN WHILE\n");
+        for (int variable = 1; variable < VARIABLES; variable++) {
+            source.append('v').append(variable).append(" = v").append(variable - 1).append(" + i % 3\n");
+        }
+        return source.append("i = i + 1\nEND WHILE\nDISPLAY: v").append(VARIABLES - 1).append("\nEND CODE\n").toString();
+    }
+}
@@ -0,0 +1,60 @@
+package Main.Engine.bench;
+
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.MappedSource;
+import Main.Token.Lexer.Parser.Parser;
+import Main.Token.TokenBuffer;
+
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+// Times lexing a program sequentially and in parallel chunks, as CodeEngine.compile does, and parsing its tokens.
+// With a path it uses that file, without one a generated program of the given number of lines, most of them
+// expressions.
+// Usage: FrontEndBenchmark [lines | path] [runs]
+public class FrontEndBenchmark {
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "1000000";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        CharSequence source = target.chars().allMatch(Character::isDigit) ? program(Integer.parseInt(target)) : MappedSource.load(Path.of(target));
+
+        TokenBuffer tokens = new Lexer(source).lex();
+        long lex = best(runs, () -> new Lexer(source).lex());
+        long lexParallel = best(runs, () -> new Lexer(source).lexParallel());
+        long parse = best(runs, () -> new Parser(tokens).parse());
+        System.out.printf("%d chars, %d tokens, %d threads%n", source.length(), tokens.size(), ForkJoinPool.getCommonPoolParallelism());
+        System.out.printf("lex          best %8.1f ms%n", lex / 1e6);
+        System.out.printf("lexParallel  best %8.1f ms, %.2fx%n", lexParallel / 1e6, (double) lex / lexParallel);
+        System.out.printf("parse        best %8.1f ms, %.1f ns per token%n", parse / 1e6, (double) parse / tokens.size());
+    }
+
+    // Best time of the second half of the runs; the first half warms up the JIT.
+    private static long best(int runs, Work work) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            work.run();
+            if (run >= runs / 2) {
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        }
+        return best;
+    }
+
+    private static String program(int lines) {
+        StringBuilder source = new StringBuilder("BEGIN CODE\nINT a = 1, b = 2\nFLOAT f = 1.5\nBOOL c = \"TRUE\"\n");
+        for (int line = 4; line < lines - 1; line++) {
+            switch (line % 4) {
+                case 0 -> source.append("a = a + b * ").append(line).append(" - (b % 7)\n");
+                case 1 -> source.append("# comment line ").append(line).append('\n');
+                case 2 -> source.append("DISPLAY: a & \" item \" & (f * 2 - a / 3) & $\n");
+                default -> source.append("c = a > b AND f <= 2.5 OR NOT c\n");
+            }
+        }
+        return source.append("END CODE\n").toString();
+    }
+}
@@ -0,0 +1,44 @@
+package Main.Nodes.EvaluableNodes;
+
+import Main.Engine.CodeEngine;
+import Main.Engine.CompiledProgram;
+import Main.Engine.Diagnostic;
+import Main.Engine.ExecutionMode;
+import Main.Engine.InputSource;
+import Main.Optimizer.OptimizationLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalNodeTest {
+    // A BOOL variable holding FALSE is a condition that does not hold: IF goes on to the next branch and a loop ends.
+    // Only a variable without a value raises. On every engine, at every level, with loops hot from their first pass.
+    @Test
+    void falseVariableConditionsSelectTheNextBranch() {
+        String[][] cases = {
+                {"BOOL flag = \"FALSE\"\nIF (flag)\nBEGIN IF\nDISPLAY: \"then\"\nEND IF\nELSE\nBEGIN IF\nDISPLAY: \"else\"\nEND IF", "else"},
+                {"BOOL p = \"FALSE\", q = \"TRUE\"\nIF (p)\nBEGIN IF\nDISPLAY: 1\nEND IF\nELSE IF (q)\nBEGIN IF\nDISPLAY: 2\nEND IF\nELSE\nBEGIN IF\nDISPLAY: 3\nEND IF", "2"},
+                {"BOOL p = \"FALSE\"\nIF (p)\nBEGIN IF\nDISPLAY: 1\nEND IF\nDISPLAY: \"done\"", "done"},
+                {"BOOL go = \"TRUE\"\nINT i = 0\nWHILE (go)\nBEGIN WHILE\ni = i + 1\ngo = i < 4\nIF (go)\nBEGIN IF\nDISPLAY: i\nEND IF\nEND WHILE\nDISPLAY: \"/\" & i", "123/4"},
+                {"BOOL u\nINT i = 0\nIF (u)\nBEGIN IF\nDISPLAY: 1\nEND IF", "ERROR: Variable u not initialized. at line 4"},
+                {"BOOL u\nWHILE (u)\nBEGIN WHILE\nDISPLAY: 1\nEND WHILE", "ERROR: Variable u not initialized. at line 3"},
+        };
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CodeEngine engine = new CodeEngine(mode, 1, level);
+                for (String[] testCase : cases) {
+                    String where = mode.getName() + " -O" + level.getName() + ": " + testCase[0];
+                    CompiledProgram program = engine.compile("BEGIN CODE\n" + testCase[0] + "\nEND CODE\n");
+                    assertTrue(program.isSuccessful(), where + ": " + program.getDiagnostics());
+                    StringBuilder output = new StringBuilder();
+                    List<Diagnostic> diagnostics = engine.run(program, InputSource.of(), output::append);
+                    diagnostics.forEach(diagnostic -> output.append(diagnostic.getMessage()));
+                    assertEquals(testCase[1], output.toString(), where);
+                }
+            }
+        }
+    }
+}
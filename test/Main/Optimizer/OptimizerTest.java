@@ -0,0 +1,171 @@
+package Main.Optimizer;
+
+import Main.Engine.CodeEngine;
+import Main.Engine.CompiledProgram;
+import Main.Engine.Diagnostic;
+import Main.Engine.ExecutionMode;
+import Main.Engine.InputSource;
+import Main.Nodes.ASTNodes.ASTNode;
+import Main.Nodes.ASTNodes.ExecutableCodeNode;
+import Main.Nodes.ASTNodes.LiteralNode;
+import Main.Nodes.EvaluableNodes.ConditionalNode;
+import Main.Nodes.EvaluableNodes.DisplayNode;
+import Main.Nodes.EvaluableNodes.IterativeNodes.IterativeNode;
+import Main.Nodes.EvaluableNodes.VariableNode;
+import Main.Nodes.EvaluableNodes.VariableReinitializedNode;
+import Main.Nodes.ExpressionNodes.ArithmeticExpressionNode;
+import Main.Token.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimizerTest {
+    // every pass changes something, and the program stops on a division by the 0 SCAN reads
+    private static final String PROGRAM = """
+            BEGIN CODE
+            INT a = 3, b = 4, x, q
+            FLOAT f = 2.0, g = 3.0, h
+            DISPLAY: 60 * 60 * 24 & $
+            IF (1 > 2)
+            BEGIN IF
+                DISPLAY: "never"
+            END IF
+            WHILE ("FALSE")
+            BEGIN WHILE
+                DISPLAY: "never"
+            END WHILE
+            x = (a + b) * (a + b)
+            h = f / 4
+            x = a * b + 0
+            h = f * g + 0
+            DISPLAY: x & " " & h & $
+            SCAN: q
+            x = (a / q) + (a / q)
+            DISPLAY: x
+            END CODE
+            """;
+
+    @Test
+    void foldsConstantsAndPrunesConstantBranches() {
+        List<ASTNode> statements = statements(compile(PROGRAM, OptimizationLevel.O1));
+        DisplayNode display = assertInstanceOf(DisplayNode.class, statements.get(0));
+        LiteralNode day = assertInstanceOf(LiteralNode.class, display.getExpressions().get(0));
+        // DISPLAY keeps a folded part as the text it prints
+        assertEquals("86400", day.getValue());
+        // IF (1 > 2) and WHILE ("FALSE") leave nothing behind
+        assertInstanceOf(VariableReinitializedNode.class, statements.get(1));
+        for (ASTNode statement : statements) {
+            assertFalse(statement instanceof ConditionalNode || statement instanceof IterativeNode, String.valueOf(statement));
+        }
+    }
+
+    // (a + b) is computed once into a temporary, (a / q) is not moved since q may be 0 and the division must still fail
+    // where it is written.
+    @Test
+    void computesRepeatedOperationsOnceWhenTheyCannotFail() {
+        List<ASTNode> statements = statements(compile(PROGRAM, OptimizationLevel.O2));
+        VariableReinitializedNode temporary = assertInstanceOf(VariableReinitializedNode.class, statements.get(1));
+        assertEquals("$int0", temporary.getVariableNames().get(0).getVariableName());
+        ArithmeticExpressionNode sum = assertInstanceOf(ArithmeticExpressionNode.class, temporary.getValue().getValue());
+        assertEquals(Token.Type.Plus, sum.getOperator());
+        ArithmeticExpressionNode product = assertInstanceOf(ArithmeticExpressionNode.class, value(statements.get(2)));
+        assertEquals(Token.Type.Times, product.getOperator());
+        assertEquals("$int0", assertInstanceOf(VariableNode.class, product.getLeftOperand()).getVariableName());
+        assertEquals("$int0", assertInstanceOf(VariableNode.class, product.getRightOperand()).getVariableName());
+
+        long temporaries = statements.stream().filter(statement -> statement instanceof VariableReinitializedNode reinitializedNode
+                && reinitializedNode.getVariableNames().get(0).getVariableName().startsWith("$")).count();
+        assertEquals(1, temporaries);
+        ArithmeticExpressionNode divisions = assertInstanceOf(ArithmeticExpressionNode.class, value(statements.get(8)));
+        assertInstanceOf(ArithmeticExpressionNode.class, divisions.getLeftOperand());
+        assertInstanceOf(ArithmeticExpressionNode.class, divisions.getRightOperand());
+    }
+
+    // A FLOAT division by 4 becomes a multiplication by 0.25; INT + 0 is dropped, FLOAT + 0 stays since it turns -0.0
+    // into 0.0.
+    @Test
+    void reducesOperationsInStrength() {
+        List<ASTNode> statements = statements(compile(PROGRAM, OptimizationLevel.O2));
+        ArithmeticExpressionNode quarter = assertInstanceOf(ArithmeticExpressionNode.class, value(statements.get(3)));
+        assertEquals(Token.Type.Times, quarter.getOperator());
+        assertEquals(0.25f, assertInstanceOf(LiteralNode.class, quarter.getRightOperand()).getValue());
+        ArithmeticExpressionNode intProduct = assertInstanceOf(ArithmeticExpressionNode.class, value(statements.get(4)));
+        assertEquals(Token.Type.Times, intProduct.getOperator());
+        ArithmeticExpressionNode floatSum = assertInstanceOf(ArithmeticExpressionNode.class, value(statements.get(5)));
+        assertEquals(Token.Type.Plus, floatSum.getOperator());
+        assertEquals(0, assertInstanceOf(LiteralNode.class, floatSum.getRightOperand()).getValue());
+    }
+
+    @Test
+    void reportCountsTheChangesOfEachPass() {
+        OptimizationReport none = compile(PROGRAM, OptimizationLevel.O0).getOptimizationReport();
+        assertEquals(OptimizationLevel.O0, none.getLevel());
+        assertTrue(none.getChanges().isEmpty());
+        assertEquals(0, none.getChangeCount("constant-folding"));
+
+        OptimizationReport o1 = compile(PROGRAM, OptimizationLevel.O1).getOptimizationReport();
+        assertEquals(2, o1.getChangeCount("constant-folding"));
+        assertEquals(2, o1.getChangeCount("dead-branch-elimination"));
+        assertEquals(0, o1.getChangeCount("strength-reduction"));
+        assertEquals(0, o1.getChangeCount("common-subexpressions"));
+        assertEquals(4, o1.getChanges().size());
+
+        OptimizationReport o2 = compile(PROGRAM, OptimizationLevel.O2).getOptimizationReport();
+        assertEquals(2, o2.getChangeCount("constant-folding"));
+        assertEquals(2, o2.getChangeCount("dead-branch-elimination"));
+        assertEquals(2, o2.getChangeCount("strength-reduction"));
+        assertEquals(1, o2.getChangeCount("common-subexpressions"));
+        assertEquals(List.of(
+                "constant-folding, line 4: folded 2 operations to 86400",
+                "constant-folding, line 5: folded 1 operation to FALSE",
+                "dead-branch-elimination, line 5: removed an IF whose conditions are all FALSE",
+                "dead-branch-elimination, line 9: removed a WHILE loop that never runs",
+                "strength-reduction, line 14: FLOAT division by 4 became a multiplication by 0.25",
+                "strength-reduction, line 15: dropped + 0",
+                "common-subexpressions, line 13: INT operation used 2 times computed once, into $int0"), o2.getChanges());
+    }
+
+    // The passes change how a program runs, not what it does: the same output and the same error on the same line at
+    // every level, on every engine.
+    @Test
+    void levelsGiveTheSameOutputAndDiagnostics() {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            String expected = null;
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CodeEngine engine = new CodeEngine(mode, 1, level);
+                CompiledProgram program = engine.compile(PROGRAM);
+                assertTrue(program.isSuccessful(), program.getDiagnostics().toString());
+                StringBuilder result = new StringBuilder();
+                List<Diagnostic> diagnostics = engine.run(program, InputSource.of("0"), result::append);
+                assertEquals(1, diagnostics.size(), mode.getName() + " -O" + level.getName());
+                assertEquals(Diagnostic.Phase.RUNTIME, diagnostics.get(0).getPhase());
+                result.append('\n').append(diagnostics.get(0).getLineNumber()).append(": ").append(diagnostics.get(0).getMessage());
+                if (expected == null) {
+                    expected = result.toString();
+                    assertEquals("86400\n12 6.0\n\n19: ERROR: Division by zero. at line 19", expected);
+                }
+                assertEquals(expected, result.toString(), mode.getName() + " -O" + level.getName());
+            }
+        }
+    }
+
+    private static CompiledProgram compile(String source, OptimizationLevel level) {
+        CompiledProgram program = new CodeEngine(ExecutionMode.TREE, CodeEngine.DEFAULT_HOT_LOOP_THRESHOLD, level).compile(source);
+        assertTrue(program.isSuccessful(), program.getDiagnostics().toString());
+        assertEquals(level, program.getOptimizationReport().getLevel());
+        return program;
+    }
+
+    private static List<ASTNode> statements(CompiledProgram program) {
+        return ((ExecutableCodeNode) program.getProgram().getExecutableCode()).getStatements();
+    }
+
+    private static Object value(ASTNode statement) {
+        return assertInstanceOf(VariableReinitializedNode.class, statement).getValue().getValue();
+    }
+}
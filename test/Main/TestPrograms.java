@@ -0,0 +1,283 @@
+package Main;
+
+import Main.Nodes.ASTNodes.DeclarationIndex;
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.Nodes.ASTNodes.VariableDeclarationsNode;
+import Main.Nodes.SymbolTable;
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.TextEdit;
+import Main.Token.Token;
+import Main.Token.TokenBuffer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Sample programs and the helpers the tests compare lexing and parsing results with.
+public class TestPrograms {
+    public static final String ARITHMETIC = """
+            # arithmetic and display
+            BEGIN CODE
+            INT a=100, b=200, c=300
+            FLOAT f=3.5, g
+            CHAR ch='x'
+            BOOL t="TRUE", u="FALSE"
+            g = f * 2
+            a = a + b * c - 7 / 2 % 5
+            DISPLAY: a & $ & g & $ & ch & [#] & t & $
+            DISPLAY: (a > b) & " " & (t == u) & " " & NOT t & $
+            DISPLAY: -a & " " & -5 & " " & 10 - -3 & $
+            b = c = 42
+            DISPLAY: b & "," & c & $
+            END CODE
+            """;
+
+    public static final String NESTED_LOOPS = """
+            BEGIN CODE
+            INT x, y
+            FOR (x = 0, x < 5, x = x + 1)
+            BEGIN FOR
+                FOR (y = 0, y < 3, y = y + 1)
+                BEGIN FOR
+                    IF (y == 2 AND x > 2 OR x == 0)
+                    BEGIN IF
+                        DISPLAY: "*"
+                    END IF
+                    ELSE
+                    BEGIN IF
+                        DISPLAY: x*y
+                    END IF
+                END FOR
+                DISPLAY: $
+            END FOR
+            END CODE
+            """;
+
+    public static final String WHILE_CONTINUE = """
+            BEGIN CODE
+            INT k = 0, m = 0
+            WHILE (k < 10)
+            BEGIN WHILE
+                k = k + 1
+                IF (k > 3)
+                BEGIN IF
+                    CONTINUE
+                END IF
+                m = m + k
+            END WHILE
+            DISPLAY: m & " " & k & $
+            DISPLAY: 1 + 2 * 3 - 4 / 2 & " " & (1 + 2) * 3 & " " & 7.5 / 2 & $
+            END CODE
+            """;
+
+    public static final String DIAMOND = """
+            # diamond
+            BEGIN CODE
+            INT a=100, b=200, c=300, x, y, z
+            CHAR ch1
+            BOOL b1, b2
+            b1 = "TRUE"
+            b2 = "FALSE"
+            ch1 = 'A'
+
+            DISPLAY: "Enter x: "
+            SCAN: x
+
+            # top half
+            FOR (y = 0, y < x, y = y+1)
+            BEGIN FOR
+                FOR(z = 0, z < x*2, z = z+1)
+                BEGIN FOR
+                    IF(y == 0)
+                    BEGIN IF
+                        DISPLAY: "*"
+                    END IF
+                    ELSE IF(z >= x-y AND z < x*2-(x-y))
+                    BEGIN IF
+                        DISPLAY: " "
+                    END IF
+                    ELSE
+                    BEGIN IF
+                        DISPLAY: "*"
+                    END IF
+                END FOR
+                DISPLAY: $
+            END FOR
+
+            # bottom half
+            FOR (y = x-1, y >=0, y = y-1)
+            BEGIN FOR
+                FOR(z = 0, z < x*2, z = z+1)
+                BEGIN FOR
+                    IF(z >= x-y AND z < x*2-(x-y))
+                    BEGIN IF
+                        DISPLAY: " "
+                    END IF
+                    ELSE
+                    BEGIN IF
+                        DISPLAY: "*"
+                    END IF
+                END FOR
+                DISPLAY: $
+            END FOR
+            END CODE
+            """;
+
+    public static final List<String> ALL = List.of(ARITHMETIC, NESTED_LOOPS, WHILE_CONTINUE, DIAMOND);
+
+    // Type, offset and text of every token.
+    public static String tokens(TokenBuffer tokens) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            text.append(tokens.getType(i)).append('@').append(tokens.getStartPos(i)).append(':').append(tokens.getText(i)).append('\n');
+        }
+        return text.toString();
+    }
+
+    // Line of every position, as the lexer maps them.
+    public static String lines(Lexer lexer, int length) {
+        StringBuilder text = new StringBuilder().append(lexer.getLineCount()).append(':');
+        for (int position = 0; position <= length; position++) {
+            text.append(lexer.getLineNumber(position)).append(',');
+        }
+        return text.toString();
+    }
+
+    // Every field of every node, found by reflection. Symbol ids depend on the order identifiers were first seen,
+    // so they and the tables keyed by them are left out; the variable names stand for them.
+    public static String tree(ProgramNode program) {
+        StringBuilder text = new StringBuilder();
+        dump(program, text, new IdentityHashMap<>());
+        return text.toString();
+    }
+
+    private static void dump(Object value, StringBuilder text, Map<Object, Boolean> visited) {
+        switch (value) {
+            case null -> text.append("null");
+            case Enum<?> e -> text.append(e.name());
+            case String s -> text.append('"').append(s).append('"');
+            case Number n -> text.append(n.getClass().getSimpleName()).append(':').append(n);
+            case Character c -> text.append('\'').append(c).append('\'');
+            case Boolean b -> text.append(b);
+            case DeclarationIndex index -> text.append("index");
+            case SymbolTable symbolTable -> text.append("symbol table");
+            case List<?> list -> {
+                text.append('[');
+                for (Object element : list) {
+                    dump(element, text, visited);
+                    text.append(',');
+                }
+                text.append(']');
+            }
+            default -> {
+                // statements refer back to the declarations they were parsed against
+                if (visited.put(value, Boolean.TRUE) != null) {
+                    text.append(value instanceof VariableDeclarationsNode ? "declarations" : "seen");
+                    return;
+                }
+                text.append(value.getClass().getSimpleName()).append('{');
+                for (Class<?> type = value.getClass(); type != Object.class; type = type.getSuperclass()) {
+                    for (Field field : type.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("symbolId")) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        text.append(field.getName()).append('=');
+                        try {
+                            dump(field.get(value), text, visited);
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        text.append(';');
+                    }
+                }
+                text.append('}');
+            }
+        }
+    }
+
+    // An edit a user might make between two runs: a digit, a blank, comment or copied DISPLAY line, a deleted
+    // blank or comment line, text typed into a string, or indentation. Null when the source has nothing to edit.
+    public static TextEdit randomEdit(Random random, String source) {
+        int begin = source.indexOf("BEGIN CODE");
+        int end = source.lastIndexOf("END CODE");
+        List<Integer> lineStarts = new ArrayList<>();
+        for (int i = source.indexOf('\n', begin) + 1; i > 0 && i < end; i = source.indexOf('\n', i) + 1) {
+            lineStarts.add(i);
+        }
+        // statement starts, where a new line can go
+        List<Integer> insertions = new ArrayList<>();
+        for (int start : lineStarts) {
+            String line = source.substring(start).stripLeading();
+            if (!line.startsWith("BEGIN") && !line.startsWith("ELSE")) {
+                insertions.add(start);
+            }
+        }
+        List<Integer> candidates = new ArrayList<>();
+        switch (random.nextInt(7)) {
+            case 0 -> {
+                for (int i = begin; i < end; i++) {
+                    if (Character.isDigit(source.charAt(i)) && !Character.isLetter(source.charAt(i - 1))) {
+                        candidates.add(i);
+                    }
+                }
+                return candidates.isEmpty() ? null : new TextEdit(pick(random, candidates), 1, String.valueOf((char) ('1' + random.nextInt(9))));
+            }
+            case 1 -> {
+                return insertions.isEmpty() ? null : new TextEdit(pick(random, insertions), 0, "\n");
+            }
+            case 2 -> {
+                return insertions.isEmpty() ? null : new TextEdit(pick(random, insertions), 0, "# note " + random.nextInt(100) + "\n");
+            }
+            case 3 -> {
+                for (int start : lineStarts) {
+                    if (line(source, start).trim().startsWith("DISPLAY")) {
+                        candidates.add(start);
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    return null;
+                }
+                int start = pick(random, candidates);
+                return new TextEdit(start, 0, line(source, start) + "\n");
+            }
+            case 4 -> {
+                for (int start : lineStarts) {
+                    String line = line(source, start);
+                    if (line.isBlank() || line.trim().startsWith("#")) {
+                        candidates.add(start);
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    return null;
+                }
+                int start = pick(random, candidates);
+                return new TextEdit(start, line(source, start).length() + 1, "");
+            }
+            case 5 -> {
+                TokenBuffer tokens = new Lexer(source).lex();
+                for (int i = 0; i < tokens.size(); i++) {
+                    if (tokens.getType(i) == Token.Type.StringLiteral) {
+                        candidates.add(tokens.getStartPos(i) + 1);
+                    }
+                }
+                return candidates.isEmpty() ? null : new TextEdit(pick(random, candidates), 0, "zz");
+            }
+            default -> {
+                return lineStarts.isEmpty() ? null : new TextEdit(pick(random, lineStarts), 0, "  ");
+            }
+        }
+    }
+
+    private static int pick(Random random, List<Integer> positions) {
+        return positions.get(random.nextInt(positions.size()));
+    }
+
+    private static String line(String source, int start) {
+        return source.substring(start, source.indexOf('\n', start));
+    }
+}
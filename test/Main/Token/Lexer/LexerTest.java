@@ -0,0 +1,116 @@
+package Main.Token.Lexer;
+
+import Main.TestPrograms;
+import Main.Token.TokenBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LexerTest {
+    private static final int[] LINES = {1000, 10000, 100000, 1000000};
+    private static final int RUNS = 5;
+    // timing noise and cache effects of the larger sources, far below the 1,000x a quadratic lexer would show
+    private static final double MAX_COST_RATIO = 4;
+    // lines that lex differently depending on what comes before them: a sign after an operand is a minus, and a
+    // string can span lines, so a chunk may start inside it
+    private static final String[] LINES_TO_SPLIT = {
+            "a = a + b * 12 - (b % 7)\n",
+            "# comment with \"quotes\" and 'x'\n",
+            "DISPLAY: a & \" item \" & f & $ & [#]\n",
+            "IF (a > b AND f <= 2.5 OR NOT c)\n",
+            "a = 5\n",
+            "-3 + a\n",
+            "b = -b\n",
+            "DISPLAY: \"first\nsecond\"\n",
+            "ch = 'x'\n",
+            "\n",
+    };
+
+    // Lexing time grows linearly with the number of lines: the time per line of every size from 1K to 1M lines is
+    // within MAX_COST_RATIO of the lowest.
+    @Test
+    void lexingTimeIsLinearInLines() {
+        // warms up the JIT
+        bestLexTime(program(LINES[LINES.length - 2]));
+        double[] costs = new double[LINES.length];
+        double lowest = Double.MAX_VALUE;
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < LINES.length; i++) {
+            costs[i] = (double) bestLexTime(program(LINES[i])) / LINES[i];
+            lowest = Math.min(lowest, costs[i]);
+            report.append(String.format("%d lines: %.1f ns per line%n", LINES[i], costs[i]));
+        }
+        for (double cost : costs) {
+            assertTrue(cost <= lowest * MAX_COST_RATIO, report.toString());
+        }
+    }
+
+    // Splitting the input into chunks lexed in parallel gives the tokens, symbol ids, lines and errors of a
+    // sequential lex, wherever the chunk boundaries fall.
+    @Test
+    void parallelLexMatchesSequentialLex() {
+        Random random = new Random(3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int program = 0; program < 20; program++) {
+                StringBuilder source = new StringBuilder("BEGIN CODE\n");
+                int lines = 10000 + random.nextInt(40000);
+                for (int line = 0; line < lines; line++) {
+                    source.append(LINES_TO_SPLIT[random.nextInt(LINES_TO_SPLIT.length)]);
+                }
+                if (program % 4 == 3) {
+                    // an error in some chunk
+                    source.insert(random.nextInt(source.length()), '~');
+                }
+                String text = source.append("END CODE\n").toString();
+                assertEquals(lex(text, null), lex(text, pool), "program " + program);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Tokens with their symbol ids and the line of every position, or the error.
+    private static String lex(String source, ForkJoinPool pool) {
+        Lexer lexer = new Lexer(source);
+        TokenBuffer tokens;
+        try {
+            tokens = pool == null ? lexer.lex() : lexer.lexParallel(pool);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+        StringBuilder symbolIds = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            symbolIds.append(tokens.getSymbolId(i)).append(',');
+        }
+        return TestPrograms.tokens(tokens) + symbolIds + TestPrograms.lines(lexer, source.length());
+    }
+
+    private static long bestLexTime(String source) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            new Lexer(source).lex();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    // Declarations, then a repeating mix of assignments, comments, DISPLAY statements and conditions.
+    static String program(int lines) {
+        StringBuilder source = new StringBuilder("BEGIN CODE\nINT a = 1, b = 2\nFLOAT f = 1.5\n");
+        for (int line = 3; line < lines - 1; line++) {
+            switch (line % 4) {
+                case 0 -> source.append("a = a + b * ").append(line).append(" - (b % 7)\n");
+                case 1 -> source.append("# comment line ").append(line).append('\n');
+                case 2 -> source.append("DISPLAY: a & \" item \" & f & $\n");
+                default -> source.append("IF (a > b AND f <= 2.5)\n");
+            }
+        }
+        return source.append("END CODE\n").toString();
+    }
+}
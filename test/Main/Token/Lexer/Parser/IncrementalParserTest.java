@@ -0,0 +1,75 @@
+package Main.Token.Lexer.Parser;
+
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.TestPrograms;
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.TextEdit;
+import Main.Token.TokenBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalParserTest {
+    private static final int EDITS = 300;
+
+    // After every random edit the re-lexed tokens, line table and re-parsed tree equal those of the edited source
+    // lexed and parsed from scratch.
+    @Test
+    void randomEditsMatchParsingFromScratch() throws Exception {
+        Random random = new Random(42);
+        int reused = 0;
+        for (String program : TestPrograms.ALL) {
+            IncrementalParser incremental = new IncrementalParser(program);
+            for (int step = 0; step < EDITS; step++) {
+                String source = incremental.getSource().toString();
+                TextEdit edit = TestPrograms.randomEdit(random, source);
+                if (edit == null) {
+                    continue;
+                }
+                String edited = edit.apply(source);
+                Lexer lexer = new Lexer(edited);
+                TokenBuffer tokens = lexer.lex();
+                ProgramNode expected = (ProgramNode) new Parser(tokens).parse();
+
+                ProgramNode actual = incremental.applyEdit(edit);
+                String where = "step " + step + ", edit at " + edit.getOffset() + " of:\n" + source;
+                assertEquals(TestPrograms.tokens(tokens), TestPrograms.tokens(incremental.getTokens()), where);
+                assertEquals(TestPrograms.lines(lexer, edited.length()), TestPrograms.lines(incremental.getLexer(), edited.length()), where);
+                assertEquals(TestPrograms.tree(expected), TestPrograms.tree(actual), where);
+                reused += incremental.getParser().getReusedStatements();
+            }
+        }
+        // otherwise every edit fell back to a full parse and nothing incremental was tested
+        assertTrue(reused > 0);
+    }
+
+    // An edit that breaks the program reports what a full parse reports, and the next edit recovers from it.
+    @Test
+    void brokenEditRecovers() throws Exception {
+        String program = TestPrograms.WHILE_CONTINUE;
+        IncrementalParser incremental = new IncrementalParser(program);
+        int offset = program.indexOf("END WHILE");
+        TextEdit breaking = new TextEdit(offset, "END WHILE".length(), "END WHIL");
+        Exception expected = null;
+        try {
+            new Parser(new Lexer(breaking.apply(program)).lex()).parse();
+        } catch (Exception e) {
+            expected = e;
+        }
+        Exception actual = null;
+        try {
+            incremental.applyEdit(breaking);
+        } catch (Exception e) {
+            actual = e;
+        }
+        assertTrue(expected != null && actual != null);
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getMessage(), actual.getMessage());
+
+        ProgramNode repaired = incremental.applyEdit(new TextEdit(offset, "END WHIL".length(), "END WHILE"));
+        assertEquals(TestPrograms.tree((ProgramNode) new Parser(new Lexer(program).lex()).parse()), TestPrograms.tree(repaired));
+    }
+}
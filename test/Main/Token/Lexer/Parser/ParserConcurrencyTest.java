@@ -0,0 +1,85 @@
+package Main.Token.Lexer.Parser;
+
+import Main.Nodes.ASTNodes.ProgramNode;
+import Main.TestPrograms;
+import Main.Token.Lexer.Lexer;
+import Main.Token.Lexer.TextEdit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+
+    // Parsers share no state, so parsing many programs at once gives every program the tree or the error it gets
+    // when the programs are parsed one after another.
+    @Test
+    void parallelParsesMatchSerialParses() throws Exception {
+        List<String> programs = programs(new Random(7));
+        List<String> serial = new ArrayList<>();
+        for (String program : programs) {
+            serial.add(parse(program));
+        }
+        assertTrue(serial.stream().anyMatch(result -> result.startsWith("ERROR")));
+        assertTrue(serial.stream().anyMatch(result -> !result.startsWith("ERROR")));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            Random random = new Random(11);
+            for (int round = 0; round < ROUNDS; round++) {
+                List<Integer> order = new ArrayList<>();
+                for (int i = 0; i < programs.size(); i++) {
+                    order.add(i);
+                }
+                Collections.shuffle(order, random);
+                List<Future<String>> results = new ArrayList<>(Collections.nCopies(programs.size(), null));
+                for (int i : order) {
+                    String program = programs.get(i);
+                    results.set(i, pool.submit(() -> parse(program)));
+                }
+                for (int i = 0; i < programs.size(); i++) {
+                    assertEquals(serial.get(i), results.get(i).get(), "round " + round + ", program:\n" + programs.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // The samples under growing random edits, each also with its BEGIN CODE misspelled and with a statement after
+    // END CODE, so the errors differ by message and line.
+    private static List<String> programs(Random random) {
+        List<String> programs = new ArrayList<>();
+        for (String sample : TestPrograms.ALL) {
+            String source = sample;
+            for (int i = 0; i < 150; i++) {
+                TextEdit edit = TestPrograms.randomEdit(random, source);
+                if (edit != null) {
+                    source = edit.apply(source);
+                }
+                programs.add(source);
+                programs.add("# header\n" + source.replace("BEGIN CODE", "BEGIN COD"));
+                programs.add(source + "\n\nDISPLAY: 1\n");
+            }
+        }
+        return programs;
+    }
+
+    private static String parse(String program) {
+        try {
+            return TestPrograms.tree((ProgramNode) new Parser(new Lexer(program).lex()).parse());
+        } catch (Exception e) {
+            return String.valueOf(e.getMessage());
+        }
+    }
+}
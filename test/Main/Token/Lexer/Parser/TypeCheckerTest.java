@@ -0,0 +1,82 @@
+package Main.Token.Lexer.Parser;
+
+import Main.Engine.CodeEngine;
+import Main.Engine.CompiledProgram;
+import Main.Engine.Diagnostic;
+import Main.Engine.ExecutionMode;
+import Main.Engine.InputSource;
+import Main.Optimizer.OptimizationLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeCheckerTest {
+    // A parenthesized literal is a LiteralNode inside the assigned LiteralNode. The TypeChecker types the literal
+    // inside, so an assignment of the wrong type is reported before the program runs.
+    @Test
+    void rejectsMismatchedParenthesizedLiterals() {
+        String[][] cases = {
+                {"INT a = 1\na = ('x')", "ERROR: Cannot assign a value of type CHAR to variable 'a' of type INT.", "3"},
+                {"CHAR c = 'a'\nc = (5)", "ERROR: Cannot assign a value of type INT to variable 'c' of type CHAR.", "3"},
+                {"INT i\nBOOL p = \"TRUE\"\nFOR (i = 0, i < 3, i = i + 1)\nBEGIN FOR\np = ((2.5))\nEND FOR",
+                        "ERROR: Cannot assign a value of type FLOAT to variable 'p' of type BOOL.", "6"},
+                {"INT a = ('x')", "ERROR: Cannot assign a value of type CHAR to variable 'a' of type INT.", "2"},
+        };
+        for (OptimizationLevel level : OptimizationLevel.values()) {
+            CodeEngine engine = new CodeEngine(ExecutionMode.TREE, 1, level);
+            for (String[] testCase : cases) {
+                CompiledProgram program = engine.compile("BEGIN CODE\n" + testCase[0] + "\nEND CODE\n");
+                String where = "-O" + level.getName() + ": " + testCase[0];
+                assertEquals(1, program.getDiagnostics().size(), where);
+                Diagnostic diagnostic = program.getDiagnostics().get(0);
+                assertEquals(Diagnostic.Phase.TYPE, diagnostic.getPhase(), where);
+                assertEquals(testCase[1] + " at line " + testCase[2], diagnostic.getMessage(), where);
+                assertEquals(Integer.parseInt(testCase[2]), diagnostic.getLineNumber(), where);
+            }
+        }
+    }
+
+    // A parenthesized literal of the right type is assigned like the literal itself, on every engine, at every level,
+    // and inside a loop hot enough to be compiled.
+    @Test
+    void acceptsParenthesizedLiteralAssignments() {
+        String[][] cases = {
+                {"INT a = 1\na = (5)\nDISPLAY: a & \" \" & (a + 1)", "5 6"},
+                {"FLOAT f\nf = (2)\nDISPLAY: f", "2.0"},
+                {"BOOL p = \"TRUE\"\np = (\"FALSE\")\nDISPLAY: p", "FALSE"},
+                {"CHAR c = 'a'\nc = ('b')\nDISPLAY: c", "b"},
+                {"INT i, s = 0\nFOR (i = 0, i < 3, i = i + 1)\nBEGIN FOR\ns = ((7))\nEND FOR\nDISPLAY: s", "7"},
+        };
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            for (OptimizationLevel level : OptimizationLevel.values()) {
+                CodeEngine engine = new CodeEngine(mode, 1, level);
+                for (String[] testCase : cases) {
+                    StringBuilder output = new StringBuilder();
+                    List<Diagnostic> diagnostics = run(engine, testCase[0], output);
+                    String where = mode.getName() + " -O" + level.getName() + ": " + testCase[0];
+                    assertTrue(diagnostics.isEmpty(), where + ": " + diagnostics);
+                    assertEquals(testCase[1], output.toString(), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void acceptsParenthesizedLiteralInitializers() {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            StringBuilder output = new StringBuilder();
+            List<Diagnostic> diagnostics = run(new CodeEngine(mode, 1), "INT a = (5)\nDISPLAY: a + 1", output);
+            assertTrue(diagnostics.isEmpty(), mode.getName() + ": " + diagnostics);
+            assertEquals("6", output.toString(), mode.getName());
+        }
+    }
+
+    private static List<Diagnostic> run(CodeEngine engine, String statements, StringBuilder output) {
+        CompiledProgram program = engine.compile("BEGIN CODE\n" + statements + "\nEND CODE\n");
+        assertTrue(program.isSuccessful(), String.valueOf(program.getDiagnostics()));
+        return engine.run(program, InputSource.of(), output::append);
+    }
+}